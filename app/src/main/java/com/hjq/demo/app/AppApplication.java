@@ -5,6 +5,7 @@ import android.app.Application;
 import android.content.Context;
 import android.net.ConnectivityManager;
 import android.net.Network;
+import android.net.Uri;
 import android.os.Build;
 
 import androidx.annotation.NonNull;
@@ -17,7 +18,24 @@ import com.hjq.demo.R;
 import com.hjq.demo.aop.Log;
 import com.hjq.demo.http.RequestHandler;
 import com.hjq.demo.http.glide.GlideApp;
+import com.hjq.demo.http.web.WebBlobProvider;
+import com.hjq.demo.http.web.WebBlockFilter;
+import com.hjq.demo.http.web.WebBundleManager;
+import com.hjq.demo.http.web.WebInterceptorManager;
+import com.hjq.demo.http.web.WebOkHttpLoader;
+import com.hjq.demo.http.web.WebResourceCache;
 import com.hjq.demo.manager.ActivityManager;
+import com.hjq.demo.manager.BrowserMemoryManager;
+import com.hjq.demo.manager.BrowserViewPool;
+import com.hjq.demo.manager.SettingsStore;
+import com.hjq.demo.manager.StallWatchdog;
+import com.hjq.demo.manager.StartupManager;
+import com.hjq.demo.manager.StartupManager.StartupTask;
+import com.hjq.demo.manager.StartupTracer;
+import com.hjq.demo.manager.ThreadPoolManager;
+import com.hjq.demo.manager.UrlRouteManager;
+import com.hjq.demo.manager.WebImagePolicyManager;
+import com.hjq.demo.manager.WebSnapshotManager;
 import com.hjq.demo.other.AppConfig;
 import com.hjq.demo.other.CrashHandler;
 import com.hjq.demo.other.DebugLoggerTree;
@@ -26,6 +44,7 @@ import com.hjq.demo.other.SmartBallPulseFooter;
 import com.hjq.demo.other.TitleBarStyle;
 import com.hjq.demo.other.ToastLogInterceptor;
 import com.hjq.demo.other.ToastStyle;
+import com.hjq.demo.widget.DebugOverlayView;
 import com.hjq.gson.factory.GsonFactory;
 import com.hjq.http.EasyConfig;
 import com.hjq.http.config.RequestServer;
@@ -51,11 +70,15 @@ public final class AppApplication extends Application {
     public void onCreate() {
         super.onCreate();
         initSdk(this);
+        // 在主线程空闲的时候预创建 BrowserView
+        BrowserViewPool.getInstance().preload();
+        StartupTracer.getInstance().mark(StartupTracer.PHASE_APPLICATION_CREATED);
     }
 
     @Override
     protected void attachBaseContext(Context base) {
         super.attachBaseContext(base);
+        StartupTracer.getInstance().mark(StartupTracer.PHASE_ATTACH_BASE_CONTEXT);
     }
 
     @Override
@@ -63,6 +86,10 @@ public final class AppApplication extends Application {
         super.onLowMemory();
         // 清理所有图片内存缓存
         GlideApp.get(this).onLowMemory();
+        // 释放所有空闲的 BrowserView
+        BrowserViewPool.getInstance().onTrimMemory(TRIM_MEMORY_COMPLETE);
+        // 释放网页占用的内存
+        BrowserMemoryManager.getInstance().onTrimMemory(TRIM_MEMORY_COMPLETE);
     }
 
     @Override
@@ -70,113 +97,210 @@ public final class AppApplication extends Application {
         super.onTrimMemory(level);
         // 根据手机内存剩余情况清理图片内存缓存
         GlideApp.get(this).onTrimMemory(level);
+        // 根据手机内存剩余情况释放空闲的 BrowserView
+        BrowserViewPool.getInstance().onTrimMemory(level);
+        // 根据手机内存剩余情况释放网页占用的内存
+        BrowserMemoryManager.getInstance().onTrimMemory(level);
+        // 应用退到后台之后随时可能被杀死，把还没有落盘的配置写入磁盘
+        if (level >= TRIM_MEMORY_UI_HIDDEN) {
+            SettingsStore.getInstance().flushAsync();
+        }
     }
 
     /**
-     * 初始化一些第三方框架
+     * 初始化一些第三方框架（按照依赖关系调度，互不依赖的任务在子线程中并行执行）
      */
     public static void initSdk(Application application) {
-        // 设置标题栏初始化器
-        TitleBar.setDefaultStyle(new TitleBarStyle());
-
-        // 设置全局的 Header 构建器
-        SmartRefreshLayout.setDefaultRefreshHeaderCreator((cx, layout) ->
-                new MaterialHeader(application).setColorSchemeColors(ContextCompat.getColor(application, R.color.common_accent_color)));
-        // 设置全局的 Footer 构建器
-        SmartRefreshLayout.setDefaultRefreshFooterCreator((cx, layout) -> new SmartBallPulseFooter(application));
-        // 设置全局初始化器
-        SmartRefreshLayout.setDefaultRefreshInitializer((cx, layout) -> {
-            // 刷新头部是否跟随内容偏移
-            layout.setEnableHeaderTranslationContent(true)
-                    // 刷新尾部是否跟随内容偏移
-                    .setEnableFooterTranslationContent(true)
-                    // 加载更多是否跟随内容偏移
-                    .setEnableFooterFollowWhenNoMoreData(true)
-                    // 内容不满一页时是否可以上拉加载更多
-                    .setEnableLoadMoreWhenContentNotFull(false)
-                    // 仿苹果越界效果开关
-                    .setEnableOverScrollDrag(false);
-        });
-
-        // 初始化吐司
-        ToastUtils.init(application, new ToastStyle());
-        // 设置调试模式
-        ToastUtils.setDebugMode(AppConfig.isDebug());
-        // 设置 Toast 拦截器
-        ToastUtils.setInterceptor(new ToastLogInterceptor());
-
-        // 本地异常捕捉
-        CrashHandler.register(application);
-
-        // 友盟统计、登录、分享 SDK
-        UmengClient.init(application, AppConfig.isLogEnable());
-
-        // Bugly 异常捕捉
-        CrashReport.initCrashReport(application, AppConfig.getBuglyId(), AppConfig.isDebug());
-
-        // Activity 栈管理初始化
-        ActivityManager.getInstance().init(application);
-
-        // MMKV 初始化
-        MMKV.initialize(application);
-
-        // 网络请求框架初始化
-         OkHttpClient okHttpClient = new OkHttpClient.Builder()
+        // 网络请求和 WebView 资源加载共用同一个 OkHttpClient
+        OkHttpClient okHttpClient = new OkHttpClient.Builder()
                 .build();
 
-        EasyConfig.with(okHttpClient)
-                // 是否打印日志
-                .setLogEnabled(AppConfig.isLogEnable())
-                // 设置服务器配置
-                .setServer(new RequestServer("http://baidu.com"))
-                // 设置请求处理策略
-                .setHandler(new RequestHandler(application))
-                // 设置请求重试次数
-                .setRetryCount(1)
-                .setInterceptor((api, params, headers) -> {
-                    // 添加全局请求头
-                    headers.put("token", "66666666666");
-                    headers.put("deviceOaid", UmengClient.getDeviceOaid());
-                    headers.put("versionName", AppConfig.getVersionName());
-                    headers.put("phone", "" + Build.BRAND + "-" + Build.MODEL + "-" + Build.PRODUCT + "-" + Build.BOARD + "-"
-                            + Build.DEVICE + "-Android" + Build.VERSION.RELEASE + "-API" + Build.VERSION.SDK_INT);
-                    headers.put("versionCode", String.valueOf(AppConfig.getVersionCode()));
-                    // 添加全局请求参数
-                    // params.put("6666666", "6666666");
-                })
-                .into();
-
-        // 设置 Json 解析容错监听
-        GsonFactory.setJsonCallback((typeToken, fieldName, jsonToken) -> {
-            // 上报到 Bugly 错误列表
-            CrashReport.postCatchedException(new IllegalArgumentException(
-                    "类型解析异常：" + typeToken + "#" + fieldName + "，后台返回的类型为：" + jsonToken));
-        });
-
-        // 初始化日志打印
-        if (AppConfig.isLogEnable()) {
-            Timber.plant(new DebugLoggerTree());
-        }
+        new StartupManager()
+                // 初始化日志打印（放在最前面，后面的任务耗时才能打印出来）
+                .addTask(new StartupTask("Timber", () -> {
+                    if (AppConfig.isLogEnable()) {
+                        Timber.plant(new DebugLoggerTree());
+                    }
+                }).setMainThread(true).setAwait(true))
+
+                // 设置标题栏初始化器
+                .addTask(new StartupTask("TitleBar", () ->
+                        TitleBar.setDefaultStyle(new TitleBarStyle()))
+                        .setMainThread(true).setAwait(true))
+
+                .addTask(new StartupTask("SmartRefreshLayout", () -> {
+                    // 设置全局的 Header 构建器
+                    SmartRefreshLayout.setDefaultRefreshHeaderCreator((cx, layout) ->
+                            new MaterialHeader(application).setColorSchemeColors(ContextCompat.getColor(application, R.color.common_accent_color)));
+                    // 设置全局的 Footer 构建器
+                    SmartRefreshLayout.setDefaultRefreshFooterCreator((cx, layout) -> new SmartBallPulseFooter(application));
+                    // 设置全局初始化器
+                    SmartRefreshLayout.setDefaultRefreshInitializer((cx, layout) -> {
+                        // 刷新头部是否跟随内容偏移
+                        layout.setEnableHeaderTranslationContent(true)
+                                // 刷新尾部是否跟随内容偏移
+                                .setEnableFooterTranslationContent(true)
+                                // 加载更多是否跟随内容偏移
+                                .setEnableFooterFollowWhenNoMoreData(true)
+                                // 内容不满一页时是否可以上拉加载更多
+                                .setEnableLoadMoreWhenContentNotFull(false)
+                                // 仿苹果越界效果开关
+                                .setEnableOverScrollDrag(false);
+                    });
+                }).setMainThread(true).setAwait(true))
+
+                .addTask(new StartupTask("ToastUtils", () -> {
+                    // 初始化吐司
+                    ToastUtils.init(application, new ToastStyle());
+                    // 设置调试模式
+                    ToastUtils.setDebugMode(AppConfig.isDebug());
+                    // 设置 Toast 拦截器
+                    ToastUtils.setInterceptor(new ToastLogInterceptor());
+                }).setMainThread(true).setAwait(true))
+
+                // 本地异常捕捉
+                .addTask(new StartupTask("CrashHandler", () ->
+                        CrashHandler.register(application))
+                        .setMainThread(true).setAwait(true))
+
+                // 友盟统计、登录、分享 SDK（不影响首屏，不需要等待）
+                .addTask(new StartupTask("Umeng", () ->
+                        UmengClient.init(application, AppConfig.isLogEnable())))
+
+                // Bugly 异常捕捉（不影响首屏，不需要等待，但是要在本地异常捕捉之后注册，和原来的顺序保持一致）
+                .addTask(new StartupTask("Bugly", () ->
+                        CrashReport.initCrashReport(application, AppConfig.getBuglyId(), AppConfig.isDebug()))
+                        .setDependencies("CrashHandler"))
+
+                // Activity 栈管理初始化（必须在第一个 Activity 创建之前完成）
+                .addTask(new StartupTask("ActivityManager", () ->
+                        ActivityManager.getInstance().init(application))
+                        .setMainThread(true).setAwait(true))
+
+                // BrowserView 复用池初始化
+                .addTask(new StartupTask("BrowserViewPool", () ->
+                        BrowserViewPool.getInstance().init(application))
+                        .setMainThread(true).setAwait(true))
+
+                // BrowserView 内存管理初始化（需要监听应用前后台切换）
+                .addTask(new StartupTask("BrowserMemoryManager", () ->
+                        BrowserMemoryManager.getInstance().init(application))
+                        .setDependencies("ActivityManager")
+                        .setMainThread(true).setAwait(true))
+
+                // MMKV 初始化
+                .addTask(new StartupTask("MMKV", () ->
+                        MMKV.initialize(application))
+                        .setAwait(true))
 
-        // 注册网络状态变化监听
-        ConnectivityManager connectivityManager = ContextCompat.getSystemService(application, ConnectivityManager.class);
-        if (connectivityManager != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
-            connectivityManager.registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
-                @Override
-                public void onLost(@NonNull Network network) {
-                    Activity topActivity = ActivityManager.getInstance().getTopActivity();
-                    if (!(topActivity instanceof LifecycleOwner)) {
+                // 网页链接路由表初始化（读取 MMKV 中的路由配置）
+                .addTask(new StartupTask("UrlRouteManager", () ->
+                        UrlRouteManager.getInstance().reload())
+                        .setDependencies("MMKV")
+                        .setAwait(true))
+
+                // 网页图片加载策略初始化（读取 MMKV 中的策略配置）
+                .addTask(new StartupTask("WebImagePolicyManager", () ->
+                        WebImagePolicyManager.getInstance().reload())
+                        .setDependencies("MMKV")
+                        .setAwait(true))
+
+                // 读取已经保存的网页快照列表（闪屏页需要在主线程判断有没有快照）
+                .addTask(new StartupTask("WebSnapshotManager", () ->
+                        WebSnapshotManager.getInstance().init(application))
+                        .setAwait(true))
+
+                // 网络请求框架初始化
+                .addTask(new StartupTask("EasyHttp", () ->
+                        EasyConfig.with(okHttpClient)
+                                // 是否打印日志
+                                .setLogEnabled(AppConfig.isLogEnable())
+                                // 设置服务器配置
+                                .setServer(new RequestServer("http://baidu.com"))
+                                // 设置请求处理策略
+                                .setHandler(new RequestHandler(application))
+                                // 设置请求重试次数
+                                .setRetryCount(1)
+                                .setInterceptor((api, params, headers) -> {
+                                    // 添加全局请求头
+                                    headers.put("token", "66666666666");
+                                    headers.put("deviceOaid", UmengClient.getDeviceOaid());
+                                    headers.put("versionName", AppConfig.getVersionName());
+                                    headers.put("phone", "" + Build.BRAND + "-" + Build.MODEL + "-" + Build.PRODUCT + "-" + Build.BOARD + "-"
+                                            + Build.DEVICE + "-Android" + Build.VERSION.RELEASE + "-API" + Build.VERSION.SDK_INT);
+                                    headers.put("versionCode", String.valueOf(AppConfig.getVersionCode()));
+                                    // 添加全局请求参数
+                                    // params.put("6666666", "6666666");
+                                })
+                                .into())
+                        .setAwait(true))
+
+                // WebView 请求拦截器初始化（拦截器的添加顺序决定了匹配的优先级）
+                .addTask(new StartupTask("WebInterceptor", () -> {
+                    // 本地文件虚拟地址（用于原生向网页传递图片等大文件）
+                    WebInterceptorManager.addInterceptor(WebBlobProvider.getInstance());
+                    // 网页广告和统计脚本拦截（规则文件比较大，放到子线程中解析）
+                    ThreadPoolManager.getInstance().cpu().execute(() -> WebBlockFilter.getInstance().init(application));
+                    WebInterceptorManager.addInterceptor(WebBlockFilter.getInstance());
+                    // H5 离线包初始化（优先于静态资源缓存）
+                    WebBundleManager.getInstance().init(application, AppConfig.getHostUrl());
+                    WebInterceptorManager.addInterceptor(WebBundleManager.getInstance());
+                    // WebView 静态资源缓存初始化
+                    WebResourceCache.getInstance().init(application, okHttpClient);
+                    WebInterceptorManager.addInterceptor(WebResourceCache.getInstance());
+                    // 主站的 WebView 子资源和接口请求共用同一个 OkHttpClient
+                    WebOkHttpLoader.getInstance().init(okHttpClient);
+                    WebOkHttpLoader.getInstance().addHost(Uri.parse(AppConfig.getHostUrl()).getHost());
+                    WebInterceptorManager.addInterceptor(WebOkHttpLoader.getInstance());
+                }).setDependencies("MMKV").setAwait(true))
+
+                // 设置 Json 解析容错监听
+                .addTask(new StartupTask("GsonFactory", () ->
+                        GsonFactory.setJsonCallback((typeToken, fieldName, jsonToken) -> {
+                            // 上报到 Bugly 错误列表
+                            CrashReport.postCatchedException(new IllegalArgumentException(
+                                    "类型解析异常：" + typeToken + "#" + fieldName + "，后台返回的类型为：" + jsonToken));
+                        }))
+                        .setDependencies("Bugly"))
+
+                // 注册网络状态变化监听
+                .addTask(new StartupTask("NetworkCallback", () -> {
+                    ConnectivityManager connectivityManager = ContextCompat.getSystemService(application, ConnectivityManager.class);
+                    if (connectivityManager == null || Build.VERSION.SDK_INT < Build.VERSION_CODES.N) {
                         return;
                     }
+                    connectivityManager.registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
+                        @Override
+                        public void onLost(@NonNull Network network) {
+                            Activity topActivity = ActivityManager.getInstance().getTopActivity();
+                            if (!(topActivity instanceof LifecycleOwner)) {
+                                return;
+                            }
 
-                    LifecycleOwner lifecycleOwner = ((LifecycleOwner) topActivity);
-                    if (lifecycleOwner.getLifecycle().getCurrentState() != Lifecycle.State.RESUMED) {
-                        return;
+                            LifecycleOwner lifecycleOwner = ((LifecycleOwner) topActivity);
+                            if (lifecycleOwner.getLifecycle().getCurrentState() != Lifecycle.State.RESUMED) {
+                                return;
+                            }
+
+                            ToastUtils.show(R.string.common_network_error);
+                        }
+                    });
+                }).setDependencies("ActivityManager", "ToastUtils"))
+
+                // 调试模式下在界面上显示线程池的统计数据
+                .addTask(new StartupTask("DebugOverlay", () -> {
+                    if (AppConfig.isDebug()) {
+                        DebugOverlayView.install(application);
                     }
+                }).setMainThread(true))
 
-                    ToastUtils.show(R.string.common_network_error);
-                }
-            });
-        }
+                // 调试模式下监控主线程卡顿（需要在主线程设置 Looper 的日志回调，会替换掉已经设置的回调）
+                .addTask(new StartupTask("StallWatchdog", () -> {
+                    if (AppConfig.isDebug()) {
+                        StallWatchdog.getInstance().init(application);
+                    }
+                }).setMainThread(true))
+
+                .start();
     }
 }
\ No newline at end of file
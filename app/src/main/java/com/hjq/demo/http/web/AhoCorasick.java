@@ -0,0 +1,173 @@
+package com.hjq.demo.http.web;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : Aho-Corasick 多模式匹配（一次扫描找出文本中包含的所有关键字，子节点用有序数组存放以节省内存）
+ */
+final class AhoCorasick {
+
+    private static final char[] EMPTY_LABELS = new char[0];
+    private static final int[] EMPTY_INTS = new int[0];
+
+    /** 每个节点的子节点字符（有序） */
+    private char[][] mLabels;
+    /** 每个节点的子节点下标，和字符一一对应 */
+    private int[][] mTargets;
+    /** 失配指针 */
+    private int[] mFail;
+    /** 在这个节点结束的关键字 id */
+    private int[][] mOutputs;
+    /** 沿着失配指针往上第一个有输出的节点，没有则为 -1 */
+    private int[] mOutputLink;
+    /** 节点数量 */
+    private int mSize;
+
+    AhoCorasick() {
+        mLabels = new char[16][];
+        mTargets = new int[16][];
+        mOutputs = new int[16][];
+        newNode();
+    }
+
+    /**
+     * 添加关键字（必须在 {@link #build()} 之前调用）
+     */
+    void add(String keyword, int id) {
+        int node = 0;
+        for (int i = 0; i < keyword.length(); i++) {
+            char c = keyword.charAt(i);
+            int next = next(node, c);
+            if (next == -1) {
+                next = newNode();
+                insertChild(node, c, next);
+            }
+            node = next;
+        }
+        int[] outputs = mOutputs[node];
+        outputs = Arrays.copyOf(outputs, outputs.length + 1);
+        outputs[outputs.length - 1] = id;
+        mOutputs[node] = outputs;
+    }
+
+    /**
+     * 构建失配指针
+     */
+    void build() {
+        mLabels = Arrays.copyOf(mLabels, mSize);
+        mTargets = Arrays.copyOf(mTargets, mSize);
+        mOutputs = Arrays.copyOf(mOutputs, mSize);
+        mFail = new int[mSize];
+        mOutputLink = new int[mSize];
+        mOutputLink[0] = -1;
+
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int child : mTargets[0]) {
+            mFail[child] = 0;
+            mOutputLink[child] = -1;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            char[] labels = mLabels[node];
+            int[] targets = mTargets[node];
+            for (int i = 0; i < labels.length; i++) {
+                int child = targets[i];
+                int fail = mFail[node];
+                int next;
+                while ((next = next(fail, labels[i])) == -1 && fail != 0) {
+                    fail = mFail[fail];
+                }
+                mFail[child] = next == -1 || next == child ? 0 : next;
+                int link = mFail[child];
+                mOutputLink[child] = mOutputs[link].length > 0 ? link : mOutputLink[link];
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * 扫描文本，每找到一个关键字就回调一次
+     *
+     * @return          回调返回 true 表示停止扫描，这个时候返回 true
+     */
+    boolean search(CharSequence text, OnMatchListener listener) {
+        int node = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int next;
+            while ((next = next(node, c)) == -1 && node != 0) {
+                node = mFail[node];
+            }
+            node = next == -1 ? 0 : next;
+            for (int output = mOutputs[node].length > 0 ? node : mOutputLink[node]; output > 0; output = mOutputLink[output]) {
+                for (int id : mOutputs[output]) {
+                    if (listener.onMatch(id, i + 1)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 获取节点数量
+     */
+    int size() {
+        return mSize;
+    }
+
+    private int next(int node, char c) {
+        int index = Arrays.binarySearch(mLabels[node], c);
+        return index < 0 ? -1 : mTargets[node][index];
+    }
+
+    private int newNode() {
+        if (mSize == mLabels.length) {
+            int capacity = mSize * 2;
+            mLabels = Arrays.copyOf(mLabels, capacity);
+            mTargets = Arrays.copyOf(mTargets, capacity);
+            mOutputs = Arrays.copyOf(mOutputs, capacity);
+        }
+        mLabels[mSize] = EMPTY_LABELS;
+        mTargets[mSize] = EMPTY_INTS;
+        mOutputs[mSize] = EMPTY_INTS;
+        return mSize++;
+    }
+
+    private void insertChild(int node, char c, int child) {
+        char[] labels = mLabels[node];
+        int[] targets = mTargets[node];
+        int index = -(Arrays.binarySearch(labels, c) + 1);
+        char[] newLabels = new char[labels.length + 1];
+        int[] newTargets = new int[targets.length + 1];
+        System.arraycopy(labels, 0, newLabels, 0, index);
+        System.arraycopy(targets, 0, newTargets, 0, index);
+        newLabels[index] = c;
+        newTargets[index] = child;
+        System.arraycopy(labels, index, newLabels, index + 1, labels.length - index);
+        System.arraycopy(targets, index, newTargets, index + 1, targets.length - index);
+        mLabels[node] = newLabels;
+        mTargets[node] = newTargets;
+    }
+
+    /**
+     * 匹配监听
+     */
+    interface OnMatchListener {
+
+        /**
+         * 找到关键字
+         *
+         * @param id            关键字 id
+         * @param end           关键字在文本中的结束位置（不包含）
+         * @return              是否停止扫描
+         */
+        boolean onMatch(int id, int end);
+    }
+}
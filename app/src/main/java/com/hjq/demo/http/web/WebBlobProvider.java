@@ -0,0 +1,179 @@
+package com.hjq.demo.http.web;
+
+import android.net.Uri;
+import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
+import android.webkit.WebView;
+
+import androidx.annotation.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : 本地文件虚拟地址（原生只需要把一个短地址传给网页，网页再通过这个地址以流的形式读取文件）
+ *
+ *    地址中的 id 是随机生成的 128 位令牌，不能被其他网页猜到；文件只允许注册时指定的网页来源跨域读取，
+ *    并且读取一次之后就会失效
+ */
+public final class WebBlobProvider implements WebRequestInterceptor {
+
+    /** 虚拟地址的域名 */
+    private static final String HOST = "local.app";
+    /** 虚拟地址的路径前缀 */
+    private static final String PATH_PREFIX = "/blob/";
+    /** 最多保留的文件数量 */
+    private static final int MAX_ENTRIES = 32;
+    /** id 的字节数 */
+    private static final int ID_BYTES = 16;
+
+    private static volatile WebBlobProvider sInstance;
+
+    /** 文件 id -> 文件信息（超过数量后移除最早注册的） */
+    private final LinkedHashMap<String, Blob> mBlobs = new LinkedHashMap<String, Blob>(MAX_ENTRIES, 0.75f, true) {
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Blob> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private final SecureRandom mRandom = new SecureRandom();
+
+    private WebBlobProvider() {}
+
+    public static WebBlobProvider getInstance() {
+        if(sInstance == null) {
+            synchronized (WebBlobProvider.class) {
+                if(sInstance == null) {
+                    sInstance = new WebBlobProvider();
+                }
+            }
+        }
+        return sInstance;
+    }
+
+    /**
+     * 注册一个本地文件
+     *
+     * @param pageUrl   接收这个地址的网页，只有同一个来源的网页可以读取文件
+     * @return          网页可以直接访问的虚拟地址（只能读取一次），例如 https://local.app/blob/9f86d081884c7d65...
+     */
+    public String register(File file, String mimeType, @Nullable String pageUrl) {
+        byte[] bytes = new byte[ID_BYTES];
+        mRandom.nextBytes(bytes);
+        StringBuilder builder = new StringBuilder(ID_BYTES * 2);
+        for (byte b : bytes) {
+            builder.append(String.format(Locale.ROOT, "%02x", b & 0xFF));
+        }
+        String id = builder.toString();
+        synchronized (mBlobs) {
+            mBlobs.put(id, new Blob(file, mimeType, pageUrl == null ? null : getOrigin(Uri.parse(pageUrl))));
+        }
+        return "https://" + HOST + PATH_PREFIX + id;
+    }
+
+    /**
+     * 取消注册本地文件
+     */
+    public void unregister(String url) {
+        String id = getBlobId(Uri.parse(url));
+        if (id == null) {
+            return;
+        }
+        synchronized (mBlobs) {
+            mBlobs.remove(id);
+        }
+    }
+
+    @Nullable
+    @Override
+    public WebResourceResponse intercept(WebView view, WebResourceRequest request) {
+        String id = getBlobId(request.getUrl());
+        if (id == null) {
+            return null;
+        }
+
+        // 跨域请求（fetch）会带上 Origin，必须和注册时的网页来源一致，img 标签这种不带 Origin 的请求只能靠 id 本身保护
+        String origin = request.getRequestHeaders().get("Origin");
+        Blob blob;
+        synchronized (mBlobs) {
+            blob = mBlobs.get(id);
+            if (blob != null && origin != null && !origin.equalsIgnoreCase(blob.origin)) {
+                blob = null;
+            }
+            if (blob != null) {
+                // 网页已经读取过了，不能再被其他请求读取
+                mBlobs.remove(id);
+            }
+        }
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Cache-Control", "no-store");
+        if (blob != null && blob.origin != null) {
+            headers.put("Access-Control-Allow-Origin", blob.origin);
+            headers.put("Vary", "Origin");
+        }
+        if (blob != null) {
+            try {
+                headers.put("Content-Length", String.valueOf(blob.file.length()));
+                return new WebResourceResponse(blob.mimeType, null, 200, "OK", headers, new FileInputStream(blob.file));
+            } catch (FileNotFoundException ignored) {
+                // 文件已经被删除了
+            }
+        }
+        // 这个域名是虚构的，不能交给 WebView 去请求网络
+        return new WebResourceResponse("text/plain", "UTF-8", 404, "Not Found", headers, new ByteArrayInputStream(new byte[0]));
+    }
+
+    @Nullable
+    private static String getBlobId(Uri uri) {
+        String path = uri.getPath();
+        if (!HOST.equalsIgnoreCase(uri.getHost()) || path == null || !path.startsWith(PATH_PREFIX)) {
+            return null;
+        }
+        return path.substring(PATH_PREFIX.length());
+    }
+
+    /**
+     * 获取网页的来源（scheme://host[:port]），和浏览器请求头中的 Origin 格式一致
+     */
+    @Nullable
+    private static String getOrigin(Uri uri) {
+        String scheme = uri.getScheme();
+        String host = uri.getHost();
+        if (scheme == null || host == null) {
+            return null;
+        }
+        String origin = scheme.toLowerCase(Locale.ROOT) + "://" + host.toLowerCase(Locale.ROOT);
+        return uri.getPort() == -1 ? origin : origin + ":" + uri.getPort();
+    }
+
+    /**
+     * 注册的文件信息
+     */
+    private static final class Blob {
+
+        private final File file;
+        private final String mimeType;
+        /** 允许读取的网页来源 */
+        @Nullable
+        private final String origin;
+
+        private Blob(File file, String mimeType, @Nullable String origin) {
+            this.file = file;
+            this.mimeType = mimeType;
+            this.origin = origin;
+        }
+    }
+}
@@ -0,0 +1,541 @@
+package com.hjq.demo.http.web;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.SystemClock;
+import android.text.TextUtils;
+import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
+import android.webkit.WebView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import timber.log.Timber;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : 网页广告和统计脚本拦截（EasyList 格式的规则，域名规则用哈希表逐级匹配，其他规则用 Aho-Corasick 一次扫描）
+ *
+ *    支持的规则：||example.com^、|https://、/ads/*.js、^ 分隔符、@@ 白名单、$third-party / $~third-party
+ *    资源类型选项（$script、$image 等）会被忽略，带有其他选项（例如 $domain=）和元素隐藏规则（##）的规则会被跳过
+ */
+public final class WebBlockFilter implements WebRequestInterceptor {
+
+    /** 内置的规则文件 */
+    private static final String ASSET_RULES = "web_block_rules.txt";
+    /** 最多加载的规则数量，避免规则文件太大占用过多内存 */
+    private static final int MAX_RULE_COUNT = 30000;
+    /** 作为 Aho-Corasick 关键字的最短长度，太短的关键字会产生大量的候选 */
+    private static final int MIN_KEYWORD_LENGTH = 3;
+
+    /** 资源类型选项，这些选项会被忽略 */
+    private static final Set<String> TYPE_OPTIONS = new HashSet<>(Arrays.asList(
+            "script", "image", "stylesheet", "xmlhttprequest", "subdocument", "media", "font", "other", "ping"));
+
+    /** 常见的多级公共后缀（这些后缀下面的主域名要取三级，否则所有 *.com.cn 的网站都会被当成同一方） */
+    private static final Set<String> MULTI_LABEL_SUFFIXES = new HashSet<>(Arrays.asList(
+            "com.cn", "net.cn", "org.cn", "gov.cn", "edu.cn", "ac.cn", "mil.cn",
+            "com.hk", "net.hk", "org.hk", "edu.hk", "gov.hk",
+            "com.tw", "net.tw", "org.tw", "edu.tw", "gov.tw",
+            "com.mo", "net.mo", "org.mo",
+            "co.uk", "org.uk", "ac.uk", "gov.uk", "me.uk", "ltd.uk", "plc.uk",
+            "co.jp", "ne.jp", "or.jp", "ac.jp", "go.jp",
+            "co.kr", "or.kr", "ac.kr", "go.kr",
+            "com.au", "net.au", "org.au", "edu.au", "gov.au",
+            "com.sg", "com.my", "com.br", "com.mx", "com.tr", "com.ru",
+            "co.in", "co.nz", "co.za", "co.id", "co.th"));
+
+    private static volatile WebBlockFilter sInstance;
+
+    /** 编译好的规则集 */
+    private volatile RuleSet mRuleSet;
+
+    /** 每个 WebView 当前网页的拦截统计 */
+    private final Map<WebView, PageStats> mPageStats = new WeakHashMap<>();
+
+    /** 拦截的请求总数 */
+    private final AtomicLong mBlockedCount = new AtomicLong();
+    /** 判断的请求总数 */
+    private final AtomicLong mCheckedCount = new AtomicLong();
+    /** 判断的总耗时 */
+    private final AtomicLong mCheckedNanos = new AtomicLong();
+
+    private WebBlockFilter() {}
+
+    public static WebBlockFilter getInstance() {
+        if(sInstance == null) {
+            synchronized (WebBlockFilter.class) {
+                if(sInstance == null) {
+                    sInstance = new WebBlockFilter();
+                }
+            }
+        }
+        return sInstance;
+    }
+
+    /**
+     * 读取内置的规则文件（需要在子线程调用）
+     */
+    public void init(Context context) {
+        try (InputStream inputStream = context.getAssets().open(ASSET_RULES)) {
+            load(inputStream);
+        } catch (IOException e) {
+            Timber.w(e, "WebBlockFilter load rules failed");
+        }
+    }
+
+    /**
+     * 加载新的规则（例如从服务器下载的规则文件），会替换掉之前的规则（需要在子线程调用）
+     */
+    public void load(InputStream inputStream) throws IOException {
+        long startTime = SystemClock.elapsedRealtime();
+        RuleSet.Builder builder = new RuleSet.Builder();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, Charset.forName("UTF-8")));
+        String line;
+        while ((line = reader.readLine()) != null && builder.size() < MAX_RULE_COUNT) {
+            builder.add(line);
+        }
+        mRuleSet = builder.build();
+        Timber.i("WebBlockFilter load %d rules（%d nodes）in %d ms", builder.size(),
+                mRuleSet.nodeCount(), SystemClock.elapsedRealtime() - startTime);
+    }
+
+    /**
+     * 判断请求是否需要拦截
+     *
+     * @param referer           发起请求的网页地址，用来判断是否为第三方请求，可以为空
+     */
+    public boolean shouldBlock(@NonNull Uri uri, @Nullable String referer) {
+        RuleSet ruleSet = mRuleSet;
+        if (ruleSet == null) {
+            return false;
+        }
+        long startTime = System.nanoTime();
+        boolean block = ruleSet.shouldBlock(uri, referer);
+        mCheckedCount.incrementAndGet();
+        mCheckedNanos.addAndGet(System.nanoTime() - startTime);
+        return block;
+    }
+
+    @Nullable
+    @Override
+    public WebResourceResponse intercept(WebView view, WebResourceRequest request) {
+        if (request.isForMainFrame()) {
+            // 打开了新的网页，重新开始统计
+            synchronized (mPageStats) {
+                mPageStats.put(view, new PageStats(request.getUrl().toString()));
+            }
+            return null;
+        }
+        if (!shouldBlock(request.getUrl(), request.getRequestHeaders().get("Referer"))) {
+            return null;
+        }
+
+        mBlockedCount.incrementAndGet();
+        synchronized (mPageStats) {
+            PageStats stats = mPageStats.get(view);
+            if (stats != null) {
+                stats.blockedCount++;
+            }
+        }
+        Timber.d("WebBlockFilter blocked：%s", request.getUrl());
+        return new WebResourceResponse("text/plain", "UTF-8", new ByteArrayInputStream(new byte[0]));
+    }
+
+    /**
+     * 获取当前网页被拦截的请求数量
+     */
+    public int getBlockedCount(WebView view) {
+        synchronized (mPageStats) {
+            PageStats stats = mPageStats.get(view);
+            return stats == null ? 0 : stats.blockedCount;
+        }
+    }
+
+    public long getTotalBlockedCount() {
+        return mBlockedCount.get();
+    }
+
+    /**
+     * 打印拦截统计信息
+     */
+    public void dump() {
+        long checked = mCheckedCount.get();
+        Timber.i("WebBlockFilter checked = %d，blocked = %d，avg = %d ns", checked, mBlockedCount.get(),
+                checked == 0 ? 0 : mCheckedNanos.get() / checked);
+        synchronized (mPageStats) {
+            for (PageStats stats : mPageStats.values()) {
+                Timber.i("WebBlockFilter %s：blocked = %d", stats.url, stats.blockedCount);
+            }
+        }
+    }
+
+    /**
+     * 单个网页的拦截统计
+     */
+    private static final class PageStats {
+
+        private final String url;
+        private int blockedCount;
+
+        private PageStats(String url) {
+            this.url = url;
+        }
+    }
+
+    /**
+     * 单条非域名规则
+     */
+    private static final class Rule {
+
+        /** 去掉锚点之后的规则（小写），可能包含 * 和 ^ */
+        private final String pattern;
+        /** 是否需要从域名开始匹配（||） */
+        private final boolean hostAnchor;
+        /** 是否需要从头开始匹配（|） */
+        private final boolean startAnchor;
+        /** 是否需要匹配到结尾（|） */
+        private final boolean endAnchor;
+        /** 1 表示只匹配第三方请求，-1 表示只匹配第一方请求，0 表示都匹配 */
+        private final int thirdParty;
+
+        private Rule(String pattern, boolean hostAnchor, boolean startAnchor, boolean endAnchor, int thirdParty) {
+            this.pattern = pattern;
+            this.hostAnchor = hostAnchor;
+            this.startAnchor = startAnchor;
+            this.endAnchor = endAnchor;
+            this.thirdParty = thirdParty;
+        }
+
+        boolean matches(String url, int hostStart, int hostEnd, boolean isThirdParty) {
+            if ((thirdParty == 1 && !isThirdParty) || (thirdParty == -1 && isThirdParty)) {
+                return false;
+            }
+            if (startAnchor) {
+                return matchAt(url, 0);
+            }
+            if (hostAnchor) {
+                // 只能从域名的开头或者某一级子域名的开头开始匹配
+                for (int i = hostStart; i < hostEnd; i++) {
+                    if ((i == hostStart || url.charAt(i - 1) == '.') && matchAt(url, i)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            for (int i = 0; i < url.length(); i++) {
+                if (matchAt(url, i)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean matchAt(String url, int start) {
+            return glob(pattern, 0, url, start);
+        }
+
+        /**
+         * 通配符匹配：* 匹配任意字符，^ 匹配分隔符或者结尾
+         */
+        private boolean glob(String pattern, int p, String url, int u) {
+            while (p < pattern.length()) {
+                char c = pattern.charAt(p);
+                if (c == '*') {
+                    // 合并连续的 *
+                    while (p < pattern.length() && pattern.charAt(p) == '*') {
+                        p++;
+                    }
+                    if (p == pattern.length()) {
+                        return true;
+                    }
+                    for (int i = u; i <= url.length(); i++) {
+                        if (glob(pattern, p, url, i)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                }
+                if (c == '^') {
+                    if (u == url.length()) {
+                        p++;
+                        continue;
+                    }
+                    if (!isSeparator(url.charAt(u))) {
+                        return false;
+                    }
+                } else if (u >= url.length() || url.charAt(u) != c) {
+                    return false;
+                }
+                p++;
+                u++;
+            }
+            return !endAnchor || u == url.length();
+        }
+
+        private static boolean isSeparator(char c) {
+            return !(Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.' || c == '%');
+        }
+    }
+
+    /**
+     * 编译好的规则集（只读，可以在多个线程中同时使用）
+     */
+    private static final class RuleSet {
+
+        /** 需要拦截的域名（包括子域名） */
+        private final Set<String> blockDomains;
+        /** 白名单域名（包括子域名） */
+        private final Set<String> allowDomains;
+        /** 需要拦截的其他规则 */
+        private final List<Rule> blockRules;
+        private final AhoCorasick blockMatcher;
+        /** 白名单的其他规则 */
+        private final List<Rule> allowRules;
+        private final AhoCorasick allowMatcher;
+
+        private RuleSet(Builder builder) {
+            blockDomains = builder.blockDomains;
+            allowDomains = builder.allowDomains;
+            blockRules = builder.blockRules;
+            blockMatcher = builder.blockMatcher;
+            allowRules = builder.allowRules;
+            allowMatcher = builder.allowMatcher;
+            blockMatcher.build();
+            allowMatcher.build();
+        }
+
+        int nodeCount() {
+            return blockMatcher.size() + allowMatcher.size();
+        }
+
+        boolean shouldBlock(Uri uri, @Nullable String referer) {
+            String host = uri.getHost();
+            if (host == null) {
+                return false;
+            }
+            host = host.toLowerCase(Locale.ROOT);
+            String url = uri.toString().toLowerCase(Locale.ROOT);
+            int hostStart = getHostStart(uri, url, host);
+            int hostEnd = hostStart + host.length();
+            boolean isThirdParty = isThirdParty(host, referer);
+
+            boolean block = matchDomain(blockDomains, host) ||
+                    matchRules(blockMatcher, blockRules, url, hostStart, hostEnd, isThirdParty);
+            if (!block) {
+                return false;
+            }
+            return !(matchDomain(allowDomains, host) ||
+                    matchRules(allowMatcher, allowRules, url, hostStart, hostEnd, isThirdParty));
+        }
+
+        /**
+         * 逐级匹配域名：a.b.example.com -> b.example.com -> example.com -> com
+         */
+        private static boolean matchDomain(Set<String> domains, String host) {
+            if (domains.isEmpty()) {
+                return false;
+            }
+            int index = 0;
+            while (index != -1) {
+                if (domains.contains(index == 0 ? host : host.substring(index))) {
+                    return true;
+                }
+                int next = host.indexOf('.', index);
+                index = next == -1 ? -1 : next + 1;
+            }
+            return false;
+        }
+
+        private static boolean matchRules(AhoCorasick matcher, List<Rule> rules, String url,
+                                          int hostStart, int hostEnd, boolean isThirdParty) {
+            if (rules.isEmpty()) {
+                return false;
+            }
+            // 先用关键字筛选出候选规则，再逐条精确匹配
+            return matcher.search(url, (id, end) -> rules.get(id).matches(url, hostStart, hostEnd, isThirdParty));
+        }
+
+        private static boolean isThirdParty(String host, @Nullable String referer) {
+            if (TextUtils.isEmpty(referer)) {
+                return false;
+            }
+            String refererHost = Uri.parse(referer).getHost();
+            if (refererHost == null) {
+                return false;
+            }
+            return !getBaseDomain(host).equals(getBaseDomain(refererHost.toLowerCase(Locale.ROOT)));
+        }
+
+        /**
+         * 根据解析出来的 authority 计算 host 在链接中的位置（不能直接 indexOf，scheme 或者用户信息中也可能包含同样的字符串）
+         */
+        private static int getHostStart(Uri uri, String url, String host) {
+            int index = url.indexOf("://");
+            if (index != -1) {
+                int hostStart = index + 3;
+                String userInfo = uri.getEncodedUserInfo();
+                if (userInfo != null) {
+                    hostStart += userInfo.length() + 1;
+                }
+                if (url.startsWith(host, hostStart)) {
+                    return hostStart;
+                }
+            }
+            return url.indexOf(host);
+        }
+
+        /**
+         * 取主域名（一般是最后两级，最后两级是多级公共后缀的话取最后三级，例如 a.b.com.cn -> b.com.cn）
+         */
+        private static String getBaseDomain(String host) {
+            int last = host.lastIndexOf('.');
+            if (last <= 0) {
+                return host;
+            }
+            int index = host.lastIndexOf('.', last - 1);
+            if (index == -1) {
+                return host;
+            }
+            if (MULTI_LABEL_SUFFIXES.contains(host.substring(index + 1))) {
+                int third = host.lastIndexOf('.', index - 1);
+                return third == -1 ? host : host.substring(third + 1);
+            }
+            return host.substring(index + 1);
+        }
+
+        private static final class Builder {
+
+            private final Set<String> blockDomains = new HashSet<>();
+            private final Set<String> allowDomains = new HashSet<>();
+            private final List<Rule> blockRules = new ArrayList<>();
+            private final AhoCorasick blockMatcher = new AhoCorasick();
+            private final List<Rule> allowRules = new ArrayList<>();
+            private final AhoCorasick allowMatcher = new AhoCorasick();
+
+            int size() {
+                return blockDomains.size() + allowDomains.size() + blockRules.size() + allowRules.size();
+            }
+
+            void add(String line) {
+                line = line.trim();
+                // 跳过空行、注释、文件头和元素隐藏规则
+                if (line.isEmpty() || line.startsWith("!") || line.startsWith("[") ||
+                        line.contains("##") || line.contains("#@#") || line.contains("#?#")) {
+                    return;
+                }
+
+                boolean allow = line.startsWith("@@");
+                if (allow) {
+                    line = line.substring(2);
+                }
+
+                int thirdParty = 0;
+                int optionIndex = line.lastIndexOf('$');
+                if (optionIndex != -1) {
+                    for (String option : line.substring(optionIndex + 1).split(",")) {
+                        option = option.trim().toLowerCase(Locale.ROOT);
+                        if ("third-party".equals(option)) {
+                            thirdParty = 1;
+                        } else if ("~third-party".equals(option)) {
+                            thirdParty = -1;
+                        } else if (!TYPE_OPTIONS.contains(option.startsWith("~") ? option.substring(1) : option)) {
+                            // 不支持的选项，宁可不拦截也不能误拦截
+                            return;
+                        }
+                    }
+                    line = line.substring(0, optionIndex);
+                }
+
+                String pattern = line.toLowerCase(Locale.ROOT);
+                boolean hostAnchor = false;
+                boolean startAnchor = false;
+                boolean endAnchor = false;
+                if (pattern.startsWith("||")) {
+                    hostAnchor = true;
+                    pattern = pattern.substring(2);
+                } else if (pattern.startsWith("|")) {
+                    startAnchor = true;
+                    pattern = pattern.substring(1);
+                }
+                if (pattern.endsWith("|")) {
+                    endAnchor = true;
+                    pattern = pattern.substring(0, pattern.length() - 1);
+                }
+                // 正则规则不支持
+                if (pattern.isEmpty() || (pattern.startsWith("/") && pattern.endsWith("/") && pattern.length() > 1)) {
+                    return;
+                }
+
+                // ||example.com^ 这种纯域名规则放到哈希表中
+                if (hostAnchor && !endAnchor && thirdParty == 0 && isDomainPattern(pattern)) {
+                    String domain = pattern.endsWith("^") ? pattern.substring(0, pattern.length() - 1) : pattern;
+                    (allow ? allowDomains : blockDomains).add(domain);
+                    return;
+                }
+
+                String keyword = getKeyword(pattern);
+                if (keyword == null) {
+                    return;
+                }
+                List<Rule> rules = allow ? allowRules : blockRules;
+                AhoCorasick matcher = allow ? allowMatcher : blockMatcher;
+                matcher.add(keyword, rules.size());
+                rules.add(new Rule(pattern, hostAnchor, startAnchor, endAnchor, thirdParty));
+            }
+
+            RuleSet build() {
+                return new RuleSet(this);
+            }
+
+            private static boolean isDomainPattern(String pattern) {
+                for (int i = 0; i < pattern.length(); i++) {
+                    char c = pattern.charAt(i);
+                    if (c == '^' && i == pattern.length() - 1) {
+                        continue;
+                    }
+                    if (!(Character.isLetterOrDigit(c) || c == '.' || c == '-')) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            /**
+             * 取规则中最长的一段普通字符作为关键字
+             */
+            @Nullable
+            private static String getKeyword(String pattern) {
+                String keyword = null;
+                for (String part : pattern.split("[*^]")) {
+                    if (keyword == null || part.length() > keyword.length()) {
+                        keyword = part;
+                    }
+                }
+                if (keyword == null || keyword.length() < MIN_KEYWORD_LENGTH) {
+                    return null;
+                }
+                return keyword;
+            }
+        }
+    }
+}
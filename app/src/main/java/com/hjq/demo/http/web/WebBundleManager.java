@@ -0,0 +1,415 @@
+package com.hjq.demo.http.web;
+
+import android.content.Context;
+import android.net.Uri;
+import android.text.TextUtils;
+import android.webkit.MimeTypeMap;
+import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
+import android.webkit.WebView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.hjq.demo.manager.SettingsStore;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+import timber.log.Timber;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : H5 离线包管理（通过内存映射的 zip 中央目录索引直接返回资源，不解压到磁盘）
+ */
+public final class WebBundleManager implements WebRequestInterceptor {
+
+    /** 离线包存放目录 */
+    private static final String BUNDLE_DIR_NAME = "web_bundle";
+    /** 当前离线包版本的存储 key */
+    private static final String KEY_BUNDLE_VERSION = "key_web_bundle_version";
+    /** 没有离线包时的版本号 */
+    private static final int NO_VERSION = 0;
+
+    private static volatile WebBundleManager sInstance;
+
+    /** 离线包存放目录 */
+    private File mBundleDir;
+    /** 离线包对应的网址前缀 */
+    private String mHostPrefix;
+    /** 当前正在使用的离线包 */
+    private volatile ZipBundle mBundle;
+    /** 是否已经加载过本地的离线包 */
+    private volatile boolean mLoaded;
+
+    private WebBundleManager() {}
+
+    public static WebBundleManager getInstance() {
+        if(sInstance == null) {
+            synchronized (WebBundleManager.class) {
+                if(sInstance == null) {
+                    sInstance = new WebBundleManager();
+                }
+            }
+        }
+        return sInstance;
+    }
+
+    /**
+     * 初始化
+     *
+     * @param hostPrefix            使用离线包的网址前缀，例如 AppConfig.getHostUrl()
+     */
+    public void init(Context context, String hostPrefix) {
+        mBundleDir = new File(context.getFilesDir(), BUNDLE_DIR_NAME);
+        mHostPrefix = hostPrefix;
+    }
+
+    /**
+     * 获取当前离线包的版本号
+     */
+    public int getVersion() {
+        ZipBundle bundle = mBundle;
+        return bundle != null ? bundle.version : SettingsStore.getInstance().getInt(KEY_BUNDLE_VERSION, NO_VERSION);
+    }
+
+    /**
+     * 安装新版本的离线包（下载完成之后在子线程调用），索引建立成功之后再原子替换掉旧的离线包
+     *
+     * @param zipFile           离线包文件
+     * @param version           离线包版本号，必须比当前的版本号大
+     */
+    public synchronized boolean install(File zipFile, int version) {
+        if (mBundleDir == null || version <= getVersion()) {
+            return false;
+        }
+        if (!mBundleDir.exists() && !mBundleDir.mkdirs()) {
+            return false;
+        }
+
+        File tempFile = new File(mBundleDir, version + ".zip.tmp");
+        File bundleFile = getBundleFile(version);
+        try {
+            copyFile(zipFile, tempFile);
+            if (!tempFile.renameTo(bundleFile)) {
+                throw new IOException("rename failed：" + bundleFile);
+            }
+            ZipBundle bundle = ZipBundle.open(bundleFile, version);
+            mBundle = bundle;
+            mLoaded = true;
+            SettingsStore.getInstance().putInt(KEY_BUNDLE_VERSION, version);
+            // 下面会删除旧版本的离线包，版本号必须先落盘，否则进程被杀之后版本号会指向已经删除的文件
+            SettingsStore.getInstance().flush();
+        } catch (IOException e) {
+            Timber.w(e, "WebBundleManager install failed：%d", version);
+            tempFile.delete();
+            bundleFile.delete();
+            return false;
+        }
+
+        // 旧版本的离线包已经没有人引用了（已经映射的内存在文件删除之后依然可以读取）
+        File[] files = mBundleDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (!file.equals(bundleFile)) {
+                    file.delete();
+                }
+            }
+        }
+        Timber.i("WebBundleManager install：%d", version);
+        return true;
+    }
+
+    @Nullable
+    @Override
+    public WebResourceResponse intercept(WebView view, WebResourceRequest request) {
+        if (TextUtils.isEmpty(mHostPrefix) || !"GET".equalsIgnoreCase(request.getMethod())) {
+            return null;
+        }
+        Uri uri = request.getUrl();
+        String url = uri.toString();
+        if (!url.startsWith(mHostPrefix)) {
+            return null;
+        }
+
+        ZipBundle bundle = getBundle();
+        if (bundle == null) {
+            return null;
+        }
+
+        String path = uri.getPath();
+        String prefixPath = Uri.parse(mHostPrefix).getPath();
+        if (path == null) {
+            path = "";
+        }
+        if (prefixPath != null && path.startsWith(prefixPath)) {
+            path = path.substring(prefixPath.length());
+        }
+        if (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+        if (path.isEmpty() || path.endsWith("/")) {
+            path += "index.html";
+        }
+
+        InputStream inputStream = bundle.open(path);
+        if (inputStream == null) {
+            return null;
+        }
+
+        String mimeType = null;
+        int index = path.lastIndexOf('.');
+        if (index != -1) {
+            mimeType = MimeTypeMap.getSingleton().getMimeTypeFromExtension(path.substring(index + 1).toLowerCase(Locale.ROOT));
+        }
+        if (mimeType == null) {
+            mimeType = "application/octet-stream";
+        }
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Access-Control-Allow-Origin", "*");
+        headers.put("X-Web-Bundle-Version", String.valueOf(bundle.version));
+        return new WebResourceResponse(mimeType, "UTF-8", 200, "OK", headers, inputStream);
+    }
+
+    /**
+     * 获取当前的离线包，第一次调用时才去加载本地已经安装好的离线包
+     */
+    @Nullable
+    private ZipBundle getBundle() {
+        ZipBundle bundle = mBundle;
+        if (bundle != null || mLoaded) {
+            return bundle;
+        }
+        synchronized (this) {
+            if (mLoaded) {
+                return mBundle;
+            }
+            int version = SettingsStore.getInstance().getInt(KEY_BUNDLE_VERSION, NO_VERSION);
+            File file = getBundleFile(version);
+            if (version != NO_VERSION && file.isFile()) {
+                try {
+                    mBundle = ZipBundle.open(file, version);
+                } catch (IOException e) {
+                    Timber.w(e, "WebBundleManager load failed：%d", version);
+                }
+            }
+            mLoaded = true;
+            return mBundle;
+        }
+    }
+
+    @NonNull
+    private File getBundleFile(int version) {
+        return new File(mBundleDir, version + ".zip");
+    }
+
+    private static void copyFile(File from, File to) throws IOException {
+        try (InputStream inputStream = new FileInputStream(from);
+             OutputStream outputStream = new FileOutputStream(to)) {
+            byte[] buffer = new byte[8192];
+            int length;
+            while ((length = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, length);
+            }
+        }
+    }
+
+    /**
+     * 已经建立好索引的离线包
+     */
+    private static final class ZipBundle {
+
+        /** 中央目录结束标记 */
+        private static final int EOCD_SIGNATURE = 0x06054b50;
+        /** 中央目录文件头标记 */
+        private static final int CEN_SIGNATURE = 0x02014b50;
+        /** 本地文件头标记 */
+        private static final int LOC_SIGNATURE = 0x04034b50;
+        /** 中央目录结束标记的最小长度 */
+        private static final int EOCD_SIZE = 22;
+        /** 中央目录文件头的固定长度 */
+        private static final int CEN_SIZE = 46;
+        /** 本地文件头的固定长度 */
+        private static final int LOC_SIZE = 30;
+
+        private final int version;
+        private final MappedByteBuffer buffer;
+        /** 文件路径 -> 文件数据的位置 */
+        private final HashMap<String, Entry> entries;
+
+        private ZipBundle(int version, MappedByteBuffer buffer, HashMap<String, Entry> entries) {
+            this.version = version;
+            this.buffer = buffer;
+            this.entries = entries;
+        }
+
+        /**
+         * 映射离线包文件并读取中央目录建立索引
+         */
+        static ZipBundle open(File file, int version) throws IOException {
+            MappedByteBuffer buffer;
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+                 FileChannel channel = randomAccessFile.getChannel()) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            int eocdOffset = findEndOfCentralDirectory(buffer);
+            int count = buffer.getShort(eocdOffset + 10) & 0xffff;
+            int offset = buffer.getInt(eocdOffset + 16);
+
+            Charset charset = Charset.forName("UTF-8");
+            HashMap<String, Entry> entries = new HashMap<>(count * 4 / 3 + 1);
+            for (int i = 0; i < count; i++) {
+                if (offset < 0 || offset + CEN_SIZE > buffer.limit() || buffer.getInt(offset) != CEN_SIGNATURE) {
+                    throw new ZipException("bad central directory");
+                }
+                int method = buffer.getShort(offset + 10) & 0xffff;
+                int compressedSize = buffer.getInt(offset + 20);
+                int size = buffer.getInt(offset + 24);
+                int nameLength = buffer.getShort(offset + 28) & 0xffff;
+                int extraLength = buffer.getShort(offset + 30) & 0xffff;
+                int commentLength = buffer.getShort(offset + 32) & 0xffff;
+                int localOffset = buffer.getInt(offset + 42);
+
+                byte[] nameBytes = new byte[nameLength];
+                for (int j = 0; j < nameLength; j++) {
+                    nameBytes[j] = buffer.get(offset + CEN_SIZE + j);
+                }
+                String name = new String(nameBytes, charset);
+                offset += CEN_SIZE + nameLength + extraLength + commentLength;
+
+                if (name.endsWith("/") || (method != 0 && method != 8)) {
+                    continue;
+                }
+                if (localOffset < 0 || localOffset + LOC_SIZE > buffer.limit() || buffer.getInt(localOffset) != LOC_SIGNATURE) {
+                    throw new ZipException("bad local header：" + name);
+                }
+                int dataOffset = localOffset + LOC_SIZE +
+                        (buffer.getShort(localOffset + 26) & 0xffff) + (buffer.getShort(localOffset + 28) & 0xffff);
+                if (compressedSize < 0 || dataOffset + compressedSize > buffer.limit()) {
+                    throw new ZipException("bad entry size：" + name);
+                }
+                entries.put(name, new Entry(dataOffset, compressedSize, size, method == 8));
+            }
+            return new ZipBundle(version, buffer, entries);
+        }
+
+        private static int findEndOfCentralDirectory(ByteBuffer buffer) throws ZipException {
+            // 注释最长为 65535 个字节
+            int end = Math.max(0, buffer.limit() - EOCD_SIZE - 0xffff);
+            for (int i = buffer.limit() - EOCD_SIZE; i >= end; i--) {
+                if (buffer.getInt(i) == EOCD_SIGNATURE) {
+                    return i;
+                }
+            }
+            throw new ZipException("end of central directory not found");
+        }
+
+        /**
+         * 打开离线包中的文件，数据直接从映射的内存中读取
+         */
+        @Nullable
+        InputStream open(String name) {
+            Entry entry = entries.get(name);
+            if (entry == null) {
+                return null;
+            }
+            ByteBuffer slice = buffer.duplicate();
+            slice.limit(entry.offset + entry.compressedSize);
+            slice.position(entry.offset);
+            InputStream inputStream = new ByteBufferInputStream(slice.slice());
+            if (!entry.deflated) {
+                return inputStream;
+            }
+            Inflater inflater = new Inflater(true);
+            return new InflaterInputStream(inputStream, inflater, Math.max(512, Math.min(entry.size, 8192))) {
+
+                @Override
+                public void close() throws IOException {
+                    super.close();
+                    inflater.end();
+                }
+            };
+        }
+    }
+
+    /**
+     * 离线包中文件的位置
+     */
+    private static final class Entry {
+
+        private final int offset;
+        private final int compressedSize;
+        private final int size;
+        private final boolean deflated;
+
+        private Entry(int offset, int compressedSize, int size, boolean deflated) {
+            this.offset = offset;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.deflated = deflated;
+        }
+    }
+
+    /**
+     * 读取 ByteBuffer 的输入流
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer mBuffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            mBuffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return mBuffer.hasRemaining() ? mBuffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(@NonNull byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!mBuffer.hasRemaining()) {
+                return -1;
+            }
+            length = Math.min(length, mBuffer.remaining());
+            mBuffer.get(bytes, offset, length);
+            return length;
+        }
+
+        @Override
+        public long skip(long n) {
+            int count = (int) Math.max(0, Math.min(n, mBuffer.remaining()));
+            mBuffer.position(mBuffer.position() + count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return mBuffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.hjq.demo.http.web;
+
+import android.text.TextUtils;
+import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
+
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : WebView 请求和 OkHttp 请求之间的转换
+ */
+final class WebHttpUtils {
+
+    /** 不能透传给 OkHttp 的请求头 */
+    private static final Set<String> SKIP_REQUEST_HEADERS = new HashSet<>(Arrays.asList(
+            // 压缩交给 OkHttp 自己处理，否则 WebView 拿到的会是没有解压的数据
+            "accept-encoding",
+            // 带上条件请求头会绕过 OkHttp 缓存，并且 304 响应无法直接交给 WebView
+            "if-none-match", "if-modified-since"));
+
+    private WebHttpUtils() {}
+
+    /**
+     * 根据 WebView 的资源请求创建 OkHttp 请求
+     */
+    static Request.Builder newRequestBuilder(WebResourceRequest request) {
+        Request.Builder builder = new Request.Builder().url(request.getUrl().toString());
+        for (Map.Entry<String, String> entry : request.getRequestHeaders().entrySet()) {
+            if (SKIP_REQUEST_HEADERS.contains(entry.getKey().toLowerCase(Locale.ROOT))) {
+                continue;
+            }
+            builder.header(entry.getKey(), entry.getValue());
+        }
+        return builder;
+    }
+
+    /**
+     * 将 OkHttp 的响应转换成 WebView 的响应，响应体会以流的形式边读边返回
+     */
+    @Nullable
+    static WebResourceResponse toWebResourceResponse(Response response) {
+        ResponseBody body = response.body();
+        // WebResourceResponse 不支持 3xx 的状态码（包括重定向和 304）
+        if (body == null || (response.code() >= 300 && response.code() < 400)) {
+            response.close();
+            return null;
+        }
+
+        String mimeType = "application/octet-stream";
+        String encoding = null;
+        MediaType mediaType = body.contentType();
+        if (mediaType != null) {
+            mimeType = mediaType.type() + "/" + mediaType.subtype();
+            if (mediaType.charset() != null) {
+                encoding = mediaType.charset().name();
+            }
+        }
+
+        Map<String, String> headers = new HashMap<>();
+        Headers responseHeaders = response.headers();
+        for (int i = 0; i < responseHeaders.size(); i++) {
+            headers.put(responseHeaders.name(i), responseHeaders.value(i));
+        }
+
+        String reasonPhrase = response.message();
+        if (TextUtils.isEmpty(reasonPhrase)) {
+            // WebResourceResponse 不允许空的描述
+            reasonPhrase = "OK";
+        }
+        return new WebResourceResponse(mimeType, encoding, response.code(), reasonPhrase, headers, body.byteStream());
+    }
+}
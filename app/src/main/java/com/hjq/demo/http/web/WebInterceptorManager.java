@@ -0,0 +1,52 @@
+package com.hjq.demo.http.web;
+
+import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
+import android.webkit.WebView;
+
+import androidx.annotation.Nullable;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : WebView 资源请求拦截器管理
+ */
+public final class WebInterceptorManager {
+
+    /** 资源请求拦截器集合 */
+    private static final List<WebRequestInterceptor> INTERCEPTORS = new CopyOnWriteArrayList<>();
+
+    /**
+     * 添加资源请求拦截器（按照添加的顺序依次拦截）
+     */
+    public static void addInterceptor(WebRequestInterceptor interceptor) {
+        if (!INTERCEPTORS.contains(interceptor)) {
+            INTERCEPTORS.add(interceptor);
+        }
+    }
+
+    /**
+     * 移除资源请求拦截器
+     */
+    public static void removeInterceptor(WebRequestInterceptor interceptor) {
+        INTERCEPTORS.remove(interceptor);
+    }
+
+    /**
+     * 依次交给拦截器处理，直到有拦截器返回了响应
+     */
+    @Nullable
+    public static WebResourceResponse intercept(WebView view, WebResourceRequest request) {
+        for (WebRequestInterceptor interceptor : INTERCEPTORS) {
+            WebResourceResponse response = interceptor.intercept(view, request);
+            if (response != null) {
+                return response;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,140 @@
+package com.hjq.demo.http.web;
+
+import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
+import android.webkit.WebView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
+import timber.log.Timber;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : 指定域名的 WebView 子资源改用共享的 OkHttpClient 加载（和接口请求共用连接池、DNS 和 HTTP/2 连接）
+ */
+public final class WebOkHttpLoader implements WebRequestInterceptor {
+
+    private static volatile WebOkHttpLoader sInstance;
+
+    /** 需要走 OkHttp 的域名 */
+    private final Set<String> mHosts = new CopyOnWriteArraySet<>();
+
+    private OkHttpClient mClient;
+
+    /** 请求次数 */
+    private final AtomicLong mRequestCount = new AtomicLong();
+    /** 新建连接的次数 */
+    private final AtomicLong mConnectCount = new AtomicLong();
+    /** TLS 握手次数 */
+    private final AtomicLong mHandshakeCount = new AtomicLong();
+
+    private WebOkHttpLoader() {}
+
+    public static WebOkHttpLoader getInstance() {
+        if(sInstance == null) {
+            synchronized (WebOkHttpLoader.class) {
+                if(sInstance == null) {
+                    sInstance = new WebOkHttpLoader();
+                }
+            }
+        }
+        return sInstance;
+    }
+
+    /**
+     * 初始化
+     *
+     * @param client            EasyHttp 使用的 OkHttpClient（newBuilder 会共用它的连接池和线程池）
+     */
+    public void init(OkHttpClient client) {
+        mClient = client.newBuilder()
+                .cookieJar(new WebViewCookieJar())
+                .eventListener(new EventListener() {
+
+                    @Override
+                    public void connectStart(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress, @NonNull Proxy proxy) {
+                        mConnectCount.incrementAndGet();
+                    }
+
+                    @Override
+                    public void secureConnectEnd(@NonNull Call call, @Nullable Handshake handshake) {
+                        mHandshakeCount.incrementAndGet();
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * 添加需要走 OkHttp 的域名（只会接管添加过的域名，目前在 AppApplication 中添加了主站的域名）
+     */
+    public void addHost(String host) {
+        if (host != null) {
+            mHosts.add(host.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    public void removeHost(String host) {
+        if (host != null) {
+            mHosts.remove(host.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    public long getRequestCount() {
+        return mRequestCount.get();
+    }
+
+    public long getConnectCount() {
+        return mConnectCount.get();
+    }
+
+    public long getHandshakeCount() {
+        return mHandshakeCount.get();
+    }
+
+    @Nullable
+    @Override
+    public WebResourceResponse intercept(WebView view, WebResourceRequest request) {
+        if (mClient == null || mHosts.isEmpty() || request.isForMainFrame() ||
+                !"GET".equalsIgnoreCase(request.getMethod()) || request.getRequestHeaders().containsKey("Range")) {
+            return null;
+        }
+        String host = request.getUrl().getHost();
+        if (host == null || !mHosts.contains(host.toLowerCase(Locale.ROOT))) {
+            return null;
+        }
+
+        try {
+            mRequestCount.incrementAndGet();
+            Response response = mClient.newCall(WebHttpUtils.newRequestBuilder(request).build()).execute();
+            return WebHttpUtils.toWebResourceResponse(response);
+        } catch (IOException e) {
+            Timber.w(e, "WebOkHttpLoader load failed：%s", request.getUrl());
+            // 交给 WebView 自己加载
+            return null;
+        }
+    }
+
+    /**
+     * 打印连接复用情况
+     */
+    public void dump() {
+        Timber.i("WebOkHttpLoader request = %d，connect = %d，handshake = %d",
+                mRequestCount.get(), mConnectCount.get(), mHandshakeCount.get());
+    }
+}
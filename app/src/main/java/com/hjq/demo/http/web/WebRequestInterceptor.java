@@ -0,0 +1,24 @@
+package com.hjq.demo.http.web;
+
+import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
+import android.webkit.WebView;
+
+import androidx.annotation.Nullable;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : WebView 资源请求拦截器
+ */
+public interface WebRequestInterceptor {
+
+    /**
+     * 拦截 WebView 的资源请求（在 WebView 的子线程中回调）
+     *
+     * @return          返回 null 表示不处理，交给下一个拦截器或者 WebView 自己加载
+     */
+    @Nullable
+    WebResourceResponse intercept(WebView view, WebResourceRequest request);
+}
@@ -0,0 +1,220 @@
+package com.hjq.demo.http.web;
+
+import android.content.Context;
+import android.net.Uri;
+import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
+import android.webkit.WebView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Cache;
+import okhttp3.CacheControl;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+import timber.log.Timber;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : WebView 静态资源磁盘缓存（遵循 Cache-Control / ETag，过期后先返回缓存再在后台重新验证）
+ */
+public final class WebResourceCache implements WebRequestInterceptor {
+
+    /** 缓存目录名称 */
+    private static final String CACHE_DIR_NAME = "web_resource";
+    /** 默认的缓存大小 */
+    private static final long DEFAULT_MAX_SIZE = 50 * 1024 * 1024;
+
+    /** 需要缓存的静态资源后缀 */
+    private static final Set<String> STATIC_EXTENSIONS = new HashSet<>(Arrays.asList(
+            "js", "css", "woff", "woff2", "ttf", "otf", "eot",
+            "png", "jpg", "jpeg", "gif", "webp", "svg", "ico"));
+
+    /** 只读取缓存（过期的缓存也可以使用） */
+    private static final CacheControl CACHE_ONLY = new CacheControl.Builder()
+            .onlyIfCached()
+            .maxStale(Integer.MAX_VALUE, TimeUnit.SECONDS)
+            .build();
+
+    private static volatile WebResourceCache sInstance;
+
+    private OkHttpClient mClient;
+
+    /** 命中缓存次数 */
+    private final AtomicLong mHitCount = new AtomicLong();
+    /** 未命中缓存次数 */
+    private final AtomicLong mMissCount = new AtomicLong();
+    /** 后台重新验证次数 */
+    private final AtomicLong mRevalidateCount = new AtomicLong();
+    /** 命中缓存节省的流量 */
+    private final AtomicLong mSavedBytes = new AtomicLong();
+
+    private WebResourceCache() {}
+
+    public static WebResourceCache getInstance() {
+        if(sInstance == null) {
+            synchronized (WebResourceCache.class) {
+                if(sInstance == null) {
+                    sInstance = new WebResourceCache();
+                }
+            }
+        }
+        return sInstance;
+    }
+
+    public void init(Context context, OkHttpClient client) {
+        init(context, client, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * 初始化缓存
+     *
+     * @param client            共享的 OkHttpClient（会复用它的连接池和线程池）
+     * @param maxSize           缓存的最大字节数
+     */
+    public void init(Context context, OkHttpClient client, long maxSize) {
+        mClient = client.newBuilder()
+                // 和 WebView 共用 Cookie，响应中的 Set-Cookie 也要写回 WebView
+                .cookieJar(new WebViewCookieJar())
+                .cache(new Cache(new File(context.getCacheDir(), CACHE_DIR_NAME), maxSize))
+                .build();
+    }
+
+    public long getHitCount() {
+        return mHitCount.get();
+    }
+
+    public long getMissCount() {
+        return mMissCount.get();
+    }
+
+    public long getRevalidateCount() {
+        return mRevalidateCount.get();
+    }
+
+    public long getSavedBytes() {
+        return mSavedBytes.get();
+    }
+
+    @Nullable
+    @Override
+    public WebResourceResponse intercept(WebView view, WebResourceRequest request) {
+        if (mClient == null || request.isForMainFrame() || !"GET".equalsIgnoreCase(request.getMethod()) ||
+                request.getRequestHeaders().containsKey("Range") || !isStaticResource(request.getUrl())) {
+            return null;
+        }
+
+        String url = request.getUrl().toString();
+        // Cookie 由 WebViewCookieJar 从 WebView 中读取
+        Request networkRequest = WebHttpUtils.newRequestBuilder(request).build();
+
+        try {
+            Response cacheResponse = mClient.newCall(networkRequest.newBuilder().cacheControl(CACHE_ONLY).build()).execute();
+            // 没有缓存的时候 OkHttp 会返回一个 504 的响应，缓存中的其他状态码（例如 404）也算命中
+            if (cacheResponse.cacheResponse() != null) {
+                mHitCount.incrementAndGet();
+                ResponseBody body = cacheResponse.body();
+                if (body != null && body.contentLength() > 0) {
+                    mSavedBytes.addAndGet(body.contentLength());
+                }
+                if (isStale(cacheResponse)) {
+                    revalidate(networkRequest);
+                }
+                return WebHttpUtils.toWebResourceResponse(cacheResponse);
+            }
+            cacheResponse.close();
+
+            mMissCount.incrementAndGet();
+            // 其他状态码的响应也直接交给 WebView，不要让 WebView 再请求一次
+            return WebHttpUtils.toWebResourceResponse(mClient.newCall(networkRequest).execute());
+        } catch (IOException e) {
+            Timber.w(e, "WebResourceCache load failed：%s", url);
+            // 交给 WebView 自己加载
+            return null;
+        }
+    }
+
+    /**
+     * 打印缓存统计信息
+     */
+    public void dump() {
+        Timber.i("WebResourceCache hit = %d，miss = %d，revalidate = %d，saved = %d bytes",
+                mHitCount.get(), mMissCount.get(), mRevalidateCount.get(), mSavedBytes.get());
+    }
+
+    /**
+     * 在后台重新验证过期的缓存（OkHttp 会带上 If-None-Match / If-Modified-Since 并更新缓存）
+     */
+    private void revalidate(Request request) {
+        mRevalidateCount.incrementAndGet();
+        mClient.newCall(request).enqueue(new Callback() {
+
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                Timber.w(e, "WebResourceCache revalidate failed：%s", call.request().url());
+            }
+
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) throws IOException {
+                // 必须把响应体读完，OkHttp 才会把新的内容写入到缓存中
+                try (ResponseBody body = response.body()) {
+                    if (body == null) {
+                        return;
+                    }
+                    BufferedSource source = body.source();
+                    while (!source.exhausted()) {
+                        source.buffer().clear();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * 判断缓存是否已经过期（OkHttp 会给过期的缓存加上 110 警告头）
+     */
+    private static boolean isStale(Response response) {
+        for (String warning : response.headers("Warning")) {
+            if (warning.startsWith("110")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 判断是否为需要缓存的静态资源
+     */
+    private static boolean isStaticResource(Uri uri) {
+        String scheme = uri.getScheme();
+        if (!"http".equalsIgnoreCase(scheme) && !"https".equalsIgnoreCase(scheme)) {
+            return false;
+        }
+        String path = uri.getPath();
+        if (path == null) {
+            return false;
+        }
+        int index = path.lastIndexOf('.');
+        if (index == -1 || index < path.lastIndexOf('/')) {
+            return false;
+        }
+        return STATIC_EXTENSIONS.contains(path.substring(index + 1).toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,51 @@
+package com.hjq.demo.http.web;
+
+import android.text.TextUtils;
+import android.webkit.CookieManager;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import okhttp3.Cookie;
+import okhttp3.CookieJar;
+import okhttp3.HttpUrl;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : 和 WebView 共用的 Cookie 存储（OkHttp 和 WebView 之间双向同步）
+ */
+public final class WebViewCookieJar implements CookieJar {
+
+    @Override
+    public void saveFromResponse(@NonNull HttpUrl url, @NonNull List<Cookie> cookies) {
+        CookieManager cookieManager = CookieManager.getInstance();
+        String urlString = url.toString();
+        for (Cookie cookie : cookies) {
+            cookieManager.setCookie(urlString, cookie.toString());
+        }
+    }
+
+    @NonNull
+    @Override
+    public List<Cookie> loadForRequest(@NonNull HttpUrl url) {
+        String cookieString = CookieManager.getInstance().getCookie(url.toString());
+        if (TextUtils.isEmpty(cookieString)) {
+            return Collections.emptyList();
+        }
+
+        String[] pairs = cookieString.split(";");
+        List<Cookie> cookies = new ArrayList<>(pairs.length);
+        for (String pair : pairs) {
+            Cookie cookie = Cookie.parse(url, pair.trim());
+            if (cookie != null) {
+                cookies.add(cookie);
+            }
+        }
+        return cookies;
+    }
+}
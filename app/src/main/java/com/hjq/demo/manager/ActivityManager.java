@@ -20,11 +20,19 @@ import timber.log.Timber;
  */
 public final class ActivityManager implements Application.ActivityLifecycleCallbacks {
 
+    /** 默认最多保持活跃的可冻结 Activity 数量 */
+    private static final int DEFAULT_MAX_ACTIVE_FREEZABLE_COUNT = 3;
+
     private static volatile ActivityManager sInstance;
 
     /** Activity 存放集合 */
     private final ArrayMap<String, Activity> mActivitySet = new ArrayMap<>();
 
+    /** 可以冻结的 Activity 集合（按照创建顺序排列） */
+    private final ArrayList<Activity> mFreezableActivities = new ArrayList<>();
+    /** 最多保持活跃的可冻结 Activity 数量 */
+    private int mMaxActiveFreezableCount = DEFAULT_MAX_ACTIVE_FREEZABLE_COUNT;
+
     /** 应用生命周期回调 */
     private final ArrayList<ApplicationLifecycleCallback> mLifecycleCallbacks = new ArrayList<>();
 
@@ -97,6 +105,18 @@ public final class ActivityManager implements Application.ActivityLifecycleCallb
         mLifecycleCallbacks.remove(callback);
     }
 
+    /**
+     * 设置最多保持活跃的可冻结 Activity 数量，超出的部分会从最早打开的开始冻结
+     */
+    public void setMaxActiveFreezableCount(int count) {
+        mMaxActiveFreezableCount = Math.max(1, count);
+        trimFreezableActivities();
+    }
+
+    public int getMaxActiveFreezableCount() {
+        return mMaxActiveFreezableCount;
+    }
+
     /**
      * 销毁指定的 Activity
      */
@@ -170,6 +190,9 @@ public final class ActivityManager implements Application.ActivityLifecycleCallb
         }
         mActivitySet.put(getObjectTag(activity), activity);
         mTopActivity = activity;
+        if (activity instanceof Freezable) {
+            mFreezableActivities.add(activity);
+        }
     }
 
     @Override
@@ -207,6 +230,8 @@ public final class ActivityManager implements Application.ActivityLifecycleCallb
             }
             Timber.i("%s - onApplicationBackground", activity.getClass().getSimpleName());
         }
+        // 界面不可见之后才去冻结，避免跳转过程中出现白屏
+        trimFreezableActivities();
     }
 
     @Override
@@ -218,6 +243,7 @@ public final class ActivityManager implements Application.ActivityLifecycleCallb
     public void onActivityDestroyed(@NonNull Activity activity) {
         Timber.i("%s - onDestroy", activity.getClass().getSimpleName());
         mActivitySet.remove(getObjectTag(activity));
+        mFreezableActivities.remove(activity);
         if (mTopActivity == activity) {
             mTopActivity = null;
         }
@@ -229,6 +255,44 @@ public final class ActivityManager implements Application.ActivityLifecycleCallb
         }
     }
 
+    /**
+     * 冻结所有不可见的 Activity（内存紧张的时候调用）
+     */
+    public void freezeBackgroundActivities() {
+        for (Activity activity : new ArrayList<>(mFreezableActivities)) {
+            Freezable freezable = (Freezable) activity;
+            if (activity == mResumedActivity || activity.isFinishing() || freezable.isFrozen()) {
+                continue;
+            }
+            if (freezable.freeze()) {
+                Timber.i("%s - onFreeze", activity.getClass().getSimpleName());
+            }
+        }
+    }
+
+    /**
+     * 从最早打开的 Activity 开始冻结，直到活跃的数量不超过上限
+     */
+    private void trimFreezableActivities() {
+        int activeCount = 0;
+        for (Activity activity : mFreezableActivities) {
+            if (!((Freezable) activity).isFrozen()) {
+                activeCount++;
+            }
+        }
+        for (int i = 0; i < mFreezableActivities.size() && activeCount > mMaxActiveFreezableCount; i++) {
+            Activity activity = mFreezableActivities.get(i);
+            Freezable freezable = (Freezable) activity;
+            if (activity == mResumedActivity || activity.isFinishing() || freezable.isFrozen()) {
+                continue;
+            }
+            if (freezable.freeze()) {
+                activeCount--;
+                Timber.i("%s - onFreeze", activity.getClass().getSimpleName());
+            }
+        }
+    }
+
     /**
      * 获取一个对象的独立无二的标记
      */
@@ -262,4 +326,22 @@ public final class ActivityManager implements Application.ActivityLifecycleCallb
          */
         void onApplicationForeground(Activity activity);
     }
-}
\ No newline at end of file
+
+    /**
+     * 可以冻结的 Activity（例如持有 WebView 的界面，在后台时释放占用的内存，回到前台时再恢复）
+     */
+    public interface Freezable {
+
+        /**
+         * 冻结界面（只会在界面不可见的时候调用）
+         *
+         * @return          是否冻结成功
+         */
+        boolean freeze();
+
+        /**
+         * 当前是否已经被冻结
+         */
+        boolean isFrozen();
+    }
+}
@@ -0,0 +1,175 @@
+package com.hjq.demo.manager;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.ComponentCallbacks2;
+import android.view.ViewGroup;
+import android.webkit.RenderProcessGoneDetail;
+
+import com.hjq.demo.widget.BrowserView;
+import com.tencent.bugly.crashreport.CrashReport;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import timber.log.Timber;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : BrowserView 内存管理（内存紧张时释放缓存、暂停定时器、冻结后台网页，渲染进程崩溃后重建网页）
+ */
+public final class BrowserMemoryManager implements ActivityManager.ApplicationLifecycleCallback {
+
+    private static volatile BrowserMemoryManager sInstance;
+
+    /** 所有存活的 BrowserView（只在主线程中访问） */
+    private final Set<BrowserView> mLiveViews = Collections.newSetFromMap(new WeakHashMap<>());
+
+    /** 渲染进程崩溃次数 */
+    private int mRendererCrashCount;
+    /** 渲染进程被系统回收次数 */
+    private int mRendererKillCount;
+    /** 是否已经暂停了 WebView 的定时器 */
+    private boolean mTimersPaused;
+
+    private BrowserMemoryManager() {}
+
+    public static BrowserMemoryManager getInstance() {
+        if(sInstance == null) {
+            synchronized (BrowserMemoryManager.class) {
+                if(sInstance == null) {
+                    sInstance = new BrowserMemoryManager();
+                }
+            }
+        }
+        return sInstance;
+    }
+
+    public void init(Application application) {
+        ActivityManager.getInstance().registerApplicationLifecycleCallback(this);
+    }
+
+    public void register(BrowserView view) {
+        mLiveViews.add(view);
+        if (mTimersPaused && ActivityManager.getInstance().isForeground()) {
+            // 之前暂停定时器的 WebView 都已经销毁了，由新的 WebView 来恢复
+            view.resumeTimers();
+            mTimersPaused = false;
+        }
+    }
+
+    public void unregister(BrowserView view) {
+        mLiveViews.remove(view);
+    }
+
+    public int getLiveViewCount() {
+        return mLiveViews.size();
+    }
+
+    public int getRendererCrashCount() {
+        return mRendererCrashCount;
+    }
+
+    public int getRendererKillCount() {
+        return mRendererKillCount;
+    }
+
+    /**
+     * 根据手机内存剩余情况释放网页占用的内存
+     */
+    public void onTrimMemory(int level) {
+        boolean lowMemory = level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL ||
+                level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND;
+
+        if (lowMemory) {
+            // 只清除内存中的缓存，磁盘缓存保留（应用只是退到后台的时候不清除，回来之后不需要重新加载资源）
+            for (BrowserView view : new ArrayList<>(mLiveViews)) {
+                view.clearCache(false);
+            }
+        }
+
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN && !mTimersPaused && !mLiveViews.isEmpty()) {
+            // 定时器是全局的，暂停任意一个 WebView 就会暂停所有的 WebView
+            mLiveViews.iterator().next().pauseTimers();
+            mTimersPaused = true;
+        }
+
+        if (lowMemory) {
+            // 冻结所有不可见的网页界面，回到这些界面时再通过保存的状态恢复
+            ActivityManager.getInstance().freezeBackgroundActivities();
+        }
+        Timber.i("BrowserMemoryManager onTrimMemory：level = %d，live = %d", level, mLiveViews.size());
+    }
+
+    /**
+     * 渲染进程已经退出（WebView 已经不可用，必须移除并销毁掉）
+     *
+     * @return          返回 true 表示已经处理，不会导致应用崩溃
+     */
+    public boolean onRenderProcessGone(BrowserView view, RenderProcessGoneDetail detail) {
+        boolean didCrash = detail.didCrash();
+        if (didCrash) {
+            mRendererCrashCount++;
+        } else {
+            mRendererKillCount++;
+        }
+        String url = view.getUrl();
+        int scrollY = view.getScrollY();
+        Timber.w("BrowserMemoryManager render process gone：crash = %b，url = %s，crashCount = %d，killCount = %d",
+                didCrash, url, mRendererCrashCount, mRendererKillCount);
+        if (didCrash) {
+            // 上报到 Bugly 错误列表
+            CrashReport.postCatchedException(new IllegalStateException("WebView 渲染进程崩溃：" + url));
+        }
+
+        unregister(view);
+        BrowserViewPool.getInstance().discard(view);
+        if (view.getParent() instanceof ViewGroup) {
+            ((ViewGroup) view.getParent()).removeView(view);
+        }
+        BrowserView.OnRenderProcessGoneListener listener = view.getOnRenderProcessGoneListener();
+        // 先丢弃还没有回传给网页的结果，避免在已经销毁的 WebView 上执行 JS
+        view.getBridge().release();
+        view.destroy();
+
+        if (listener != null && url != null && !"about:blank".equals(url)) {
+            // 交给持有者重新创建 BrowserView 并恢复网页地址和滚动位置
+            listener.onRenderProcessGone(view, url, scrollY);
+        }
+        return true;
+    }
+
+    /**
+     * 打印渲染进程的统计信息
+     */
+    public void dump() {
+        Timber.i("BrowserMemoryManager live = %d，rendererCrash = %d，rendererKill = %d",
+                mLiveViews.size(), mRendererCrashCount, mRendererKillCount);
+    }
+
+    /**
+     * {@link ActivityManager.ApplicationLifecycleCallback}
+     */
+
+    @Override
+    public void onApplicationCreate(Activity activity) {}
+
+    @Override
+    public void onApplicationDestroy(Activity activity) {}
+
+    @Override
+    public void onApplicationBackground(Activity activity) {}
+
+    @Override
+    public void onApplicationForeground(Activity activity) {
+        if (!mTimersPaused || mLiveViews.isEmpty()) {
+            return;
+        }
+        mLiveViews.iterator().next().resumeTimers();
+        mTimersPaused = false;
+    }
+}
@@ -0,0 +1,237 @@
+package com.hjq.demo.manager;
+
+import android.app.Application;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.MutableContextWrapper;
+import android.os.Build;
+import android.os.Looper;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.hjq.demo.widget.BrowserView;
+
+import java.util.ArrayDeque;
+
+import timber.log.Timber;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : BrowserView 复用池（空闲时预创建，销毁时回收）
+ */
+public final class BrowserViewPool {
+
+    /** 默认的复用池大小 */
+    private static final int DEFAULT_POOL_SIZE = 2;
+
+    private static volatile BrowserViewPool sInstance;
+
+    /** 空闲的 BrowserView 集合 */
+    private final ArrayDeque<BrowserView> mIdleViews = new ArrayDeque<>();
+
+    /** 闪屏页中预加载的 BrowserView */
+    private BrowserView mPreloadedView;
+    /** 预加载的网页地址 */
+    private String mPreloadedUrl;
+
+    /** 当前应用上下文对象 */
+    private Application mApplication;
+    /** 复用池大小 */
+    private int mMaxSize = DEFAULT_POOL_SIZE;
+    /** 是否已经注册了空闲预创建任务 */
+    private boolean mPreloading;
+
+    /** 命中次数 */
+    private int mHitCount;
+    /** 未命中次数 */
+    private int mMissCount;
+
+    private BrowserViewPool() {}
+
+    public static BrowserViewPool getInstance() {
+        if(sInstance == null) {
+            synchronized (BrowserViewPool.class) {
+                if(sInstance == null) {
+                    sInstance = new BrowserViewPool();
+                }
+            }
+        }
+        return sInstance;
+    }
+
+    public void init(Application application) {
+        mApplication = application;
+    }
+
+    /**
+     * 设置复用池大小
+     */
+    public void setMaxSize(int maxSize) {
+        mMaxSize = Math.max(0, maxSize);
+        trimToSize(mMaxSize);
+    }
+
+    public int getMaxSize() {
+        return mMaxSize;
+    }
+
+    public int getHitCount() {
+        return mHitCount;
+    }
+
+    public int getMissCount() {
+        return mMissCount;
+    }
+
+    /**
+     * 在主线程空闲的时候预创建 BrowserView（每次空闲只创建一个，避免长时间占用主线程）
+     */
+    public void preload() {
+        if (!isEnabled() || mPreloading) {
+            return;
+        }
+        mPreloading = true;
+        Looper.myQueue().addIdleHandler(() -> {
+            if (mIdleViews.size() >= mMaxSize) {
+                mPreloading = false;
+                return false;
+            }
+            BrowserView view = new BrowserView(new MutableContextWrapper(mApplication));
+            // 空闲的时候也需要处理渲染进程崩溃
+            view.setBrowserViewClient(new BrowserView.BrowserViewClient());
+            mIdleViews.add(view);
+            Timber.i("BrowserViewPool preload：%d / %d", mIdleViews.size(), mMaxSize);
+            boolean keep = mIdleViews.size() < mMaxSize;
+            mPreloading = keep;
+            return keep;
+        });
+    }
+
+    /**
+     * 获取一个已经绑定到指定 Activity 上面的 BrowserView
+     */
+    @NonNull
+    public BrowserView obtain(Context context) {
+        BrowserView view = mIdleViews.poll();
+        if (view != null) {
+            mHitCount++;
+            ((MutableContextWrapper) view.getContext()).setBaseContext(context);
+            view.prepareReuse();
+        } else {
+            mMissCount++;
+            view = isEnabled() ? new BrowserView(new MutableContextWrapper(context)) : new BrowserView(context);
+        }
+        Timber.i("BrowserViewPool obtain：hit = %d，miss = %d", mHitCount, mMissCount);
+        // 补充被取走的实例
+        preload();
+        return view;
+    }
+
+    /**
+     * 寄存一个已经开始加载网页的 BrowserView，等待下一个界面接管
+     */
+    public void putPreloaded(String url, BrowserView view) {
+        if (!(view.getContext() instanceof MutableContextWrapper)) {
+            view.onDestroy();
+            return;
+        }
+        if (mPreloadedView != null && mPreloadedView != view) {
+            mPreloadedView.onDestroy();
+        }
+
+        if (view.getParent() instanceof ViewGroup) {
+            ((ViewGroup) view.getParent()).removeView(view);
+        }
+        // 解除和上一个界面的绑定，网页会继续在后台加载
+        ((MutableContextWrapper) view.getContext()).setBaseContext(mApplication);
+        view.setBrowserViewClient(new BrowserView.BrowserViewClient());
+        view.setBrowserChromeClient(null);
+        mPreloadedView = view;
+        mPreloadedUrl = url;
+    }
+
+    /**
+     * 接管预加载指定网页地址的 BrowserView
+     *
+     * @return          如果没有预加载这个地址则返回 null
+     */
+    @Nullable
+    public BrowserView obtainPreloaded(Context context, String url) {
+        if (mPreloadedView == null || url == null || !url.equals(mPreloadedUrl)) {
+            return null;
+        }
+        BrowserView view = mPreloadedView;
+        mPreloadedView = null;
+        mPreloadedUrl = null;
+        mHitCount++;
+        ((MutableContextWrapper) view.getContext()).setBaseContext(context);
+        Timber.i("BrowserViewPool obtainPreloaded：%s", url);
+        return view;
+    }
+
+    /**
+     * 回收 BrowserView
+     *
+     * @return          如果返回 false 则表示没有回收，需要调用者自己销毁
+     */
+    public boolean recycle(BrowserView view) {
+        if (!isEnabled() || !(view.getContext() instanceof MutableContextWrapper) ||
+                mIdleViews.size() >= mMaxSize || mIdleViews.contains(view)) {
+            return false;
+        }
+
+        if (view.getParent() instanceof ViewGroup) {
+            ((ViewGroup) view.getParent()).removeView(view);
+        }
+        // 解除和 Activity 的绑定，避免内存泄漏
+        ((MutableContextWrapper) view.getContext()).setBaseContext(mApplication);
+        view.setBrowserViewClient(new BrowserView.BrowserViewClient());
+        view.loadUrl("about:blank");
+        view.clearHistory();
+        mIdleViews.add(view);
+        return true;
+    }
+
+    /**
+     * 移除已经不可用的 BrowserView（例如渲染进程已经退出）
+     */
+    public void discard(BrowserView view) {
+        mIdleViews.remove(view);
+        if (mPreloadedView == view) {
+            mPreloadedView = null;
+            mPreloadedUrl = null;
+        }
+    }
+
+    /**
+     * 根据手机内存剩余情况释放空闲的 BrowserView
+     */
+    public void onTrimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            trimToSize(0);
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE) {
+            trimToSize(mMaxSize / 2);
+        }
+    }
+
+    private void trimToSize(int size) {
+        while (mIdleViews.size() > size) {
+            BrowserView view = mIdleViews.poll();
+            if (view != null) {
+                view.destroy();
+            }
+        }
+    }
+
+    /**
+     * 复用池是否可用
+     */
+    private boolean isEnabled() {
+        // Android 5.x 上面 BrowserView 需要包装成 ContextThemeWrapper，无法再替换 Context
+        return mApplication != null && mMaxSize > 0 && Build.VERSION.SDK_INT >= Build.VERSION_CODES.M;
+    }
+}
@@ -0,0 +1,312 @@
+package com.hjq.demo.manager;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.hjq.demo.other.AppConfig;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import timber.log.Timber;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : 线程池监控（统计每个任务的排队耗时、执行耗时、提交的位置以及线程池的饱和情况）
+ *
+ *    记录提交位置需要创建 Throwable 并填充堆栈，开销比较大，所以只在调试模式下每个任务都记录，
+ *    正式环境按照 {@link #STACK_SAMPLE_INTERVAL} 抽样记录，提交位置的统计数据也只来自抽样的任务
+ */
+public final class ExecutorMonitor {
+
+    /** 执行超过这个时间的任务会打印警告 */
+    private static final long SLOW_RUN_MILLIS = 500;
+    /** 排队超过这个时间的任务会打印警告 */
+    private static final long SLOW_WAIT_MILLIS = 200;
+    /** 最多统计的提交位置数量 */
+    private static final int MAX_CALL_SITE_COUNT = 64;
+    /** 正式环境每隔多少个任务记录一次提交的堆栈 */
+    private static final int STACK_SAMPLE_INTERVAL = 32;
+    /** 直方图的区间上限（毫秒），最后一个区间没有上限 */
+    private static final long[] BUCKET_BOUNDS = {1, 2, 4, 8, 16, 32, 64, 128, 256, 512, 1024, 2048};
+
+    private static volatile ExecutorMonitor sInstance;
+
+    /** 线程池名称 -> 统计数据 */
+    private final ConcurrentHashMap<String, ExecutorStats> mExecutorStats = new ConcurrentHashMap<>();
+    /** 提交位置 -> 执行耗时 */
+    private final ConcurrentHashMap<String, Histogram> mCallSiteStats = new ConcurrentHashMap<>();
+    /** 提交任务的序号，用来抽样记录堆栈 */
+    private final AtomicLong mSubmitSequence = new AtomicLong();
+
+    private ExecutorMonitor() {}
+
+    public static ExecutorMonitor getInstance() {
+        if(sInstance == null) {
+            synchronized (ExecutorMonitor.class) {
+                if(sInstance == null) {
+                    sInstance = new ExecutorMonitor();
+                }
+            }
+        }
+        return sInstance;
+    }
+
+    /**
+     * 包装提交到线程池的任务（在提交任务的线程调用，这个时候记录提交的位置和线程池的状态）
+     */
+    public Runnable wrap(String name, ThreadPoolExecutor executor, Runnable runnable) {
+        if (runnable instanceof MonitoredRunnable) {
+            // 被拒绝之后重新提交的任务
+            return runnable;
+        }
+        ExecutorStats stats = getExecutorStats(name);
+        stats.submitCount.incrementAndGet();
+        int poolSize = executor.getPoolSize();
+        int queueSize = executor.getQueue().size();
+        updateMax(stats.maxPoolSize, poolSize);
+        updateMax(stats.maxQueueSize, queueSize);
+        // 所有线程都在忙，新的任务只能排队
+        if (executor.getActiveCount() >= executor.getMaximumPoolSize()) {
+            stats.saturatedCount.incrementAndGet();
+        }
+        Throwable submitStack = null;
+        if (AppConfig.isDebug() || mSubmitSequence.getAndIncrement() % STACK_SAMPLE_INTERVAL == 0) {
+            submitStack = new Throwable("submitted to ThreadPool-" + name);
+        }
+        return new MonitoredRunnable(name, runnable, submitStack);
+    }
+
+    /**
+     * 取出被包装之前的任务（用于取消从队列中丢弃的任务）
+     */
+    @Nullable
+    public static Runnable unwrap(@Nullable Runnable runnable) {
+        return runnable instanceof MonitoredRunnable ? ((MonitoredRunnable) runnable).mRunnable : runnable;
+    }
+
+    /**
+     * 记录被拒绝的任务
+     */
+    public void onRejected(String name) {
+        getExecutorStats(name).rejectedCount.incrementAndGet();
+    }
+
+    /**
+     * 获取统计数据的摘要（用于调试浮窗显示）
+     */
+    @NonNull
+    public String getSummary() {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, ExecutorStats> entry : mExecutorStats.entrySet()) {
+            ExecutorStats stats = entry.getValue();
+            if (builder.length() > 0) {
+                builder.append('\n');
+            }
+            builder.append(String.format(Locale.ROOT,
+                    "%s  tasks %d  wait p90 %dms  run p90 %dms  threads %d  queue %d  saturated %d  rejected %d",
+                    entry.getKey(), stats.submitCount.get(), stats.wait.percentile(90), stats.run.percentile(90),
+                    stats.maxPoolSize.get(), stats.maxQueueSize.get(), stats.saturatedCount.get(), stats.rejectedCount.get()));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 打印统计数据
+     */
+    public void dump() {
+        for (Map.Entry<String, ExecutorStats> entry : mExecutorStats.entrySet()) {
+            ExecutorStats stats = entry.getValue();
+            Timber.i("ExecutorMonitor %s：tasks = %d，wait p50 = %d ms，wait p99 = %d ms，run p50 = %d ms，run p99 = %d ms，" +
+                            "max threads = %d，max queue = %d，saturated = %d，rejected = %d",
+                    entry.getKey(), stats.submitCount.get(), stats.wait.percentile(50), stats.wait.percentile(99),
+                    stats.run.percentile(50), stats.run.percentile(99), stats.maxPoolSize.get(),
+                    stats.maxQueueSize.get(), stats.saturatedCount.get(), stats.rejectedCount.get());
+        }
+        for (Map.Entry<String, Histogram> entry : mCallSiteStats.entrySet()) {
+            Histogram histogram = entry.getValue();
+            Timber.i("ExecutorMonitor %s：count = %d，average = %d ms，p99 = %d ms，max = %d ms", entry.getKey(),
+                    histogram.count(), histogram.average(), histogram.percentile(99), histogram.max());
+        }
+    }
+
+    /**
+     * 清空统计数据
+     */
+    public void clear() {
+        mExecutorStats.clear();
+        mCallSiteStats.clear();
+    }
+
+    private ExecutorStats getExecutorStats(String name) {
+        ExecutorStats stats = mExecutorStats.get(name);
+        if (stats == null) {
+            mExecutorStats.putIfAbsent(name, new ExecutorStats());
+            stats = mExecutorStats.get(name);
+        }
+        return stats;
+    }
+
+    private void onTaskFinished(String name, Runnable runnable, @Nullable Throwable submitStack, long waitTime, long runTime) {
+        ExecutorStats stats = getExecutorStats(name);
+        stats.wait.record(waitTime);
+        stats.run.record(runTime);
+
+        // 提交位置只在需要的时候才从堆栈中解析
+        String callSite = null;
+        if (submitStack != null) {
+            callSite = getCallSite(submitStack, runnable);
+            Histogram histogram = mCallSiteStats.get(callSite);
+            if (histogram == null && mCallSiteStats.size() < MAX_CALL_SITE_COUNT) {
+                mCallSiteStats.putIfAbsent(callSite, new Histogram());
+                histogram = mCallSiteStats.get(callSite);
+            }
+            if (histogram != null) {
+                histogram.record(runTime);
+            }
+        }
+
+        if (runTime >= SLOW_RUN_MILLIS) {
+            Timber.w(submitStack, "ThreadPool-%s slow task：run = %d ms，wait = %d ms，%s", name, runTime, waitTime,
+                    callSite != null ? callSite : getCallSite(null, runnable));
+        } else if (waitTime >= SLOW_WAIT_MILLIS) {
+            Timber.w(submitStack, "ThreadPool-%s task waited too long：wait = %d ms，%s", name, waitTime,
+                    callSite != null ? callSite : getCallSite(null, runnable));
+        }
+    }
+
+    /**
+     * 从提交任务的堆栈中找出调用方的位置（跳过线程池本身的方法），没有记录堆栈则返回任务的类名
+     */
+    private static String getCallSite(@Nullable Throwable submitStack, Runnable runnable) {
+        if (submitStack == null) {
+            return runnable.getClass().getName();
+        }
+        for (StackTraceElement element : submitStack.getStackTrace()) {
+            String className = element.getClassName();
+            if (className.startsWith(ExecutorMonitor.class.getName()) ||
+                    className.startsWith(ThreadPoolManager.class.getName()) ||
+                    className.startsWith("java.util.concurrent.")) {
+                continue;
+            }
+            return className.substring(className.lastIndexOf('.') + 1) + "." + element.getMethodName() + ":" + element.getLineNumber();
+        }
+        return runnable.getClass().getName();
+    }
+
+    private static void updateMax(AtomicLong max, long value) {
+        long current;
+        while (value > (current = max.get())) {
+            if (max.compareAndSet(current, value)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 记录执行耗时的任务
+     */
+    private static final class MonitoredRunnable implements Runnable {
+
+        private final String mName;
+        private final Runnable mRunnable;
+        /** 没有被抽样到的任务为空 */
+        @Nullable
+        private final Throwable mSubmitStack;
+        private final long mEnqueueTime = SystemClock.uptimeMillis();
+
+        private MonitoredRunnable(String name, Runnable runnable, @Nullable Throwable submitStack) {
+            mName = name;
+            mRunnable = runnable;
+            mSubmitStack = submitStack;
+        }
+
+        @Override
+        public void run() {
+            long startTime = SystemClock.uptimeMillis();
+            try {
+                mRunnable.run();
+            } finally {
+                long finishTime = SystemClock.uptimeMillis();
+                ExecutorMonitor.getInstance().onTaskFinished(mName, mRunnable, mSubmitStack,
+                        startTime - mEnqueueTime, finishTime - startTime);
+            }
+        }
+    }
+
+    /**
+     * 单个线程池的统计数据
+     */
+    private static final class ExecutorStats {
+
+        private final Histogram wait = new Histogram();
+        private final Histogram run = new Histogram();
+        private final AtomicLong submitCount = new AtomicLong();
+        private final AtomicLong saturatedCount = new AtomicLong();
+        private final AtomicLong rejectedCount = new AtomicLong();
+        private final AtomicLong maxPoolSize = new AtomicLong();
+        private final AtomicLong maxQueueSize = new AtomicLong();
+    }
+
+    /**
+     * 无锁的耗时直方图
+     */
+    private static final class Histogram {
+
+        private final AtomicLongArray mBuckets = new AtomicLongArray(BUCKET_BOUNDS.length + 1);
+        private final AtomicLong mCount = new AtomicLong();
+        private final AtomicLong mTotal = new AtomicLong();
+        private final AtomicLong mMax = new AtomicLong();
+
+        private void record(long value) {
+            int index = 0;
+            while (index < BUCKET_BOUNDS.length && value > BUCKET_BOUNDS[index]) {
+                index++;
+            }
+            mBuckets.incrementAndGet(index);
+            mCount.incrementAndGet();
+            mTotal.addAndGet(value);
+            updateMax(mMax, value);
+        }
+
+        private long count() {
+            return mCount.get();
+        }
+
+        private long average() {
+            long count = mCount.get();
+            return count == 0 ? 0 : mTotal.get() / count;
+        }
+
+        private long max() {
+            return mMax.get();
+        }
+
+        /**
+         * 估算百分位（返回所在区间的上限，最后一个区间返回最大值）
+         */
+        private long percentile(int percent) {
+            long count = mCount.get();
+            if (count == 0) {
+                return 0;
+            }
+            long target = (long) Math.ceil(count * percent / 100.0);
+            long sum = 0;
+            for (int i = 0; i < mBuckets.length(); i++) {
+                sum += mBuckets.get(i);
+                if (sum >= target) {
+                    return i < BUCKET_BOUNDS.length ? BUCKET_BOUNDS[i] : mMax.get();
+                }
+            }
+            return mMax.get();
+        }
+    }
+}
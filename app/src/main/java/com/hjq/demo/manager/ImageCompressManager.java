@@ -0,0 +1,346 @@
+package com.hjq.demo.manager;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.media.ExifInterface;
+import android.net.Uri;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.TextUtils;
+import android.webkit.MimeTypeMap;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+import timber.log.Timber;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : 图片压缩管理（先读尺寸再按比例采样解码，修正 EXIF 旋转，按照目标大小压缩成 JPEG / WebP 后只写一次文件）
+ */
+public final class ImageCompressManager {
+
+    /** 压缩后图片存放的目录 */
+    private static final String OUTPUT_DIR_NAME = "compress";
+    /** 默认的最长边 */
+    private static final int DEFAULT_MAX_SIZE = 1280;
+    /** 默认的目标大小 */
+    private static final int DEFAULT_MAX_BYTES = 300 * 1024;
+    /** 最低的压缩质量 */
+    private static final int MIN_QUALITY = 40;
+
+    private static volatile ImageCompressManager sInstance;
+
+    /** 图片压缩比较耗费内存，所以在 CPU 线程池上面限制同时压缩的数量，并且限制排队的数量 */
+    private final ThreadPoolManager.LimitedExecutor mExecutor =
+            new ThreadPoolManager.LimitedExecutor(ThreadPoolManager.getInstance().cpu(), 2, 32);
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    private ImageCompressManager() {}
+
+    public static ImageCompressManager getInstance() {
+        if(sInstance == null) {
+            synchronized (ImageCompressManager.class) {
+                if(sInstance == null) {
+                    sInstance = new ImageCompressManager();
+                }
+            }
+        }
+        return sInstance;
+    }
+
+    /**
+     * 使用默认配置压缩单张图片
+     */
+    public Future<?> compress(Context context, Uri source, OnCompressListener listener) {
+        List<Uri> sources = new ArrayList<>(1);
+        sources.add(source);
+        return compress(context, sources, DEFAULT_MAX_SIZE, DEFAULT_MAX_BYTES, Bitmap.CompressFormat.JPEG, listener);
+    }
+
+    /**
+     * 使用默认配置压缩多张图片
+     */
+    public Future<?> compress(Context context, List<Uri> sources, OnCompressListener listener) {
+        return compress(context, sources, DEFAULT_MAX_SIZE, DEFAULT_MAX_BYTES, Bitmap.CompressFormat.JPEG, listener);
+    }
+
+    /**
+     * 压缩图片（不是图片或者压缩失败的会原样返回）
+     *
+     * @param maxSize           最长边的像素
+     * @param maxBytes          目标文件大小
+     * @param format            输出格式（JPEG / WEBP）
+     * @return                  可以通过 cancel(true) 取消压缩，取消后不会再回调
+     */
+    public Future<?> compress(Context context, List<Uri> sources, int maxSize, int maxBytes,
+                              Bitmap.CompressFormat format, OnCompressListener listener) {
+        Context applicationContext = context.getApplicationContext();
+        CompressTask task = new CompressTask(() -> compressAll(applicationContext, sources, maxSize, maxBytes, format), listener);
+        try {
+            mExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // 排队的任务太多了，直接返回原图（同样可以在回调之前取消）
+            Timber.w(e, "ImageCompressManager too many tasks");
+            task = new CompressTask(() -> new ArrayList<>(sources), listener);
+            mHandler.post(task);
+        }
+        return task;
+    }
+
+    /**
+     * 依次压缩图片（在子线程中执行），被中断了返回 null
+     */
+    @Nullable
+    private List<Uri> compressAll(Context applicationContext, List<Uri> sources, int maxSize, int maxBytes,
+                                  Bitmap.CompressFormat format) {
+        List<Uri> result = new ArrayList<>(sources.size());
+        for (Uri source : sources) {
+            if (Thread.currentThread().isInterrupted()) {
+                return null;
+            }
+            try {
+                result.add(compressSync(applicationContext, source, maxSize, maxBytes, format));
+            } catch (InterruptedIOException e) {
+                return null;
+            } catch (IOException | RuntimeException | OutOfMemoryError e) {
+                Timber.w(e, "ImageCompressManager compress failed：%s", source);
+                result.add(source);
+            }
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            return null;
+        }
+        return result;
+    }
+
+    /**
+     * 同步压缩图片（需要在子线程调用）
+     */
+    @NonNull
+    public Uri compressSync(Context context, Uri source, int maxSize, int maxBytes, Bitmap.CompressFormat format) throws IOException {
+        ContentResolver resolver = context.getContentResolver();
+        String mimeType = getMimeType(resolver, source);
+        // 不是图片或者是动图的不进行压缩
+        if (mimeType == null || !mimeType.startsWith("image/") || "image/gif".equals(mimeType)) {
+            return source;
+        }
+
+        // 第一步：只读取图片的尺寸
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        try (InputStream inputStream = openInputStream(resolver, source)) {
+            BitmapFactory.decodeStream(inputStream, null, options);
+        }
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            return source;
+        }
+        checkInterrupted();
+
+        // 第二步：按照 2 的倍数采样解码，解码出来的图片不会比目标尺寸小太多
+        int longSide = Math.max(options.outWidth, options.outHeight);
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = 1;
+        while (longSide / (options.inSampleSize * 2) >= maxSize) {
+            options.inSampleSize *= 2;
+        }
+        // JPEG 没有透明通道，使用 RGB_565 可以节省一半的内存
+        options.inPreferredConfig = format == Bitmap.CompressFormat.JPEG ? Bitmap.Config.RGB_565 : Bitmap.Config.ARGB_8888;
+        Bitmap bitmap;
+        try (InputStream inputStream = openInputStream(resolver, source)) {
+            bitmap = BitmapFactory.decodeStream(inputStream, null, options);
+        }
+        if (bitmap == null) {
+            return source;
+        }
+        checkInterrupted(bitmap);
+
+        // 第三步：缩放到精确的尺寸并修正 EXIF 中的旋转角度
+        Matrix matrix = new Matrix();
+        float scale = Math.min(1f, (float) maxSize / Math.max(bitmap.getWidth(), bitmap.getHeight()));
+        if (scale < 1f) {
+            matrix.postScale(scale, scale);
+        }
+        int degrees = getExifDegrees(resolver, source);
+        if (degrees != 0) {
+            matrix.postRotate(degrees);
+        }
+        if (!matrix.isIdentity()) {
+            Bitmap transformed = Bitmap.createBitmap(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(), matrix, true);
+            if (transformed != bitmap) {
+                bitmap.recycle();
+                bitmap = transformed;
+            }
+        }
+        checkInterrupted(bitmap);
+
+        // 第四步：逐步降低质量直到满足目标大小，最后只写一次文件
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(maxBytes);
+        int quality = 90;
+        bitmap.compress(format, quality, outputStream);
+        while (outputStream.size() > maxBytes && quality > MIN_QUALITY) {
+            checkInterrupted(bitmap);
+            quality -= 10;
+            outputStream.reset();
+            bitmap.compress(format, quality, outputStream);
+        }
+        bitmap.recycle();
+
+        File outputDir = new File(context.getCacheDir(), OUTPUT_DIR_NAME);
+        if (!outputDir.exists() && !outputDir.mkdirs()) {
+            throw new IOException("mkdirs failed：" + outputDir);
+        }
+        String suffix = format == Bitmap.CompressFormat.JPEG ? ".jpg" : ".webp";
+        File outputFile = new File(outputDir, System.currentTimeMillis() + "_" + Math.abs(source.hashCode()) + suffix);
+        try (OutputStream fileOutputStream = new FileOutputStream(outputFile)) {
+            outputStream.writeTo(fileOutputStream);
+        }
+        Timber.i("ImageCompressManager %s -> %s（%d bytes，quality = %d）", source, outputFile, outputStream.size(), quality);
+        return Uri.fromFile(outputFile);
+    }
+
+    private static InputStream openInputStream(ContentResolver resolver, Uri uri) throws FileNotFoundException {
+        InputStream inputStream = resolver.openInputStream(uri);
+        if (inputStream == null) {
+            throw new FileNotFoundException(uri.toString());
+        }
+        return inputStream;
+    }
+
+    /**
+     * 获取图片的 MIME 类型，获取不到返回 null
+     */
+    @Nullable
+    public static String getMimeType(ContentResolver resolver, Uri uri) {
+        if (ContentResolver.SCHEME_CONTENT.equals(uri.getScheme())) {
+            return resolver.getType(uri);
+        }
+        String extension = MimeTypeMap.getFileExtensionFromUrl(uri.toString());
+        if (TextUtils.isEmpty(extension)) {
+            return null;
+        }
+        return MimeTypeMap.getSingleton().getMimeTypeFromExtension(extension.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * 获取图片 EXIF 中的旋转角度
+     */
+    private static int getExifDegrees(ContentResolver resolver, Uri uri) {
+        try {
+            ExifInterface exif;
+            if (ContentResolver.SCHEME_FILE.equals(uri.getScheme())) {
+                exif = new ExifInterface(uri.getPath());
+            } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+                try (InputStream inputStream = openInputStream(resolver, uri)) {
+                    exif = new ExifInterface(inputStream);
+                }
+            } else {
+                return 0;
+            }
+            switch (exif.getAttributeInt(ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL)) {
+                case ExifInterface.ORIENTATION_ROTATE_90:
+                    return 90;
+                case ExifInterface.ORIENTATION_ROTATE_180:
+                    return 180;
+                case ExifInterface.ORIENTATION_ROTATE_270:
+                    return 270;
+                default:
+                    return 0;
+            }
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void checkInterrupted() throws InterruptedIOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException();
+        }
+    }
+
+    private static void checkInterrupted(Bitmap bitmap) throws InterruptedIOException {
+        if (Thread.currentThread().isInterrupted()) {
+            bitmap.recycle();
+            throw new InterruptedIOException();
+        }
+    }
+
+    /**
+     * 压缩任务（完成之后在主线程回调，回调之前再检查一次是否已经取消，保证取消之后不会再回调）
+     */
+    private final class CompressTask extends FutureTask<List<Uri>> {
+
+        private final OnCompressListener mListener;
+
+        /** 是否调用过取消（任务已经完成、回调还没有执行的时候取消，FutureTask 本身不会记录） */
+        private volatile boolean mCancelled;
+
+        private CompressTask(Callable<List<Uri>> callable, OnCompressListener listener) {
+            super(callable);
+            mListener = listener;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            mCancelled = true;
+            return super.cancel(mayInterruptIfRunning);
+        }
+
+        @Override
+        protected void done() {
+            if (isCancelled()) {
+                return;
+            }
+            List<Uri> result;
+            try {
+                result = get();
+            } catch (InterruptedException | ExecutionException e) {
+                return;
+            }
+            if (result == null) {
+                return;
+            }
+            mHandler.post(() -> {
+                // 取消是在主线程调用的，这里再判断一次就不会和取消冲突
+                if (!mCancelled) {
+                    mListener.onCompressed(result);
+                }
+            });
+        }
+    }
+
+    /**
+     * 压缩监听
+     */
+    public interface OnCompressListener {
+
+        /**
+         * 压缩完成（在主线程回调），顺序和传入的图片一致
+         */
+        void onCompressed(List<Uri> result);
+    }
+}
@@ -0,0 +1,575 @@
+package com.hjq.demo.manager;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.hjq.demo.other.MmkvUtil;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import timber.log.Timber;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : 配置存储（在 MmkvUtil 的基础上加一层内存缓存，写入先改内存，再合并到子线程中批量落盘）
+ *
+ *    读过的 key 会缓存在内存中，基本类型按照各自的类型保存，读取的时候不会装箱，同一个 key 需要始终用同一种类型读写；
+ *    同一个 key 的配置需要统一通过这里读写，不要再直接调用 MmkvUtil，否则缓存会和磁盘上的数据不一致
+ */
+public final class SettingsStore {
+
+    /** 写入之后延迟落盘的时间，这段时间内的写入会合并成一次 */
+    private static final long FLUSH_DELAY = 200;
+
+    /** 落盘专用的线程（队列没有上限，不会像公共线程池那样丢弃任务） */
+    private static final ScheduledThreadPoolExecutor FLUSH_EXECUTOR = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "SettingsStore");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static volatile SettingsStore sInstance;
+
+    public static SettingsStore getInstance() {
+        if(sInstance == null) {
+            synchronized (SettingsStore.class) {
+                if(sInstance == null) {
+                    sInstance = new SettingsStore(new MmkvBackend());
+                }
+            }
+        }
+        return sInstance;
+    }
+
+    private final Backend mBackend;
+
+    /** 内存缓存（key -> 配置项） */
+    private final HashMap<String, Entry> mCache = new HashMap<>();
+    /** 还没有落盘的配置项（按照写入的顺序） */
+    private LinkedHashMap<String, Entry> mDirty = new LinkedHashMap<>();
+    /** 已经预约的落盘任务 */
+    private ScheduledFuture<?> mFlushFuture;
+
+    /** 保证多次落盘按照顺序执行，不会出现旧的值覆盖新的值 */
+    private final Object mFlushLock = new Object();
+
+    /** 配置变化监听 */
+    private final CopyOnWriteArrayList<OnChangeListener> mListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * 创建一个配置存储（单元测试可以传入 {@link MemoryBackend}）
+     */
+    public SettingsStore(@NonNull Backend backend) {
+        mBackend = backend;
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        synchronized (this) {
+            Entry entry = mCache.get(key);
+            if (entry instanceof BooleanEntry) {
+                return ((BooleanEntry) entry).mValue;
+            }
+            if (entry == Entry.ABSENT) {
+                return defaultValue;
+            }
+        }
+        if (!mBackend.contains(key)) {
+            cacheAbsent(key);
+            return defaultValue;
+        }
+        boolean value = mBackend.getBoolean(key, defaultValue);
+        cacheLoaded(key, new BooleanEntry(value));
+        return value;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        synchronized (this) {
+            Entry entry = mCache.get(key);
+            if (entry instanceof IntEntry) {
+                return ((IntEntry) entry).mValue;
+            }
+            if (entry == Entry.ABSENT) {
+                return defaultValue;
+            }
+        }
+        if (!mBackend.contains(key)) {
+            cacheAbsent(key);
+            return defaultValue;
+        }
+        int value = mBackend.getInt(key, defaultValue);
+        cacheLoaded(key, new IntEntry(value));
+        return value;
+    }
+
+    public long getLong(String key, long defaultValue) {
+        synchronized (this) {
+            Entry entry = mCache.get(key);
+            if (entry instanceof LongEntry) {
+                return ((LongEntry) entry).mValue;
+            }
+            if (entry == Entry.ABSENT) {
+                return defaultValue;
+            }
+        }
+        if (!mBackend.contains(key)) {
+            cacheAbsent(key);
+            return defaultValue;
+        }
+        long value = mBackend.getLong(key, defaultValue);
+        cacheLoaded(key, new LongEntry(value));
+        return value;
+    }
+
+    public float getFloat(String key, float defaultValue) {
+        synchronized (this) {
+            Entry entry = mCache.get(key);
+            if (entry instanceof FloatEntry) {
+                return ((FloatEntry) entry).mValue;
+            }
+            if (entry == Entry.ABSENT) {
+                return defaultValue;
+            }
+        }
+        if (!mBackend.contains(key)) {
+            cacheAbsent(key);
+            return defaultValue;
+        }
+        float value = mBackend.getFloat(key, defaultValue);
+        cacheLoaded(key, new FloatEntry(value));
+        return value;
+    }
+
+    public String getString(String key, String defaultValue) {
+        synchronized (this) {
+            Entry entry = mCache.get(key);
+            if (entry instanceof StringEntry) {
+                return ((StringEntry) entry).mValue;
+            }
+            if (entry == Entry.ABSENT) {
+                return defaultValue;
+            }
+        }
+        if (!mBackend.contains(key)) {
+            cacheAbsent(key);
+            return defaultValue;
+        }
+        String value = mBackend.getString(key, defaultValue);
+        cacheLoaded(key, new StringEntry(value));
+        return value;
+    }
+
+    public void putBoolean(String key, boolean value) {
+        synchronized (this) {
+            Entry entry = mCache.get(key);
+            if (entry instanceof BooleanEntry && ((BooleanEntry) entry).mValue == value) {
+                return;
+            }
+        }
+        put(key, new BooleanEntry(value));
+    }
+
+    public void putInt(String key, int value) {
+        synchronized (this) {
+            Entry entry = mCache.get(key);
+            if (entry instanceof IntEntry && ((IntEntry) entry).mValue == value) {
+                return;
+            }
+        }
+        put(key, new IntEntry(value));
+    }
+
+    public void putLong(String key, long value) {
+        synchronized (this) {
+            Entry entry = mCache.get(key);
+            if (entry instanceof LongEntry && ((LongEntry) entry).mValue == value) {
+                return;
+            }
+        }
+        put(key, new LongEntry(value));
+    }
+
+    public void putFloat(String key, float value) {
+        synchronized (this) {
+            Entry entry = mCache.get(key);
+            if (entry instanceof FloatEntry && ((FloatEntry) entry).mValue == value) {
+                return;
+            }
+        }
+        put(key, new FloatEntry(value));
+    }
+
+    public void putString(String key, @Nullable String value) {
+        if (value == null) {
+            remove(key);
+            return;
+        }
+        synchronized (this) {
+            Entry entry = mCache.get(key);
+            if (entry instanceof StringEntry && value.equals(((StringEntry) entry).mValue)) {
+                return;
+            }
+        }
+        put(key, new StringEntry(value));
+    }
+
+    public void remove(String key) {
+        synchronized (this) {
+            if (mCache.get(key) == Entry.ABSENT) {
+                return;
+            }
+        }
+        put(key, Entry.ABSENT);
+    }
+
+    public void addOnChangeListener(@NonNull OnChangeListener listener) {
+        mListeners.addIfAbsent(listener);
+    }
+
+    public void removeOnChangeListener(@NonNull OnChangeListener listener) {
+        mListeners.remove(listener);
+    }
+
+    /**
+     * 在落盘线程中立即把还没有落盘的配置写入磁盘
+     */
+    public void flushAsync() {
+        try {
+            FLUSH_EXECUTOR.execute(this::flush);
+        } catch (RejectedExecutionException e) {
+            Timber.w(e, "SettingsStore flush failed");
+        }
+    }
+
+    /**
+     * 立即把还没有落盘的配置写入磁盘（会阻塞当前线程，不要在主线程频繁调用）
+     */
+    public void flush() {
+        synchronized (mFlushLock) {
+            Map<String, Entry> dirty;
+            synchronized (this) {
+                if (mFlushFuture != null) {
+                    mFlushFuture.cancel(false);
+                    mFlushFuture = null;
+                }
+                if (mDirty.isEmpty()) {
+                    return;
+                }
+                dirty = mDirty;
+                mDirty = new LinkedHashMap<>();
+            }
+            for (Map.Entry<String, Entry> entry : dirty.entrySet()) {
+                entry.getValue().write(mBackend, entry.getKey());
+            }
+            Timber.d("SettingsStore flush %d keys", dirty.size());
+        }
+    }
+
+    private void put(String key, Entry entry) {
+        synchronized (this) {
+            mCache.put(key, entry);
+            mDirty.put(key, entry);
+            if (mFlushFuture == null) {
+                try {
+                    mFlushFuture = FLUSH_EXECUTOR.schedule(this::flush, FLUSH_DELAY, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    // 没有预约成功，下次写入的时候再重新预约
+                    Timber.w(e, "SettingsStore schedule flush failed");
+                }
+            }
+        }
+        for (OnChangeListener listener : mListeners) {
+            listener.onSettingChanged(this, key);
+        }
+    }
+
+    private synchronized void cacheAbsent(String key) {
+        // 读磁盘的过程中可能已经写入了新的值，这种情况以新的值为准
+        if (!mCache.containsKey(key)) {
+            mCache.put(key, Entry.ABSENT);
+        }
+    }
+
+    private synchronized void cacheLoaded(String key, Entry entry) {
+        Entry current = mCache.get(key);
+        // 读磁盘的过程中已经写入了新的值，这种情况以新的值为准
+        if (current == null || !mDirty.containsKey(key) && current.getClass() != entry.getClass()) {
+            mCache.put(key, entry);
+        }
+    }
+
+    /**
+     * 配置变化监听器
+     */
+    public interface OnChangeListener {
+
+        /**
+         * 配置发生了变化（在写入的线程中回调）
+         */
+        void onSettingChanged(SettingsStore store, String key);
+    }
+
+    /**
+     * 配置的存储后端
+     */
+    public interface Backend {
+
+        boolean contains(String key);
+
+        boolean getBoolean(String key, boolean defaultValue);
+
+        int getInt(String key, int defaultValue);
+
+        long getLong(String key, long defaultValue);
+
+        float getFloat(String key, float defaultValue);
+
+        String getString(String key, String defaultValue);
+
+        void putBoolean(String key, boolean value);
+
+        void putInt(String key, int value);
+
+        void putLong(String key, long value);
+
+        void putFloat(String key, float value);
+
+        void putString(String key, String value);
+
+        void remove(String key);
+    }
+
+    /**
+     * 基于 MMKV 的存储后端
+     */
+    public static final class MmkvBackend implements Backend {
+
+        @Override
+        public boolean contains(String key) {
+            return MmkvUtil.contains(key);
+        }
+
+        @Override
+        public boolean getBoolean(String key, boolean defaultValue) {
+            return MmkvUtil.getBool(key, defaultValue);
+        }
+
+        @Override
+        public int getInt(String key, int defaultValue) {
+            return MmkvUtil.getInt(key, defaultValue);
+        }
+
+        @Override
+        public long getLong(String key, long defaultValue) {
+            return MmkvUtil.getLong(key, defaultValue);
+        }
+
+        @Override
+        public float getFloat(String key, float defaultValue) {
+            return MmkvUtil.getFloat(key, defaultValue);
+        }
+
+        @Override
+        public String getString(String key, String defaultValue) {
+            return MmkvUtil.getString(key, defaultValue);
+        }
+
+        @Override
+        public void putBoolean(String key, boolean value) {
+            MmkvUtil.save(key, value);
+        }
+
+        @Override
+        public void putInt(String key, int value) {
+            MmkvUtil.save(key, value);
+        }
+
+        @Override
+        public void putLong(String key, long value) {
+            MmkvUtil.save(key, value);
+        }
+
+        @Override
+        public void putFloat(String key, float value) {
+            MmkvUtil.save(key, value);
+        }
+
+        @Override
+        public void putString(String key, String value) {
+            MmkvUtil.save(key, value);
+        }
+
+        @Override
+        public void remove(String key) {
+            MmkvUtil.remove(key);
+        }
+    }
+
+    /**
+     * 基于内存的存储后端（给单元测试使用）
+     */
+    public static final class MemoryBackend implements Backend {
+
+        private final HashMap<String, Object> mValues = new HashMap<>();
+
+        @Override
+        public synchronized boolean contains(String key) {
+            return mValues.containsKey(key);
+        }
+
+        @Override
+        public synchronized boolean getBoolean(String key, boolean defaultValue) {
+            Object value = mValues.get(key);
+            return value instanceof Boolean ? (Boolean) value : defaultValue;
+        }
+
+        @Override
+        public synchronized int getInt(String key, int defaultValue) {
+            Object value = mValues.get(key);
+            return value instanceof Integer ? (Integer) value : defaultValue;
+        }
+
+        @Override
+        public synchronized long getLong(String key, long defaultValue) {
+            Object value = mValues.get(key);
+            return value instanceof Long ? (Long) value : defaultValue;
+        }
+
+        @Override
+        public synchronized float getFloat(String key, float defaultValue) {
+            Object value = mValues.get(key);
+            return value instanceof Float ? (Float) value : defaultValue;
+        }
+
+        @Override
+        public synchronized String getString(String key, String defaultValue) {
+            Object value = mValues.get(key);
+            return value instanceof String ? (String) value : defaultValue;
+        }
+
+        @Override
+        public synchronized void putBoolean(String key, boolean value) {
+            mValues.put(key, value);
+        }
+
+        @Override
+        public synchronized void putInt(String key, int value) {
+            mValues.put(key, value);
+        }
+
+        @Override
+        public synchronized void putLong(String key, long value) {
+            mValues.put(key, value);
+        }
+
+        @Override
+        public synchronized void putFloat(String key, float value) {
+            mValues.put(key, value);
+        }
+
+        @Override
+        public synchronized void putString(String key, String value) {
+            mValues.put(key, value);
+        }
+
+        @Override
+        public synchronized void remove(String key) {
+            mValues.remove(key);
+        }
+    }
+
+    /**
+     * 缓存的配置项（基本类型直接用字段保存，避免装箱）
+     */
+    private abstract static class Entry {
+
+        /** 磁盘上没有这个 key，或者已经被删除了 */
+        private static final Entry ABSENT = new Entry() {
+
+            @Override
+            void write(Backend backend, String key) {
+                backend.remove(key);
+            }
+        };
+
+        abstract void write(Backend backend, String key);
+    }
+
+    private static final class BooleanEntry extends Entry {
+
+        private final boolean mValue;
+
+        private BooleanEntry(boolean value) {
+            mValue = value;
+        }
+
+        @Override
+        void write(Backend backend, String key) {
+            backend.putBoolean(key, mValue);
+        }
+    }
+
+    private static final class IntEntry extends Entry {
+
+        private final int mValue;
+
+        private IntEntry(int value) {
+            mValue = value;
+        }
+
+        @Override
+        void write(Backend backend, String key) {
+            backend.putInt(key, mValue);
+        }
+    }
+
+    private static final class LongEntry extends Entry {
+
+        private final long mValue;
+
+        private LongEntry(long value) {
+            mValue = value;
+        }
+
+        @Override
+        void write(Backend backend, String key) {
+            backend.putLong(key, mValue);
+        }
+    }
+
+    private static final class FloatEntry extends Entry {
+
+        private final float mValue;
+
+        private FloatEntry(float value) {
+            mValue = value;
+        }
+
+        @Override
+        void write(Backend backend, String key) {
+            backend.putFloat(key, mValue);
+        }
+    }
+
+    private static final class StringEntry extends Entry {
+
+        private final String mValue;
+
+        private StringEntry(String value) {
+            mValue = value;
+        }
+
+        @Override
+        void write(Backend backend, String key) {
+            backend.putString(key, mValue);
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.hjq.demo.manager;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Printer;
+
+import androidx.annotation.NonNull;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import timber.log.Timber;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : 主线程卡顿监控（通过 Looper 的日志回调统计每条消息的耗时，超时之后在子线程中采样主线程的堆栈，只在调试模式下使用）
+ *
+ *    只有消息超时之后才会开始采样，每次采样需要暂停主线程不到 1 毫秒，按照 100 毫秒的间隔采样，额外的 CPU 占用在 1% 以内
+ */
+public final class StallWatchdog implements Printer {
+
+    /** 消息执行超过这个时间算作卡顿 */
+    private static final long STALL_THRESHOLD = 500;
+    /** 消息执行超过这个时间算作 ANR */
+    private static final long ANR_THRESHOLD = 5000;
+    /** 卡顿期间的采样间隔 */
+    private static final long SAMPLE_INTERVAL = 100;
+    /** 每个堆栈保留的栈帧数量 */
+    private static final int MAX_FRAME_COUNT = 12;
+    /** 每份报告保留的堆栈数量 */
+    private static final int MAX_STACK_COUNT = 3;
+    /** 最多保留的报告数量 */
+    private static final int MAX_REPORT_COUNT = 30;
+    /** 报告存放的目录 */
+    private static final String REPORT_DIR_NAME = "stall";
+
+    /** 消息开始和结束的日志前缀 */
+    private static final String DISPATCH_PREFIX = ">>>>> Dispatching to ";
+    private static final String FINISH_PREFIX = "<<<<< Finished to ";
+    /** 去掉日志中的对象地址，方便按照消息的目标聚合 */
+    private static final Pattern ADDRESS_REGEX = Pattern.compile("(\\{[0-9a-f]+\\}|@[0-9a-f]+)");
+
+    private static volatile StallWatchdog sInstance;
+
+    private File mReportDir;
+    private Handler mSamplerHandler;
+
+    /** 当前消息开始执行的时间，0 表示没有在执行消息 */
+    private volatile long mDispatchTime;
+    /** 当前消息的日志 */
+    private volatile String mDispatchMessage;
+    /** 当前消息的序号（每条消息开始执行的时候加一，只在主线程中修改） */
+    private volatile long mDispatchSequence;
+    /** 堆栈 -> 采样到的次数 */
+    private final HashMap<String, Integer> mSamples = new HashMap<>();
+    /** mSamples 中的堆栈属于哪一条消息（加 mSamples 锁访问） */
+    private long mSamplesSequence;
+    /** 当前消息已经保存的 ANR 报告的时间，0 表示还没有保存（消息结束之后用同一个时间覆盖这份报告） */
+    private volatile long mAnrReportTime;
+
+    private final Runnable mSampleRunnable = this::sample;
+
+    private StallWatchdog() {}
+
+    public static StallWatchdog getInstance() {
+        if(sInstance == null) {
+            synchronized (StallWatchdog.class) {
+                if(sInstance == null) {
+                    sInstance = new StallWatchdog();
+                }
+            }
+        }
+        return sInstance;
+    }
+
+    /**
+     * 开始监控主线程
+     */
+    public void init(Context context) {
+        if (mSamplerHandler != null) {
+            return;
+        }
+        mReportDir = new File(context.getFilesDir(), REPORT_DIR_NAME);
+        HandlerThread thread = new HandlerThread("StallSampler", Process.THREAD_PRIORITY_BACKGROUND);
+        thread.start();
+        mSamplerHandler = new Handler(thread.getLooper());
+        Looper.getMainLooper().setMessageLogging(this);
+    }
+
+    /**
+     * {@link Printer}
+     */
+    @Override
+    public void println(String x) {
+        if (x.startsWith(DISPATCH_PREFIX)) {
+            mDispatchMessage = x;
+            mAnrReportTime = 0;
+            mDispatchSequence++;
+            mDispatchTime = SystemClock.uptimeMillis();
+            mSamplerHandler.postDelayed(mSampleRunnable, STALL_THRESHOLD);
+        } else if (x.startsWith(FINISH_PREFIX)) {
+            long dispatchTime = mDispatchTime;
+            mDispatchTime = 0;
+            mSamplerHandler.removeCallbacks(mSampleRunnable);
+            if (dispatchTime == 0) {
+                return;
+            }
+            long duration = SystemClock.uptimeMillis() - dispatchTime;
+            if (duration >= STALL_THRESHOLD) {
+                onStall(mDispatchMessage, duration, mDispatchSequence);
+            }
+        }
+    }
+
+    /**
+     * 采样主线程堆栈（在采样线程中执行）
+     */
+    private void sample() {
+        // 先读序号再读时间，消息开始执行的时候是先改序号再改时间
+        long sequence = mDispatchSequence;
+        long dispatchTime = mDispatchTime;
+        if (dispatchTime == 0) {
+            return;
+        }
+        StackTraceElement[] elements = Looper.getMainLooper().getThread().getStackTrace();
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < elements.length && i < MAX_FRAME_COUNT; i++) {
+            builder.append(elements[i]).append('\n');
+        }
+        String stack = builder.toString();
+
+        long duration = SystemClock.uptimeMillis() - dispatchTime;
+        List<Map.Entry<String, Integer>> samples = null;
+        synchronized (mSamples) {
+            // 采样的过程中消息已经执行完了，这次的堆栈不属于任何一条还在执行的消息，也不用再继续采样了
+            if (sequence != mDispatchSequence || mDispatchTime == 0) {
+                return;
+            }
+            // 上一条消息留下的堆栈不能算到这条消息中
+            if (mSamplesSequence != sequence) {
+                mSamples.clear();
+                mSamplesSequence = sequence;
+            }
+            Integer count = mSamples.get(stack);
+            mSamples.put(stack, count == null ? 1 : count + 1);
+            if (duration >= ANR_THRESHOLD && mAnrReportTime == 0) {
+                samples = new ArrayList<>(mSamples.entrySet());
+            }
+        }
+
+        if (samples != null) {
+            // 真正发生 ANR 的时候进程一般会被系统杀死，等不到消息结束，所以在这里先保存一份报告
+            long time = System.currentTimeMillis();
+            mAnrReportTime = time;
+            Timber.e("StallWatchdog main thread blocked for %d ms（ANR）：%s\n%s", duration, getTarget(mDispatchMessage), stack);
+            saveReport(createReport(time, mDispatchMessage, duration, samples));
+        }
+        mSamplerHandler.postDelayed(mSampleRunnable, SAMPLE_INTERVAL);
+    }
+
+    /**
+     * 消息执行超时（在主线程中执行）
+     */
+    private void onStall(String message, long duration, long sequence) {
+        List<Map.Entry<String, Integer>> samples = new ArrayList<>();
+        synchronized (mSamples) {
+            if (mSamplesSequence == sequence) {
+                samples.addAll(mSamples.entrySet());
+            }
+            mSamples.clear();
+        }
+        long anrReportTime = mAnrReportTime;
+        mAnrReportTime = 0;
+        long time = anrReportTime != 0 ? anrReportTime : System.currentTimeMillis();
+        ThreadPoolManager.getInstance().io().execute(() -> {
+            JSONObject report = createReport(time, message, duration, samples);
+            Timber.w("StallWatchdog main thread blocked for %d ms：%s", duration, report.optString("target"));
+            saveReport(report);
+        });
+    }
+
+    private static JSONObject createReport(long time, String message, long duration, List<Map.Entry<String, Integer>> samples) {
+        // 采样次数多的堆栈排在前面
+        Collections.sort(samples, (o1, o2) -> o2.getValue() - o1.getValue());
+        JSONObject report = new JSONObject();
+        try {
+            report.put("time", time);
+            report.put("target", getTarget(message));
+            report.put("duration", duration);
+            report.put("anr", duration >= ANR_THRESHOLD);
+            JSONArray stacks = new JSONArray();
+            for (int i = 0; i < samples.size() && i < MAX_STACK_COUNT; i++) {
+                JSONObject stack = new JSONObject();
+                stack.put("count", samples.get(i).getValue());
+                stack.put("frames", samples.get(i).getKey());
+                stacks.put(stack);
+            }
+            report.put("stacks", stacks);
+        } catch (JSONException e) {
+            // put 方法只有在 key 为空的时候才会抛出
+        }
+        return report;
+    }
+
+    /**
+     * 从日志中取出消息的目标（Handler 和 callback）
+     */
+    private static String getTarget(String message) {
+        if (message == null) {
+            return "";
+        }
+        String target = message.substring(DISPATCH_PREFIX.length());
+        // 去掉最后的 what
+        int index = target.lastIndexOf(": ");
+        if (index != -1) {
+            target = target.substring(0, index);
+        }
+        return ADDRESS_REGEX.matcher(target).replaceAll("");
+    }
+
+    /**
+     * 保存报告，只保留最近的几份（需要在子线程调用）
+     */
+    private synchronized void saveReport(JSONObject report) {
+        if (!mReportDir.exists() && !mReportDir.mkdirs()) {
+            return;
+        }
+        File file = new File(mReportDir, report.optLong("time") + ".json");
+        try (OutputStream outputStream = new FileOutputStream(file)) {
+            outputStream.write(report.toString().getBytes(Charset.forName("UTF-8")));
+        } catch (IOException e) {
+            Timber.w(e, "StallWatchdog save report failed");
+            return;
+        }
+        File[] files = listReportFiles();
+        for (int i = MAX_REPORT_COUNT; i < files.length; i++) {
+            files[i].delete();
+        }
+    }
+
+    /**
+     * 读取保存的报告，最新的排在前面（需要在子线程调用）
+     */
+    @NonNull
+    public synchronized List<JSONObject> getReports() {
+        List<JSONObject> reports = new ArrayList<>();
+        if (mReportDir == null) {
+            return reports;
+        }
+        for (File file : listReportFiles()) {
+            try (InputStream inputStream = new FileInputStream(file)) {
+                byte[] bytes = new byte[(int) file.length()];
+                int length = 0;
+                int read;
+                while (length < bytes.length && (read = inputStream.read(bytes, length, bytes.length - length)) != -1) {
+                    length += read;
+                }
+                reports.add(new JSONObject(new String(bytes, 0, length, Charset.forName("UTF-8"))));
+            } catch (IOException | JSONException e) {
+                Timber.w(e, "StallWatchdog read report failed：%s", file.getName());
+            }
+        }
+        return reports;
+    }
+
+    /**
+     * 删除所有的报告（需要在子线程调用）
+     */
+    public synchronized void clear() {
+        if (mReportDir == null) {
+            return;
+        }
+        for (File file : listReportFiles()) {
+            file.delete();
+        }
+    }
+
+    /**
+     * 打印保存的报告
+     */
+    public void dump() {
+        for (JSONObject report : getReports()) {
+            Timber.i("StallWatchdog %s：duration = %d ms，anr = %b", report.optString("target"),
+                    report.optLong("duration"), report.optBoolean("anr"));
+        }
+    }
+
+    private File[] listReportFiles() {
+        File[] files = mReportDir.listFiles();
+        if (files == null) {
+            return new File[0];
+        }
+        // 文件名是时间戳，按照文件名倒序排列
+        Arrays.sort(files, (o1, o2) -> o2.getName().compareTo(o1.getName()));
+        return files;
+    }
+}
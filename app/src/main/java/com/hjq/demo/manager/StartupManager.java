@@ -0,0 +1,265 @@
+package com.hjq.demo.manager;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import timber.log.Timber;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : 启动任务调度（按照依赖关系执行初始化任务，没有依赖关系的任务在子线程中并行执行）
+ *
+ *    使用方式：new StartupManager().addTask(task1).addTask(task2).start()
+ *    start 方法会阻塞主线程，直到所有标记了 setAwait(true) 的任务执行完成，其他任务会在后台继续执行
+ */
+public final class StartupManager {
+
+    /** 启动任务线程池的线程数量 */
+    private static final int THREAD_COUNT = Math.max(2, Math.min(Runtime.getRuntime().availableProcessors() - 1, 4));
+
+    /** 任务名称 -> 任务 */
+    private final LinkedHashMap<String, StartupTask> mTasks = new LinkedHashMap<>();
+    /** 任务名称 -> 依赖它的任务 */
+    private final Map<String, List<StartupTask>> mChildren = new LinkedHashMap<>();
+    /** 任务名称 -> 还没有完成的依赖数量 */
+    private final Map<String, AtomicInteger> mPendingCounts = new LinkedHashMap<>();
+
+    /** 等待在主线程执行的任务 */
+    private final LinkedBlockingQueue<StartupTask> mMainQueue = new LinkedBlockingQueue<>();
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    private ThreadPoolExecutor mExecutor;
+    /** 需要在启动时等待的任务 */
+    private CountDownLatch mAwaitLatch;
+    /** 还没有完成的任务数量 */
+    private AtomicInteger mRemainingCount;
+    /** 开始执行的时间 */
+    private long mStartTime;
+
+    public StartupManager addTask(StartupTask task) {
+        if (mTasks.containsKey(task.getName())) {
+            throw new IllegalArgumentException("duplicate startup task：" + task.getName());
+        }
+        mTasks.put(task.getName(), task);
+        return this;
+    }
+
+    /**
+     * 开始执行所有的任务（需要在主线程调用）
+     */
+    public void start() {
+        if (Looper.myLooper() != Looper.getMainLooper()) {
+            throw new IllegalStateException("StartupManager must start on the main thread");
+        }
+        mStartTime = SystemClock.uptimeMillis();
+        int awaitCount = 0;
+        for (StartupTask task : mTasks.values()) {
+            mChildren.put(task.getName(), new ArrayList<>());
+            mPendingCounts.put(task.getName(), new AtomicInteger(task.getDependencies().size()));
+            if (task.isAwait()) {
+                awaitCount++;
+            }
+        }
+        for (StartupTask task : mTasks.values()) {
+            for (String dependency : task.getDependencies()) {
+                List<StartupTask> children = mChildren.get(dependency);
+                if (children == null) {
+                    throw new IllegalArgumentException(task.getName() + " depends on unknown startup task：" + dependency);
+                }
+                children.add(task);
+            }
+        }
+        checkCycle();
+
+        mAwaitLatch = new CountDownLatch(awaitCount);
+        mRemainingCount = new AtomicInteger(mTasks.size());
+        mExecutor = new ThreadPoolExecutor(THREAD_COUNT, THREAD_COUNT,
+                5L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "Startup");
+                    thread.setPriority(Thread.NORM_PRIORITY);
+                    return thread;
+                });
+        mExecutor.allowCoreThreadTimeOut(true);
+
+        for (StartupTask task : mTasks.values()) {
+            if (task.getDependencies().isEmpty()) {
+                dispatch(task);
+            }
+        }
+
+        // 主线程在等待的同时执行轮到它的任务
+        while (mAwaitLatch.getCount() > 0) {
+            try {
+                StartupTask task = mMainQueue.poll(5, TimeUnit.MILLISECONDS);
+                if (task != null) {
+                    execute(task);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        Timber.i("StartupManager await finished in %d ms", SystemClock.uptimeMillis() - mStartTime);
+        // 剩下的主线程任务不再阻塞启动，放到消息队列中执行
+        drainMainQueueLater();
+    }
+
+    private void dispatch(StartupTask task) {
+        if (!task.isMainThread()) {
+            mExecutor.execute(() -> execute(task));
+            return;
+        }
+        mMainQueue.add(task);
+        if (mAwaitLatch.getCount() == 0) {
+            drainMainQueueLater();
+        }
+    }
+
+    private void drainMainQueueLater() {
+        mHandler.post(() -> {
+            StartupTask task;
+            while ((task = mMainQueue.poll()) != null) {
+                execute(task);
+            }
+        });
+    }
+
+    private void execute(StartupTask task) {
+        long wallTime = SystemClock.uptimeMillis();
+        long cpuTime = SystemClock.currentThreadTimeMillis();
+        StartupTracer.getInstance().beginSection(task.getName());
+        try {
+            task.getRunnable().run();
+        } catch (Throwable t) {
+            // 单个任务初始化失败不能影响其他任务
+            Timber.e(t, "StartupTask %s failed", task.getName());
+        } finally {
+            StartupTracer.getInstance().endSection(task.getName());
+        }
+        Timber.i("StartupTask %s：wall = %d ms，cpu = %d ms，thread = %s", task.getName(),
+                SystemClock.uptimeMillis() - wallTime, SystemClock.currentThreadTimeMillis() - cpuTime,
+                Thread.currentThread().getName());
+
+        if (task.isAwait()) {
+            mAwaitLatch.countDown();
+        }
+        for (StartupTask child : mChildren.get(task.getName())) {
+            if (mPendingCounts.get(child.getName()).decrementAndGet() == 0) {
+                dispatch(child);
+            }
+        }
+        if (mRemainingCount.decrementAndGet() == 0) {
+            Timber.i("StartupManager all tasks finished in %d ms", SystemClock.uptimeMillis() - mStartTime);
+            mExecutor.shutdown();
+        }
+    }
+
+    /**
+     * 检查是否有循环依赖
+     */
+    private void checkCycle() {
+        Map<String, Integer> inDegrees = new LinkedHashMap<>();
+        ArrayDeque<String> queue = new ArrayDeque<>();
+        for (StartupTask task : mTasks.values()) {
+            inDegrees.put(task.getName(), task.getDependencies().size());
+            if (task.getDependencies().isEmpty()) {
+                queue.add(task.getName());
+            }
+        }
+        int visitedCount = 0;
+        while (!queue.isEmpty()) {
+            String name = queue.poll();
+            visitedCount++;
+            for (StartupTask child : mChildren.get(name)) {
+                int inDegree = inDegrees.get(child.getName()) - 1;
+                inDegrees.put(child.getName(), inDegree);
+                if (inDegree == 0) {
+                    queue.add(child.getName());
+                }
+            }
+        }
+        if (visitedCount != mTasks.size()) {
+            throw new IllegalArgumentException("startup tasks have circular dependencies");
+        }
+    }
+
+    /**
+     * 启动任务
+     */
+    public static final class StartupTask {
+
+        private final String mName;
+        private final Runnable mRunnable;
+        private List<String> mDependencies = new ArrayList<>();
+        /** 是否需要在主线程中执行 */
+        private boolean mMainThread;
+        /** 是否需要在第一个界面创建之前完成 */
+        private boolean mAwait;
+
+        public StartupTask(@NonNull String name, @NonNull Runnable runnable) {
+            mName = name;
+            mRunnable = runnable;
+        }
+
+        /**
+         * 设置依赖的任务，依赖的任务全部完成之后才会执行
+         */
+        public StartupTask setDependencies(String... names) {
+            mDependencies = Arrays.asList(names);
+            return this;
+        }
+
+        /**
+         * 设置是否需要在主线程中执行（默认在子线程中执行）
+         */
+        public StartupTask setMainThread(boolean mainThread) {
+            mMainThread = mainThread;
+            return this;
+        }
+
+        /**
+         * 设置是否需要在第一个界面创建之前完成（默认不需要）
+         */
+        public StartupTask setAwait(boolean await) {
+            mAwait = await;
+            return this;
+        }
+
+        public String getName() {
+            return mName;
+        }
+
+        public Runnable getRunnable() {
+            return mRunnable;
+        }
+
+        public List<String> getDependencies() {
+            return mDependencies;
+        }
+
+        public boolean isMainThread() {
+            return mMainThread;
+        }
+
+        public boolean isAwait() {
+            return mAwait;
+        }
+    }
+}
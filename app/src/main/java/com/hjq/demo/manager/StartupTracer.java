@@ -0,0 +1,390 @@
+package com.hjq.demo.manager;
+
+import android.os.Build;
+import android.os.Process;
+import android.os.SystemClock;
+import android.os.Trace;
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.hjq.demo.other.AppConfig;
+import com.hjq.demo.other.BinaryCodec;
+import com.hjq.demo.other.MmkvUtil;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import timber.log.Timber;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : 冷启动分阶段耗时统计（记录每个阶段距离进程启动的时间，同时输出到 systrace 和本地的启动记录中）
+ */
+public final class StartupTracer {
+
+    /** attachBaseContext */
+    public static final String PHASE_ATTACH_BASE_CONTEXT = "attachBaseContext";
+    /** Application onCreate 执行完成 */
+    public static final String PHASE_APPLICATION_CREATED = "applicationCreated";
+    /** 闪屏页创建 */
+    public static final String PHASE_SPLASH_CREATED = "splashCreated";
+    /** 第一个 BrowserView 创建 */
+    public static final String PHASE_BROWSER_VIEW_CREATED = "browserViewCreated";
+    /** 第一个网页开始加载 */
+    public static final String PHASE_PAGE_STARTED = "pageStarted";
+    /** 第一个网页加载完成 */
+    public static final String PHASE_PAGE_FINISHED = "pageFinished";
+    /** 初始化任务的前缀，后面拼接任务名称 */
+    public static final String PHASE_INIT_PREFIX = "init:";
+
+    /** 保存启动记录的 key（二进制格式） */
+    private static final String KEY_RECORDS = "key_startup_records_v2";
+    /** 旧版本保存启动记录的 key（JSON 格式） */
+    private static final String KEY_RECORDS_JSON = "key_startup_records";
+    /** 最多保存的启动记录数量 */
+    private static final int MAX_RECORD_COUNT = 30;
+    /** systrace 中整个冷启动的异步区间名称 */
+    private static final String TRACE_COLD_START = "ColdStart";
+
+    private static volatile StartupTracer sInstance;
+
+    static {
+        BinaryCodec.register(RecordList.class, new RecordListCodec());
+    }
+
+    /** 进程启动的时间（SystemClock.uptimeMillis） */
+    private final long mProcessStartTime;
+    /** 阶段名称 -> 距离进程启动的时间 */
+    private final LinkedHashMap<String, Long> mPhases = new LinkedHashMap<>();
+    /** 是否已经结束统计 */
+    private boolean mFinished;
+
+    private StartupTracer() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+            mProcessStartTime = Process.getStartUptimeMillis();
+        } else {
+            // 低版本拿不到进程启动时间，用第一次调用的时间代替（也就是 attachBaseContext）
+            mProcessStartTime = SystemClock.uptimeMillis();
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            Trace.beginAsyncSection(TRACE_COLD_START, 0);
+        }
+    }
+
+    public static StartupTracer getInstance() {
+        if(sInstance == null) {
+            synchronized (StartupTracer.class) {
+                if(sInstance == null) {
+                    sInstance = new StartupTracer();
+                }
+            }
+        }
+        return sInstance;
+    }
+
+    /**
+     * 记录某个阶段到达的时间（同一个阶段只记录第一次）
+     */
+    public void mark(String phase) {
+        synchronized (mPhases) {
+            if (mFinished || mPhases.containsKey(phase)) {
+                return;
+            }
+            mPhases.put(phase, SystemClock.uptimeMillis() - mProcessStartTime);
+        }
+        // 在 systrace 中打一个点，方便和其他线程的区间对齐
+        Trace.beginSection("Startup#" + phase);
+        Trace.endSection();
+    }
+
+    /**
+     * 开始一个 systrace 区间（必须和 {@link #endSection(String)} 在同一个线程成对调用）
+     */
+    public void beginSection(String name) {
+        Trace.beginSection(name);
+    }
+
+    /**
+     * 结束一个 systrace 区间，同时记录这个区间结束的时间
+     */
+    public void endSection(String name) {
+        Trace.endSection();
+        mark(PHASE_INIT_PREFIX + name);
+    }
+
+    /**
+     * 第一个网页加载完成，结束本次统计并保存启动记录
+     */
+    public void finish() {
+        mark(PHASE_PAGE_FINISHED);
+        Record record;
+        synchronized (mPhases) {
+            if (mFinished) {
+                return;
+            }
+            mFinished = true;
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+                Trace.endAsyncSection(TRACE_COLD_START, 0);
+            }
+            // 不是从闪屏页启动的（例如进程被推送拉起之后才打开界面），这次的数据没有参考价值
+            if (!mPhases.containsKey(PHASE_SPLASH_CREATED)) {
+                return;
+            }
+            record = new Record(System.currentTimeMillis(), AppConfig.getVersionName(), new LinkedHashMap<>(mPhases));
+        }
+        ThreadPoolManager.getInstance().io().execute(() -> {
+            List<Record> records = saveRecord(record);
+            dump(records);
+        });
+    }
+
+    /**
+     * 获取本次启动已经记录的阶段
+     */
+    public Map<String, Long> getPhases() {
+        synchronized (mPhases) {
+            return new LinkedHashMap<>(mPhases);
+        }
+    }
+
+    /**
+     * 获取最近几次启动的记录
+     */
+    @NonNull
+    public List<Record> getRecords() {
+        RecordList recordList = MmkvUtil.getObject(KEY_RECORDS, RecordList.class);
+        if (recordList != null) {
+            return recordList.mRecords;
+        }
+        // 还没有保存过二进制格式的记录，读取旧版本的 JSON 记录，下次保存的时候会一起转换成二进制格式
+        return parseJsonRecords(SettingsStore.getInstance().getString(KEY_RECORDS_JSON, null));
+    }
+
+    /**
+     * 计算最近几次启动中某个阶段的百分位耗时
+     *
+     * @param percent           百分位（0 ~ 100）
+     * @return                  没有记录返回 -1
+     */
+    public long getPercentile(String phase, int percent) {
+        return percentile(getPhaseValues(getRecords(), phase), percent);
+    }
+
+    /**
+     * 打印最近几次启动每个阶段的耗时分布
+     */
+    public void dump() {
+        dump(getRecords());
+    }
+
+    private void dump(List<Record> records) {
+        for (String phase : getPhases().keySet()) {
+            List<Long> values = getPhaseValues(records, phase);
+            Timber.i("StartupTracer %s：p50 = %d ms，p90 = %d ms，p99 = %d ms，count = %d", phase,
+                    percentile(values, 50), percentile(values, 90), percentile(values, 99), values.size());
+        }
+    }
+
+    private synchronized List<Record> saveRecord(Record record) {
+        List<Record> records = getRecords();
+        records.add(record);
+        // 只保留最近的几次记录
+        List<Record> result = new ArrayList<>(records.subList(Math.max(0, records.size() - MAX_RECORD_COUNT), records.size()));
+        MmkvUtil.saveObject(KEY_RECORDS, new RecordList(result));
+        // 旧版本的 JSON 记录已经转换成二进制格式保存了
+        SettingsStore.getInstance().remove(KEY_RECORDS_JSON);
+        return result;
+    }
+
+    /**
+     * 解析旧版本保存的 JSON 格式启动记录（格式不正确的记录会被忽略）
+     */
+    @NonNull
+    static List<Record> parseJsonRecords(@Nullable String json) {
+        List<Record> records = new ArrayList<>();
+        if (TextUtils.isEmpty(json)) {
+            return records;
+        }
+        JSONArray array;
+        try {
+            array = new JSONArray(json);
+        } catch (JSONException e) {
+            return records;
+        }
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject record = array.optJSONObject(i);
+            JSONObject phases = record != null ? record.optJSONObject("phases") : null;
+            if (phases == null) {
+                continue;
+            }
+            LinkedHashMap<String, Long> values = new LinkedHashMap<>();
+            Iterator<String> keys = phases.keys();
+            while (keys.hasNext()) {
+                String key = keys.next();
+                values.put(key, phases.optLong(key));
+            }
+            records.add(new Record(record.optLong("time"), record.optString("versionName", null), values));
+        }
+        return records;
+    }
+
+    private static List<Long> getPhaseValues(List<Record> records, String phase) {
+        List<Long> values = new ArrayList<>();
+        for (Record record : records) {
+            Long value = record.getPhases().get(phase);
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    private static long percentile(List<Long> values, int percent) {
+        if (values.isEmpty()) {
+            return -1;
+        }
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        // nearest-rank 算法
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.size());
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, rank - 1)));
+    }
+
+    /**
+     * 一次冷启动的记录
+     */
+    public static final class Record {
+
+        /** 启动的时间 */
+        private final long mTime;
+        /** 应用版本名 */
+        private final String mVersionName;
+        /** 阶段名称 -> 距离进程启动的时间 */
+        private final LinkedHashMap<String, Long> mPhases;
+
+        Record(long time, String versionName, LinkedHashMap<String, Long> phases) {
+            mTime = time;
+            mVersionName = versionName;
+            mPhases = phases;
+        }
+
+        public long getTime() {
+            return mTime;
+        }
+
+        public String getVersionName() {
+            return mVersionName;
+        }
+
+        public Map<String, Long> getPhases() {
+            return mPhases;
+        }
+    }
+
+    /**
+     * 保存到 MMKV 中的启动记录列表
+     */
+    static final class RecordList {
+
+        final List<Record> mRecords;
+
+        RecordList(List<Record> records) {
+            mRecords = records;
+        }
+    }
+
+    /**
+     * 启动记录列表的编解码器（阶段名称在每条记录中都会出现，放在字符串表中只保存一份）
+     */
+    private static final class RecordListCodec implements BinaryCodec.Codec<RecordList> {
+
+        private static final int TAG_RECORD = 1;
+
+        private final RecordCodec mRecordCodec = new RecordCodec();
+
+        @Override
+        public void encode(@NonNull BinaryCodec.Writer writer, @NonNull RecordList value) {
+            writer.writeList(TAG_RECORD, mRecordCodec, value.mRecords);
+        }
+
+        @NonNull
+        @Override
+        public RecordList decode(@NonNull BinaryCodec.Reader reader) {
+            List<Record> records = new ArrayList<>();
+            int tag;
+            while ((tag = reader.nextField()) != -1) {
+                if (tag == TAG_RECORD) {
+                    records.add(reader.readObject(mRecordCodec));
+                } else {
+                    reader.skip();
+                }
+            }
+            return new RecordList(records);
+        }
+    }
+
+    private static final class RecordCodec implements BinaryCodec.Codec<Record> {
+
+        private static final int TAG_TIME = 1;
+        private static final int TAG_VERSION_NAME = 2;
+        /** 阶段名称和耗时交替出现 */
+        private static final int TAG_PHASE_NAME = 3;
+        private static final int TAG_PHASE_VALUE = 4;
+
+        @Override
+        public void encode(@NonNull BinaryCodec.Writer writer, @NonNull Record value) {
+            writer.writeLong(TAG_TIME, value.mTime);
+            writer.writeString(TAG_VERSION_NAME, value.mVersionName);
+            for (Map.Entry<String, Long> entry : value.mPhases.entrySet()) {
+                writer.writeString(TAG_PHASE_NAME, entry.getKey());
+                writer.writeLong(TAG_PHASE_VALUE, entry.getValue());
+            }
+        }
+
+        @NonNull
+        @Override
+        public Record decode(@NonNull BinaryCodec.Reader reader) {
+            long time = 0;
+            String versionName = null;
+            LinkedHashMap<String, Long> phases = new LinkedHashMap<>();
+            String phaseName = null;
+            int tag;
+            while ((tag = reader.nextField()) != -1) {
+                switch (tag) {
+                    case TAG_TIME:
+                        time = reader.readLong();
+                        break;
+                    case TAG_VERSION_NAME:
+                        versionName = reader.readString();
+                        break;
+                    case TAG_PHASE_NAME:
+                        phaseName = reader.readString();
+                        break;
+                    case TAG_PHASE_VALUE:
+                        long phaseValue = reader.readLong();
+                        if (phaseName != null) {
+                            phases.put(phaseName, phaseValue);
+                            phaseName = null;
+                        }
+                        break;
+                    default:
+                        reader.skip();
+                        break;
+                }
+            }
+            return new Record(time, versionName, phases);
+        }
+    }
+}
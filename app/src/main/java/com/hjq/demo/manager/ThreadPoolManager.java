@@ -1,29 +1,71 @@
 package com.hjq.demo.manager;
 
-import com.hjq.base.action.HandlerAction;
+import android.os.Looper;
+import android.os.Process;
 
-import java.util.concurrent.SynchronousQueue;
+import androidx.annotation.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import timber.log.Timber;
 
 /**
  *    author : Android 轮子哥
  *    github : https://github.com/getActivity/AndroidProject
  *    time   : 2020/01/11
- *    desc   : 线程池管理类
+ *    desc   : 线程池管理类（分为 IO、CPU、后台三个线程池，直接调用 execute 的任务会放到 IO 线程池中执行）
  */
-public final class ThreadPoolManager extends ThreadPoolExecutor {
+public final class ThreadPoolManager implements Executor {
+
+    private static final int CPU_COUNT = Runtime.getRuntime().availableProcessors();
+
+    /** IO 线程池的线程数量（读写文件、查询数据库、网络请求，大部分时间在等待，所以线程可以多一些） */
+    private static final int IO_THREAD_COUNT = Math.max(4, Math.min(CPU_COUNT * 2, 8));
+    /** CPU 线程池的线程数量（解码、压缩、解析，线程数量超过核心数也不会更快） */
+    private static final int CPU_THREAD_COUNT = Math.max(2, CPU_COUNT);
+    /** 后台线程池的线程数量（清理缓存、保存统计数据等不着急的任务） */
+    private static final int BACKGROUND_THREAD_COUNT = 2;
+
+    /** 每个线程池最多排队的任务数量 */
+    private static final int IO_QUEUE_CAPACITY = 128;
+    private static final int CPU_QUEUE_CAPACITY = 64;
+    private static final int BACKGROUND_QUEUE_CAPACITY = 64;
+
+    /** 空闲线程的存活时间 */
+    private static final long KEEP_ALIVE_SECONDS = 30L;
 
     private static volatile ThreadPoolManager sInstance;
 
-    public ThreadPoolManager() {
-        // 这里最大线程数为什么不是 Int 最大值？因为在华为荣耀机子上面有最大线程数限制
-        // 经过测试华为荣耀手机不能超过 300 个线程，否则会出现内存溢出
-        // java.lang.OutOfMemoryError：pthread_create (1040KB stack) failed: Out of memory
-        // 由于应用自身占用了一些线程数，故减去 300 - 100 = 200 个
-        super(0, 200,
-                30L, TimeUnit.MILLISECONDS,
-                new SynchronousQueue<>());
+    private final ThreadPoolExecutor mIoExecutor;
+    private final ThreadPoolExecutor mCpuExecutor;
+    private final ThreadPoolExecutor mBackgroundExecutor;
+    /** 在 IO 线程池上面合并重复的任务 */
+    private final SingleFlightExecutor mSingleFlightExecutor;
+
+    private ThreadPoolManager() {
+        // 以前是一个 0 个核心线程、最多 200 个线程、任务不排队的线程池，一有突发任务就会创建一批线程，执行完又马上销毁
+        // 现在每个线程池的线程数量都是固定的，多出来的任务先排队，排队也满了再按照各自的拒绝策略处理
+        mIoExecutor = newExecutor("IO", IO_THREAD_COUNT, IO_QUEUE_CAPACITY,
+                Process.THREAD_PRIORITY_BACKGROUND + Process.THREAD_PRIORITY_MORE_FAVORABLE,
+                new CallerRunsPolicy("IO", Process.THREAD_PRIORITY_BACKGROUND + Process.THREAD_PRIORITY_MORE_FAVORABLE));
+        mCpuExecutor = newExecutor("CPU", CPU_THREAD_COUNT, CPU_QUEUE_CAPACITY,
+                Process.THREAD_PRIORITY_DEFAULT + Process.THREAD_PRIORITY_LESS_FAVORABLE,
+                new CallerRunsPolicy("CPU", Process.THREAD_PRIORITY_DEFAULT + Process.THREAD_PRIORITY_LESS_FAVORABLE));
+        // 后台任务不重要，排不上队的时候丢掉最早的任务
+        mBackgroundExecutor = newExecutor("Background", BACKGROUND_THREAD_COUNT, BACKGROUND_QUEUE_CAPACITY,
+                Process.THREAD_PRIORITY_LOWEST, new DiscardOldestPolicy("Background"));
+        mSingleFlightExecutor = new SingleFlightExecutor(mIoExecutor);
     }
 
     public static ThreadPoolManager getInstance() {
@@ -36,4 +78,355 @@ public final class ThreadPoolManager extends ThreadPoolExecutor {
         }
         return sInstance;
     }
-}
\ No newline at end of file
+
+    /**
+     * IO 线程池（读写文件、查询 MediaStore、网络请求）
+     */
+    public ThreadPoolExecutor io() {
+        return mIoExecutor;
+    }
+
+    /**
+     * CPU 线程池（图片解码和压缩、数据解析等计算密集型任务）
+     */
+    public ThreadPoolExecutor cpu() {
+        return mCpuExecutor;
+    }
+
+    /**
+     * 后台线程池（预加载、统计等优先级最低并且可以丢弃的任务，排队满了会取消最早的任务，必须执行的任务不要放到这里）
+     */
+    public ThreadPoolExecutor background() {
+        return mBackgroundExecutor;
+    }
+
+    /**
+     * 合并重复任务的 IO 线程池（同一个 key 同时只会有一个任务在执行）
+     */
+    public SingleFlightExecutor singleFlight() {
+        return mSingleFlightExecutor;
+    }
+
+    /**
+     * 在 IO 线程池中执行任务（兼容以前的调用方式）
+     */
+    @Override
+    public void execute(@NonNull Runnable runnable) {
+        mIoExecutor.execute(runnable);
+    }
+
+    /**
+     * 在 IO 线程池中执行任务（兼容以前的调用方式）
+     */
+    public Future<?> submit(@NonNull Runnable runnable) {
+        return mIoExecutor.submit(runnable);
+    }
+
+    private static ThreadPoolExecutor newExecutor(String name, int threadCount, int queueCapacity,
+                                                  int priority, RejectedExecutionHandler handler) {
+        ThreadPoolExecutor executor = new MonitoredThreadPoolExecutor(name, threadCount,
+                new LinkedBlockingQueue<>(queueCapacity), new PriorityThreadFactory(name, priority), handler);
+        // 空闲的时候不保留线程
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 统计每个任务的排队和执行耗时（统计数据见 {@link ExecutorMonitor}）
+     */
+    private static final class MonitoredThreadPoolExecutor extends ThreadPoolExecutor {
+
+        private final String mName;
+
+        private MonitoredThreadPoolExecutor(String name, int threadCount, LinkedBlockingQueue<Runnable> queue,
+                                            ThreadFactory threadFactory, RejectedExecutionHandler handler) {
+            super(threadCount, threadCount, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, queue, threadFactory, handler);
+            mName = name;
+        }
+
+        @Override
+        public void execute(@NonNull Runnable runnable) {
+            // submit 方法最终也会走到这里
+            super.execute(ExecutorMonitor.getInstance().wrap(mName, this, runnable));
+        }
+    }
+
+    /**
+     * 给线程设置名称和优先级（使用 Linux 的线程优先级，Thread.setPriority 在 Android 上面的效果有限）
+     */
+    private static final class PriorityThreadFactory implements ThreadFactory {
+
+        private final String mName;
+        private final int mPriority;
+        private final AtomicInteger mCount = new AtomicInteger();
+
+        private PriorityThreadFactory(String name, int priority) {
+            mName = name;
+            mPriority = priority;
+        }
+
+        @Override
+        public Thread newThread(@NonNull Runnable runnable) {
+            return new Thread(() -> {
+                Process.setThreadPriority(mPriority);
+                runnable.run();
+            }, "ThreadPool-" + mName + "-" + mCount.incrementAndGet());
+        }
+    }
+
+    /**
+     * 排队满了在调用的线程中执行（主线程不能执行耗时任务，所以主线程提交的任务放到备用线程中排队，不会抛出异常）
+     */
+    private static final class CallerRunsPolicy implements RejectedExecutionHandler {
+
+        private final String mName;
+        /** 主线程溢出的任务在这里排队（单线程、不限制队列长度，空闲的时候不保留线程） */
+        private final ThreadPoolExecutor mOverflowExecutor;
+
+        private CallerRunsPolicy(String name, int priority) {
+            mName = name;
+            mOverflowExecutor = new ThreadPoolExecutor(1, 1, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), new PriorityThreadFactory(name + "-Overflow", priority));
+            mOverflowExecutor.allowCoreThreadTimeOut(true);
+        }
+
+        @Override
+        public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                return;
+            }
+            ExecutorMonitor.getInstance().onRejected(mName);
+            if (Looper.myLooper() == Looper.getMainLooper()) {
+                Timber.w("ThreadPool-%s is saturated, queue on the overflow thread", mName);
+                mOverflowExecutor.execute(runnable);
+                return;
+            }
+            Timber.w("ThreadPool-%s is saturated, run on %s", mName, Thread.currentThread().getName());
+            runnable.run();
+        }
+    }
+
+    /**
+     * 排队满了丢弃最早的任务（丢弃的任务会被取消，等待结果的调用方和绑定的生命周期都能收到通知）
+     */
+    private static final class DiscardOldestPolicy implements RejectedExecutionHandler {
+
+        private final String mName;
+
+        private DiscardOldestPolicy(String name) {
+            mName = name;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                return;
+            }
+            ExecutorMonitor.getInstance().onRejected(mName);
+            Timber.w("ThreadPool-%s is saturated, discard the oldest task", mName);
+            Runnable discarded = ExecutorMonitor.unwrap(executor.getQueue().poll());
+            if (discarded instanceof Future) {
+                ((Future<?>) discarded).cancel(false);
+            }
+            executor.execute(runnable);
+        }
+    }
+
+    /**
+     * 限制同时执行的任务数量（在共享的线程池上面再加一层限制，例如图片压缩比较耗费内存，不能占满 CPU 线程池）
+     */
+    public static final class LimitedExecutor implements Executor {
+
+        private final Executor mExecutor;
+        private final int mMaxConcurrency;
+        private final int mQueueCapacity;
+
+        /** 还没有开始执行的任务 */
+        private final ArrayDeque<Runnable> mTasks = new ArrayDeque<>();
+        /** 正在执行的任务数量 */
+        private int mActiveCount;
+
+        /**
+         * @param executor              实际执行任务的线程池
+         * @param maxConcurrency        最多同时执行的任务数量
+         * @param queueCapacity         最多排队的任务数量，超过会抛出 {@link RejectedExecutionException}
+         */
+        public LimitedExecutor(Executor executor, int maxConcurrency, int queueCapacity) {
+            mExecutor = executor;
+            mMaxConcurrency = maxConcurrency;
+            mQueueCapacity = queueCapacity;
+        }
+
+        @Override
+        public void execute(@NonNull Runnable runnable) {
+            synchronized (this) {
+                if (mTasks.size() >= mQueueCapacity) {
+                    throw new RejectedExecutionException("LimitedExecutor is saturated");
+                }
+                mTasks.offer(runnable);
+            }
+            scheduleNext();
+        }
+
+        /**
+         * 提交一个可以取消的任务
+         */
+        public Future<?> submit(@NonNull Runnable runnable) {
+            FutureTask<Void> task = new FutureTask<>(runnable, null);
+            execute(task);
+            return task;
+        }
+
+        /**
+         * 提交排队的任务（不能持有锁，线程池满了的时候任务可能会在当前线程中直接执行）
+         */
+        private void scheduleNext() {
+            while (true) {
+                Runnable runnable;
+                synchronized (this) {
+                    if (mActiveCount >= mMaxConcurrency || mTasks.isEmpty()) {
+                        return;
+                    }
+                    runnable = mTasks.poll();
+                    mActiveCount++;
+                }
+                try {
+                    mExecutor.execute(() -> {
+                        try {
+                            runnable.run();
+                        } finally {
+                            onTaskFinished();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    synchronized (this) {
+                        mActiveCount--;
+                        if (mActiveCount == 0) {
+                            // 没有正在执行的任务，也就不会有机会再重试了
+                            mTasks.clear();
+                            throw e;
+                        }
+                        // 放回队列，等前面的任务执行完成再重试
+                        mTasks.offerFirst(runnable);
+                    }
+                    return;
+                }
+            }
+        }
+
+        private void onTaskFinished() {
+            synchronized (this) {
+                mActiveCount--;
+            }
+            scheduleNext();
+        }
+    }
+
+    /**
+     * 合并重复的任务（同一个 key 的任务正在执行的时候又提交了新的任务，不会再开一个线程同时执行，
+     * 而是标记一下，等当前的任务执行完成之后再执行一次；排队期间提交多次也只会执行最后一次）
+     */
+    public static final class SingleFlightExecutor {
+
+        private final Executor mExecutor;
+
+        /** key -> 正在执行的任务 */
+        private final HashMap<Object, Flight> mFlights = new HashMap<>();
+
+        public SingleFlightExecutor(Executor executor) {
+            mExecutor = executor;
+        }
+
+        /**
+         * 获取某个 key 的执行器
+         */
+        public Executor forKey(@NonNull Object key) {
+            return runnable -> execute(key, runnable);
+        }
+
+        /**
+         * 执行任务，同一个 key 的任务正在执行或者排队的话只会记录下来，等当前的任务执行完成之后再执行
+         */
+        public void execute(@NonNull Object key, @NonNull Runnable runnable) {
+            Flight newFlight = null;
+            Runnable replaced = null;
+            synchronized (mFlights) {
+                Flight flight = mFlights.get(key);
+                if (flight == null) {
+                    newFlight = new Flight(key, runnable);
+                    mFlights.put(key, newFlight);
+                } else {
+                    // 被合并掉的任务不会再执行
+                    replaced = flight.mPending;
+                    flight.mPending = runnable;
+                }
+            }
+            if (replaced instanceof Future) {
+                ((Future<?>) replaced).cancel(false);
+            }
+            if (newFlight == null) {
+                return;
+            }
+            // 不能持有锁提交，线程池满了的时候任务可能会在当前线程中直接执行
+            try {
+                mExecutor.execute(newFlight);
+            } catch (RejectedExecutionException e) {
+                Runnable pending;
+                synchronized (mFlights) {
+                    if (mFlights.get(key) == newFlight) {
+                        mFlights.remove(key);
+                    }
+                    pending = newFlight.mPending;
+                    newFlight.mPending = null;
+                }
+                // 提交失败期间合并进来的任务也不会再执行了
+                if (pending != runnable && pending instanceof Future) {
+                    ((Future<?>) pending).cancel(false);
+                }
+                throw e;
+            }
+        }
+
+        /**
+         * 某个 key 的任务是否正在执行或者排队
+         */
+        public boolean isRunning(@NonNull Object key) {
+            synchronized (mFlights) {
+                return mFlights.containsKey(key);
+            }
+        }
+
+        private final class Flight implements Runnable {
+
+            private final Object mKey;
+            /** 等待执行的任务，不为空表示需要再执行一次 */
+            private Runnable mPending;
+
+            private Flight(Object key, Runnable pending) {
+                mKey = key;
+                mPending = pending;
+            }
+
+            @Override
+            public void run() {
+                while (true) {
+                    Runnable runnable;
+                    synchronized (mFlights) {
+                        runnable = mPending;
+                        mPending = null;
+                        if (runnable == null) {
+                            mFlights.remove(mKey);
+                            return;
+                        }
+                    }
+                    try {
+                        runnable.run();
+                    } catch (RuntimeException e) {
+                        // 不能影响后面合并进来的任务
+                        Timber.e(e, "SingleFlightExecutor task failed：%s", mKey);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.hjq.demo.manager;
+
+import android.net.Uri;
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+
+import timber.log.Timber;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : 网页链接路由表（按照 scheme -> host -> 路径前缀 -> 参数名 编译成哈希表 + 路径前缀树，查找耗时只和链接长度有关）
+ *
+ *    远程配置：MMKV 中 {@link #KEY_ROUTES} 的值，格式为
+ *    [{"scheme":"https","host":"*.example.com","path":"/scan","query":"doScan","handler":"camera"}]
+ *    除了 scheme 和 handler 之外的字段都可以省略，省略表示匹配任意值
+ */
+public final class UrlRouteManager {
+
+    /** 拍照 */
+    public static final String HANDLER_CAMERA = "camera";
+    /** 拨号 */
+    public static final String HANDLER_DIALER = "dialer";
+    /** 交给外部应用打开 */
+    public static final String HANDLER_EXTERNAL = "external";
+
+    /** 保存在 MMKV 中的路由配置 */
+    public static final String KEY_ROUTES = "key_url_routes";
+
+    /** 匹配任意 host */
+    private static final String ANY_HOST = "*";
+
+    private static volatile UrlRouteManager sInstance;
+
+    /** 编译好的路由表：scheme -> host -> 路径前缀树 */
+    private volatile HashMap<String, HashMap<String, PathNode>> mTable = new HashMap<>();
+
+    private UrlRouteManager() {
+        compile(Collections.emptyList());
+    }
+
+    public static UrlRouteManager getInstance() {
+        if(sInstance == null) {
+            synchronized (UrlRouteManager.class) {
+                if(sInstance == null) {
+                    sInstance = new UrlRouteManager();
+                }
+            }
+        }
+        return sInstance;
+    }
+
+    /**
+     * 从 MMKV 中读取路由配置并重新编译（需要在 MMKV 初始化之后调用）
+     */
+    public void reload() {
+        load(SettingsStore.getInstance().getString(KEY_ROUTES, null));
+    }
+
+    /**
+     * 保存新的路由配置并立即生效（不需要发版就可以增加原生拦截）
+     */
+    public void setRoutes(String json) {
+        SettingsStore.getInstance().putString(KEY_ROUTES, json);
+        load(json);
+    }
+
+    /**
+     * 解析路由配置并重新编译（不会保存配置）
+     */
+    void load(@Nullable String json) {
+        compile(parse(json));
+    }
+
+    /**
+     * 查找链接对应的处理器
+     *
+     * @return          没有匹配的路由则返回 null
+     */
+    @Nullable
+    public String match(@NonNull Uri uri) {
+        String scheme = uri.getScheme();
+        if (scheme == null) {
+            return null;
+        }
+        HashMap<String, PathNode> hosts = mTable.get(scheme.toLowerCase(Locale.ROOT));
+        if (hosts == null) {
+            return null;
+        }
+
+        String host = uri.getHost();
+        if (host != null) {
+            host = host.toLowerCase(Locale.ROOT);
+            // 先精确匹配，再从左往右逐级匹配通配符：a.b.com -> *.b.com -> *.com
+            String handler = match(hosts.get(host), uri);
+            if (handler != null) {
+                return handler;
+            }
+            int index = host.indexOf('.');
+            while (index != -1) {
+                handler = match(hosts.get("*" + host.substring(index)), uri);
+                if (handler != null) {
+                    return handler;
+                }
+                index = host.indexOf('.', index + 1);
+            }
+        }
+        return match(hosts.get(ANY_HOST), uri);
+    }
+
+    @Nullable
+    private static String match(@Nullable PathNode root, Uri uri) {
+        if (root == null) {
+            return null;
+        }
+        // 沿着路径往下走，记录经过的每一个节点，最后从最长的前缀开始匹配
+        ArrayList<PathNode> nodes = new ArrayList<>();
+        nodes.add(root);
+        PathNode node = root;
+        for (String segment : uri.getPathSegments()) {
+            node = node.children == null ? null : node.children.get(segment);
+            if (node == null) {
+                break;
+            }
+            nodes.add(node);
+        }
+        for (int i = nodes.size() - 1; i >= 0; i--) {
+            List<Route> routes = nodes.get(i).routes;
+            if (routes == null) {
+                continue;
+            }
+            for (Route route : routes) {
+                if (route.query == null) {
+                    return route.handler;
+                }
+                // tel: 这种不分层的链接不能读取参数
+                if (uri.isHierarchical() && uri.getQueryParameter(route.query) != null) {
+                    return route.handler;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 编译路由表（内置路由优先级最低，远程配置可以覆盖）
+     */
+    private void compile(List<Route> routes) {
+        List<Route> allRoutes = new ArrayList<>(routes);
+        allRoutes.add(new Route("tel", null, null, null, HANDLER_DIALER));
+        allRoutes.add(new Route("http", null, null, "doScan", HANDLER_CAMERA));
+        allRoutes.add(new Route("https", null, null, "doScan", HANDLER_CAMERA));
+
+        HashMap<String, HashMap<String, PathNode>> table = new HashMap<>();
+        for (Route route : allRoutes) {
+            HashMap<String, PathNode> hosts = table.get(route.scheme);
+            if (hosts == null) {
+                hosts = new HashMap<>();
+                table.put(route.scheme, hosts);
+            }
+            String host = route.host == null ? ANY_HOST : route.host;
+            PathNode node = hosts.get(host);
+            if (node == null) {
+                node = new PathNode();
+                hosts.put(host, node);
+            }
+            if (route.path != null) {
+                for (String segment : Uri.parse(route.path).getPathSegments()) {
+                    if (node.children == null) {
+                        node.children = new HashMap<>();
+                    }
+                    PathNode child = node.children.get(segment);
+                    if (child == null) {
+                        child = new PathNode();
+                        node.children.put(segment, child);
+                    }
+                    node = child;
+                }
+            }
+            if (node.routes == null) {
+                node.routes = new ArrayList<>();
+            }
+            // 带参数条件的路由比不带参数条件的更具体，需要先匹配
+            if (route.query != null) {
+                int index = 0;
+                while (index < node.routes.size() && node.routes.get(index).query != null) {
+                    index++;
+                }
+                node.routes.add(index, route);
+            } else {
+                node.routes.add(route);
+            }
+        }
+        mTable = table;
+        Timber.i("UrlRouteManager compile：%d routes", allRoutes.size());
+    }
+
+    private static List<Route> parse(String json) {
+        List<Route> routes = new ArrayList<>();
+        if (TextUtils.isEmpty(json)) {
+            return routes;
+        }
+        try {
+            JSONArray array = new JSONArray(json);
+            for (int i = 0; i < array.length(); i++) {
+                JSONObject item = array.optJSONObject(i);
+                if (item == null) {
+                    continue;
+                }
+                String scheme = item.optString("scheme");
+                String handler = item.optString("handler");
+                if (TextUtils.isEmpty(scheme) || TextUtils.isEmpty(handler)) {
+                    continue;
+                }
+                routes.add(new Route(scheme.toLowerCase(Locale.ROOT),
+                        optLowerCase(item, "host"), optString(item, "path"),
+                        optString(item, "query"), handler));
+            }
+        } catch (JSONException e) {
+            Timber.w(e, "UrlRouteManager bad routes：%s", json);
+        }
+        return routes;
+    }
+
+    @Nullable
+    private static String optString(JSONObject json, String name) {
+        String value = json.optString(name);
+        return TextUtils.isEmpty(value) ? null : value;
+    }
+
+    @Nullable
+    private static String optLowerCase(JSONObject json, String name) {
+        String value = optString(json, name);
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 单条路由规则
+     */
+    private static final class Route {
+
+        private final String scheme;
+        private final String host;
+        private final String path;
+        private final String query;
+        private final String handler;
+
+        private Route(String scheme, String host, String path, String query, String handler) {
+            this.scheme = scheme;
+            this.host = host;
+            this.path = path;
+            this.query = query;
+            this.handler = handler;
+        }
+    }
+
+    /**
+     * 路径前缀树节点（按照路径分段）
+     */
+    private static final class PathNode {
+
+        private HashMap<String, PathNode> children;
+        private List<Route> routes;
+    }
+}
@@ -0,0 +1,161 @@
+package com.hjq.demo.manager;
+
+import android.net.Uri;
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+import timber.log.Timber;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : 网页图片加载策略（可以按照域名配置图片在什么时候开始加载，让首屏的文字先绘制出来）
+ *
+ *    远程配置：MMKV 中 {@link #KEY_POLICIES} 的值，格式为
+ *    {"default":"immediate","hosts":{"example.com":"afterCommit","news.example.com":"afterFinish"}}
+ *    两个字段都可以省略，不认识的策略会被忽略
+ */
+public final class WebImagePolicyManager {
+
+    /** 图片和网页一起加载 */
+    public static final String POLICY_IMMEDIATE = "immediate";
+    /** 网页首次绘制之后再加载图片（onPageCommitVisible） */
+    public static final String POLICY_AFTER_COMMIT = "afterCommit";
+    /** 网页加载完成之后再加载图片（onPageFinished） */
+    public static final String POLICY_AFTER_FINISH = "afterFinish";
+
+    /** 保存在 MMKV 中的加载策略配置 */
+    public static final String KEY_POLICIES = "key_web_image_policies";
+
+    private static volatile WebImagePolicyManager sInstance;
+
+    /** 域名 -> 加载策略 */
+    private volatile ConcurrentHashMap<String, String> mHostPolicies = new ConcurrentHashMap<>();
+
+    /** 默认的加载策略 */
+    private volatile String mDefaultPolicy = POLICY_IMMEDIATE;
+
+    private WebImagePolicyManager() {}
+
+    public static WebImagePolicyManager getInstance() {
+        if(sInstance == null) {
+            synchronized (WebImagePolicyManager.class) {
+                if(sInstance == null) {
+                    sInstance = new WebImagePolicyManager();
+                }
+            }
+        }
+        return sInstance;
+    }
+
+    /**
+     * 从 MMKV 中读取加载策略配置（需要在 MMKV 初始化之后调用）
+     */
+    public void reload() {
+        apply(SettingsStore.getInstance().getString(KEY_POLICIES, null));
+    }
+
+    /**
+     * 保存新的加载策略配置并立即生效
+     */
+    public void setPolicies(String json) {
+        SettingsStore.getInstance().putString(KEY_POLICIES, json);
+        apply(json);
+    }
+
+    /**
+     * 设置默认的加载策略
+     */
+    public void setDefaultPolicy(@NonNull String policy) {
+        mDefaultPolicy = policy;
+    }
+
+    /**
+     * 设置指定域名的加载策略（包括它的子域名）
+     */
+    public void setPolicy(@NonNull String host, @NonNull String policy) {
+        mHostPolicies.put(host.toLowerCase(Locale.ROOT), policy);
+    }
+
+    public void removePolicy(@NonNull String host) {
+        mHostPolicies.remove(host.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * 获取加载策略在性能统计中的分组，和原来一样立即加载的不单独分组，保持和之前的统计数据连续
+     */
+    @Nullable
+    public static String getVariant(String policy) {
+        return POLICY_IMMEDIATE.equals(policy) ? null : policy;
+    }
+
+    /**
+     * 获取网页的图片加载策略
+     */
+    @NonNull
+    public String getPolicy(String url) {
+        if (url == null || mHostPolicies.isEmpty()) {
+            return mDefaultPolicy;
+        }
+        String host = Uri.parse(url).getHost();
+        if (host == null) {
+            return mDefaultPolicy;
+        }
+        host = host.toLowerCase(Locale.ROOT);
+        // 逐级匹配域名：a.b.example.com -> b.example.com -> example.com
+        int index = 0;
+        while (index != -1) {
+            String policy = mHostPolicies.get(index == 0 ? host : host.substring(index));
+            if (policy != null) {
+                return policy;
+            }
+            int next = host.indexOf('.', index);
+            index = next == -1 ? -1 : next + 1;
+        }
+        return mDefaultPolicy;
+    }
+
+    private void apply(String json) {
+        String defaultPolicy = POLICY_IMMEDIATE;
+        ConcurrentHashMap<String, String> hostPolicies = new ConcurrentHashMap<>();
+        if (!TextUtils.isEmpty(json)) {
+            try {
+                JSONObject config = new JSONObject(json);
+                String policy = config.optString("default");
+                if (isValidPolicy(policy)) {
+                    defaultPolicy = policy;
+                }
+                JSONObject hosts = config.optJSONObject("hosts");
+                if (hosts != null) {
+                    Iterator<String> iterator = hosts.keys();
+                    while (iterator.hasNext()) {
+                        String host = iterator.next();
+                        policy = hosts.optString(host);
+                        if (!TextUtils.isEmpty(host) && isValidPolicy(policy)) {
+                            hostPolicies.put(host.toLowerCase(Locale.ROOT), policy);
+                        }
+                    }
+                }
+            } catch (JSONException e) {
+                Timber.w(e, "WebImagePolicyManager bad policies：%s", json);
+            }
+        }
+        // 整体替换，读取的时候不会看到一半的配置
+        mHostPolicies = hostPolicies;
+        mDefaultPolicy = defaultPolicy;
+    }
+
+    private static boolean isValidPolicy(String policy) {
+        return POLICY_IMMEDIATE.equals(policy) || POLICY_AFTER_COMMIT.equals(policy) || POLICY_AFTER_FINISH.equals(policy);
+    }
+}
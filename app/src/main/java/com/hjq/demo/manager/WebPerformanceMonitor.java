@@ -0,0 +1,319 @@
+package com.hjq.demo.manager;
+
+import android.net.Uri;
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.hjq.demo.ui.adapter.JSBridge;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import timber.log.Timber;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : 网页加载性能统计（按照网页地址统计 TTFB、FCP、DOMContentLoaded、load 以及原生回调的耗时分布）
+ */
+public final class WebPerformanceMonitor {
+
+    /** 首字节耗时 */
+    public static final String METRIC_TTFB = "ttfb";
+    /** 首次内容绘制耗时 */
+    public static final String METRIC_FCP = "fcp";
+    /** DOMContentLoaded 耗时 */
+    public static final String METRIC_DCL = "dcl";
+    /** load 耗时 */
+    public static final String METRIC_LOAD = "load";
+    /** 从 onPageStarted 到 onPageFinished 的耗时 */
+    public static final String METRIC_NATIVE = "native";
+
+    /** 网页中上报数据调用的方法 */
+    public static final String BRIDGE_METHOD = "reportTiming";
+
+    /** 最多统计的网页数量 */
+    private static final int MAX_URL_COUNT = 100;
+
+    /** 直方图的区间上限（毫秒），最后一个区间没有上限 */
+    private static final long[] BUCKET_BOUNDS = {50, 100, 200, 400, 800, 1600, 3200, 6400};
+
+    /**
+     * 在 onPageFinished 的时候注入的脚本，等到 load 事件结束之后通过 JS 桥上报一次
+     */
+    private static final String TIMING_SCRIPT = "(function() {" +
+            "if (window.__timingReported || !window." + JSBridge.NAME + " || !window.performance || !performance.timing) return;" +
+            "window.__timingReported = true;" +
+            "function report() {" +
+                "var t = performance.timing, start = t.navigationStart;" +
+                "if (t.loadEventEnd === 0) { setTimeout(report, 100); return; }" +
+                "var fcp = 0, resources = [], bytes = 0;" +
+                "if (performance.getEntriesByType) {" +
+                    "var paints = performance.getEntriesByType('paint');" +
+                    "for (var i = 0; i < paints.length; i++) { if (paints[i].name === 'first-contentful-paint') fcp = paints[i].startTime; }" +
+                    "resources = performance.getEntriesByType('resource');" +
+                    "for (var j = 0; j < resources.length; j++) { bytes += resources[j].transferSize || 0; }" +
+                "}" +
+                "window." + JSBridge.NAME + ".postMessage(JSON.stringify({method: '" + BRIDGE_METHOD + "', params: {" +
+                    "url: location.href," +
+                    "ttfb: t.responseStart - start," +
+                    "fcp: Math.round(fcp)," +
+                    "dcl: t.domContentLoadedEventEnd - start," +
+                    "load: t.loadEventEnd - start," +
+                    "resourceCount: resources.length," +
+                    "transferSize: bytes" +
+                "}}));" +
+            "}" +
+            "report();" +
+            "})();";
+
+    private static volatile WebPerformanceMonitor sInstance;
+
+    /** 网页地址 -> 统计数据（按照访问顺序淘汰） */
+    private final LinkedHashMap<String, PageStats> mPageStats = new LinkedHashMap<String, PageStats>(16, 0.75f, true) {
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PageStats> eldest) {
+            return size() > MAX_URL_COUNT;
+        }
+    };
+
+    private WebPerformanceMonitor() {}
+
+    public static WebPerformanceMonitor getInstance() {
+        if(sInstance == null) {
+            synchronized (WebPerformanceMonitor.class) {
+                if(sInstance == null) {
+                    sInstance = new WebPerformanceMonitor();
+                }
+            }
+        }
+        return sInstance;
+    }
+
+    /**
+     * 获取需要注入到网页中的统计脚本
+     */
+    public String getTimingScript() {
+        return TIMING_SCRIPT;
+    }
+
+    /**
+     * 记录原生回调的耗时（从 onPageStarted 到 onPageFinished）
+     *
+     * @param variant           加载策略（例如图片加载策略），不同策略的数据分开统计，方便对比效果，可以为空
+     */
+    public void onPageLoaded(String url, @Nullable String variant, long startTime, long finishTime) {
+        if (startTime <= 0 || finishTime < startTime) {
+            return;
+        }
+        String key = getKey(url, variant);
+        if (key == null) {
+            return;
+        }
+        synchronized (mPageStats) {
+            getPageStats(key).record(METRIC_NATIVE, finishTime - startTime);
+        }
+    }
+
+    /**
+     * 处理网页通过 JS 桥上报的数据（在 JS 桥的线程中回调）
+     */
+    public void onTimingReport(@NonNull JSONObject params, @Nullable String variant) {
+        String key = getKey(params.optString("url"), variant);
+        if (key == null) {
+            return;
+        }
+        synchronized (mPageStats) {
+            PageStats stats = getPageStats(key);
+            stats.record(METRIC_TTFB, params.optLong(METRIC_TTFB, -1));
+            stats.record(METRIC_FCP, params.optLong(METRIC_FCP, -1));
+            stats.record(METRIC_DCL, params.optLong(METRIC_DCL, -1));
+            stats.record(METRIC_LOAD, params.optLong(METRIC_LOAD, -1));
+            stats.reportCount++;
+            stats.resourceCount += Math.max(0, params.optLong("resourceCount"));
+            stats.transferSize += Math.max(0, params.optLong("transferSize"));
+        }
+    }
+
+    /**
+     * 清空统计数据
+     */
+    public void clear() {
+        synchronized (mPageStats) {
+            mPageStats.clear();
+        }
+    }
+
+    /**
+     * 导出所有的统计数据
+     */
+    @NonNull
+    public JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        try {
+            JSONArray bounds = new JSONArray();
+            for (long bound : BUCKET_BOUNDS) {
+                bounds.put(bound);
+            }
+            json.put("bucketBounds", bounds);
+            JSONObject pages = new JSONObject();
+            synchronized (mPageStats) {
+                for (Map.Entry<String, PageStats> entry : mPageStats.entrySet()) {
+                    pages.put(entry.getKey(), entry.getValue().toJson());
+                }
+            }
+            json.put("pages", pages);
+        } catch (JSONException e) {
+            // put 方法只有在 key 为空的时候才会抛出
+        }
+        return json;
+    }
+
+    /**
+     * 将统计数据导出到文件中，方便离线分析（需要在子线程调用）
+     */
+    public void exportTo(File file) throws IOException {
+        try (OutputStream outputStream = new FileOutputStream(file)) {
+            outputStream.write(toJson().toString().getBytes(Charset.forName("UTF-8")));
+        }
+    }
+
+    /**
+     * 打印每个网页的统计信息
+     */
+    public void dump() {
+        synchronized (mPageStats) {
+            for (Map.Entry<String, PageStats> entry : mPageStats.entrySet()) {
+                PageStats stats = entry.getValue();
+                Timber.i("WebPerformanceMonitor %s：ttfb = %d ms，fcp = %d ms，dcl = %d ms，load = %d ms，native = %d ms",
+                        entry.getKey(), stats.average(METRIC_TTFB), stats.average(METRIC_FCP),
+                        stats.average(METRIC_DCL), stats.average(METRIC_LOAD), stats.average(METRIC_NATIVE));
+            }
+        }
+    }
+
+    private PageStats getPageStats(String key) {
+        PageStats stats = mPageStats.get(key);
+        if (stats == null) {
+            stats = new PageStats();
+            mPageStats.put(key, stats);
+        }
+        return stats;
+    }
+
+    /**
+     * 去掉参数和锚点之后作为统计的 key，避免同一个网页被拆分成很多条记录
+     */
+    private static String getKey(String url, @Nullable String variant) {
+        if (TextUtils.isEmpty(url) || "about:blank".equals(url)) {
+            return null;
+        }
+        Uri uri = Uri.parse(url);
+        if (uri.getScheme() == null || uri.getHost() == null) {
+            return null;
+        }
+        String path = uri.getPath();
+        String key = uri.getScheme() + "://" + uri.getHost() + (TextUtils.isEmpty(path) ? "/" : path);
+        return variant == null ? key : key + "#" + variant;
+    }
+
+    /**
+     * 单个网页的统计数据
+     */
+    private static final class PageStats {
+
+        /** 指标名称 -> 直方图 */
+        private final LinkedHashMap<String, Histogram> histograms = new LinkedHashMap<>();
+
+        /** 网页上报的次数 */
+        private long reportCount;
+        /** 资源请求的总数 */
+        private long resourceCount;
+        /** 资源传输的总字节数 */
+        private long transferSize;
+
+        void record(String metric, long millis) {
+            // 网页不支持的指标会上报 0 或者负数
+            if (millis <= 0) {
+                return;
+            }
+            Histogram histogram = histograms.get(metric);
+            if (histogram == null) {
+                histogram = new Histogram();
+                histograms.put(metric, histogram);
+            }
+            histogram.record(millis);
+        }
+
+        long average(String metric) {
+            Histogram histogram = histograms.get(metric);
+            return histogram == null ? 0 : histogram.average();
+        }
+
+        JSONObject toJson() throws JSONException {
+            JSONObject json = new JSONObject();
+            for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+                json.put(entry.getKey(), entry.getValue().toJson());
+            }
+            json.put("reportCount", reportCount);
+            json.put("resourceCount", resourceCount);
+            json.put("transferSize", transferSize);
+            return json;
+        }
+    }
+
+    /**
+     * 固定区间的耗时直方图
+     */
+    private static final class Histogram {
+
+        private final long[] buckets = new long[BUCKET_BOUNDS.length + 1];
+        private long count;
+        private long total;
+        private long min = Long.MAX_VALUE;
+        private long max;
+
+        void record(long millis) {
+            int index = 0;
+            while (index < BUCKET_BOUNDS.length && millis > BUCKET_BOUNDS[index]) {
+                index++;
+            }
+            buckets[index]++;
+            count++;
+            total += millis;
+            min = Math.min(min, millis);
+            max = Math.max(max, millis);
+        }
+
+        long average() {
+            return count == 0 ? 0 : total / count;
+        }
+
+        JSONObject toJson() throws JSONException {
+            JSONObject json = new JSONObject();
+            json.put("count", count);
+            json.put("avg", average());
+            json.put("min", count == 0 ? 0 : min);
+            json.put("max", max);
+            JSONArray array = new JSONArray();
+            for (long bucket : buckets) {
+                array.put(bucket);
+            }
+            json.put("buckets", array);
+            return json;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.hjq.demo.manager;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.View;
+
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import timber.log.Timber;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : 网页快照管理（离开网页时保存缩小后的截图，下次启动时先显示截图，等网页绘制出来再切换）
+ */
+public final class WebSnapshotManager {
+
+    /** 快照存放的目录 */
+    private static final String SNAPSHOT_DIR_NAME = "snapshot";
+    /** 快照的缩放比例 */
+    private static final float SNAPSHOT_SCALE = 0.5f;
+    /** 快照的压缩质量 */
+    private static final int SNAPSHOT_QUALITY = 70;
+
+    private static volatile WebSnapshotManager sInstance;
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    /** 已经保存的快照文件名（避免在主线程判断文件是否存在） */
+    private final Set<String> mSnapshotNames = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    /** 快照文件名是否已经读取 */
+    private volatile boolean mIndexLoaded;
+
+    private WebSnapshotManager() {}
+
+    public static WebSnapshotManager getInstance() {
+        if(sInstance == null) {
+            synchronized (WebSnapshotManager.class) {
+                if(sInstance == null) {
+                    sInstance = new WebSnapshotManager();
+                }
+            }
+        }
+        return sInstance;
+    }
+
+    /**
+     * 读取已经保存的快照列表（需要在子线程调用，读取完成之前 {@link #hasSnapshot} 都会返回 false）
+     */
+    public void init(Context context) {
+        File[] files = getSnapshotDir(context).listFiles();
+        if (files != null) {
+            for (File file : files) {
+                mSnapshotNames.add(file.getName());
+            }
+        }
+        mIndexLoaded = true;
+    }
+
+    /**
+     * 保存 View 当前显示的内容（需要在主线程调用，绘制在主线程，压缩和写文件在子线程）
+     */
+    public void capture(View view, String url) {
+        int width = (int) (view.getWidth() * SNAPSHOT_SCALE);
+        int height = (int) (view.getHeight() * SNAPSHOT_SCALE);
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+
+        Bitmap bitmap;
+        try {
+            bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.RGB_565);
+        } catch (OutOfMemoryError e) {
+            return;
+        }
+        Canvas canvas = new Canvas(bitmap);
+        canvas.scale(SNAPSHOT_SCALE, SNAPSHOT_SCALE);
+        // 只截取当前可见的区域
+        canvas.translate(-view.getScrollX(), -view.getScrollY());
+        view.draw(canvas);
+
+        File file = getSnapshotFile(view.getContext(), url);
+        // 压缩成 WebP 是计算密集型的任务
+        ThreadPoolManager.getInstance().cpu().execute(() -> {
+            File dir = file.getParentFile();
+            if (dir != null && !dir.exists()) {
+                dir.mkdirs();
+            }
+            File tempFile = new File(file.getPath() + ".tmp");
+            try (OutputStream outputStream = new FileOutputStream(tempFile)) {
+                bitmap.compress(getCompressFormat(), SNAPSHOT_QUALITY, outputStream);
+            } catch (IOException e) {
+                Timber.w(e, "WebSnapshotManager save failed：%s", url);
+                tempFile.delete();
+                return;
+            } finally {
+                bitmap.recycle();
+            }
+            // 先写临时文件再重命名，避免读取到写了一半的快照
+            if (tempFile.renameTo(file)) {
+                mSnapshotNames.add(file.getName());
+            } else {
+                tempFile.delete();
+            }
+        });
+    }
+
+    /**
+     * 是否有这个网页的快照（只查内存中的记录，可以在主线程调用）
+     */
+    public boolean hasSnapshot(Context context, String url) {
+        return mIndexLoaded && mSnapshotNames.contains(getSnapshotName(url));
+    }
+
+    /**
+     * 读取网页快照（在子线程解码，在主线程回调，没有快照则回调 null）
+     */
+    public void load(Context context, String url, OnSnapshotListener listener) {
+        File file = getSnapshotFile(context, url);
+        ThreadPoolManager.getInstance().io().execute(() -> {
+            Bitmap bitmap = null;
+            if (file.exists()) {
+                try {
+                    bitmap = BitmapFactory.decodeFile(file.getPath());
+                } catch (OutOfMemoryError e) {
+                    Timber.w(e, "WebSnapshotManager decode failed：%s", url);
+                }
+            }
+            Bitmap result = bitmap;
+            mHandler.post(() -> listener.onLoaded(result));
+        });
+    }
+
+    /**
+     * 删除网页快照
+     */
+    public void remove(Context context, String url) {
+        File file = getSnapshotFile(context, url);
+        mSnapshotNames.remove(file.getName());
+        ThreadPoolManager.getInstance().io().execute(file::delete);
+    }
+
+    private static File getSnapshotDir(Context context) {
+        return new File(context.getCacheDir(), SNAPSHOT_DIR_NAME);
+    }
+
+    private static File getSnapshotFile(Context context, String url) {
+        return new File(getSnapshotDir(context), getSnapshotName(url));
+    }
+
+    private static String getSnapshotName(String url) {
+        return Integer.toHexString(url.hashCode()) + ".webp";
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Bitmap.CompressFormat getCompressFormat() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+            return Bitmap.CompressFormat.WEBP_LOSSY;
+        }
+        return Bitmap.CompressFormat.WEBP;
+    }
+
+    /**
+     * 快照读取监听
+     */
+    public interface OnSnapshotListener {
+
+        /**
+         * 读取完成（在主线程回调）
+         */
+        void onLoaded(@Nullable Bitmap bitmap);
+    }
+}
@@ -65,4 +65,11 @@ public final class AppConfig {
     public static String getHostUrl() {
         return BuildConfig.HOST_URL;
     }
+
+    /**
+     * 获取启动后打开的首页地址
+     */
+    public static String getStartUrl() {
+        return BuildConfig.START_URL;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,327 @@
+package com.hjq.demo.other;
+
+import androidx.annotation.NonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : 紧凑的二进制对象编解码（给 MMKV 持久化使用，代替 JSON 字符串）
+ *
+ *    格式：魔数 + 格式版本 + 字符串表 + 字段列表
+ *    每个字段以 varint 形式的 (编号 << 2 | 类型) 开头，数字用 zigzag varint 保存，字符串只保存在字符串表中的下标，
+ *    解码的时候不认识的字段会被跳过，所以新增字段不影响旧版本读取，删除字段也不影响新版本读取（编号不能复用）
+ */
+public final class BinaryCodec {
+
+    /** 魔数，用来区分其他格式的数据 */
+    private static final int MAGIC = 0xB1;
+    /** 格式版本 */
+    private static final int FORMAT_VERSION = 1;
+
+    /** 字段类型：varint */
+    private static final int TYPE_VARINT = 0;
+    /** 字段类型：字符串表下标 */
+    private static final int TYPE_STRING = 1;
+    /** 字段类型：长度 + 内容（嵌套对象） */
+    private static final int TYPE_BYTES = 2;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /** 类 -> 编解码器 */
+    private static final ConcurrentHashMap<Class<?>, Codec<?>> CODECS = new ConcurrentHashMap<>();
+
+    private BinaryCodec() {}
+
+    /**
+     * 注册某个类的编解码器（同一个类只需要注册一次，一般放在类的静态代码块中）
+     */
+    public static <T> void register(@NonNull Class<T> clazz, @NonNull Codec<T> codec) {
+        CODECS.put(clazz, codec);
+    }
+
+    /**
+     * 编码对象
+     *
+     * @throws IllegalArgumentException         没有注册过这个类的编解码器
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> byte[] encode(@NonNull T value) {
+        Codec<T> codec = (Codec<T>) getCodec(value.getClass());
+        Writer body = new Writer(new HashMap<>(), new ArrayList<>());
+        codec.encode(body, value);
+
+        Buffer output = new Buffer();
+        output.write(MAGIC);
+        output.write(FORMAT_VERSION);
+        output.writeVarint(body.mStrings.size());
+        for (String string : body.mStrings) {
+            byte[] bytes = string.getBytes(UTF_8);
+            output.writeVarint(bytes.length);
+            output.write(bytes, 0, bytes.length);
+        }
+        output.write(body.mBuffer.buffer(), 0, body.mBuffer.size());
+        return output.toByteArray();
+    }
+
+    /**
+     * 解码对象
+     *
+     * @throws IllegalArgumentException         数据格式不正确，或者没有注册过这个类的编解码器
+     */
+    public static <T> T decode(@NonNull byte[] bytes, @NonNull Class<T> clazz) {
+        Codec<T> codec = getCodec(clazz);
+        if (bytes.length < 2 || (bytes[0] & 0xFF) != MAGIC) {
+            throw new IllegalArgumentException("not a binary codec data");
+        }
+        if ((bytes[1] & 0xFF) != FORMAT_VERSION) {
+            throw new IllegalArgumentException("unsupported format version：" + (bytes[1] & 0xFF));
+        }
+        Reader header = new Reader(bytes, 2, bytes.length, null);
+        int count = (int) header.readVarint();
+        if (count < 0 || count > bytes.length) {
+            throw new IllegalArgumentException("bad string table size：" + count);
+        }
+        String[] strings = new String[count];
+        for (int i = 0; i < count; i++) {
+            int length = header.readLength();
+            strings[i] = new String(bytes, header.mPosition, length, UTF_8);
+            header.mPosition += length;
+        }
+        return codec.decode(new Reader(bytes, header.mPosition, bytes.length, strings));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Codec<T> getCodec(Class<T> clazz) {
+        Codec<T> codec = (Codec<T>) CODECS.get(clazz);
+        if (codec == null) {
+            throw new IllegalArgumentException("no codec registered for " + clazz.getName());
+        }
+        return codec;
+    }
+
+    /**
+     * 某个类的编解码器
+     */
+    public interface Codec<T> {
+
+        /**
+         * 写入对象的字段
+         */
+        void encode(@NonNull Writer writer, @NonNull T value);
+
+        /**
+         * 读取对象的字段（需要循环调用 {@link Reader#nextField()}，遇到不认识的字段调用 {@link Reader#skip()}）
+         */
+        @NonNull
+        T decode(@NonNull Reader reader);
+    }
+
+    /**
+     * 字段写入器
+     */
+    public static final class Writer {
+
+        /** 字符串 -> 在字符串表中的下标（整个数据共用一张表） */
+        private final HashMap<String, Integer> mStringIndexes;
+        private final List<String> mStrings;
+        private final Buffer mBuffer = new Buffer();
+
+        private Writer(HashMap<String, Integer> stringIndexes, List<String> strings) {
+            mStringIndexes = stringIndexes;
+            mStrings = strings;
+        }
+
+        public void writeLong(int tag, long value) {
+            writeKey(tag, TYPE_VARINT);
+            // zigzag 编码，负数也只占用很少的字节
+            mBuffer.writeVarint((value << 1) ^ (value >> 63));
+        }
+
+        public void writeInt(int tag, int value) {
+            writeLong(tag, value);
+        }
+
+        public void writeBoolean(int tag, boolean value) {
+            writeLong(tag, value ? 1 : 0);
+        }
+
+        /**
+         * 写入字符串（为空则不写入这个字段）
+         */
+        public void writeString(int tag, String value) {
+            if (value == null) {
+                return;
+            }
+            Integer index = mStringIndexes.get(value);
+            if (index == null) {
+                index = mStrings.size();
+                mStrings.add(value);
+                mStringIndexes.put(value, index);
+            }
+            writeKey(tag, TYPE_STRING);
+            mBuffer.writeVarint(index);
+        }
+
+        /**
+         * 写入嵌套对象（为空则不写入这个字段，同一个编号写入多次就是列表）
+         */
+        public <T> void writeObject(int tag, Codec<T> codec, T value) {
+            if (value == null) {
+                return;
+            }
+            Writer writer = new Writer(mStringIndexes, mStrings);
+            codec.encode(writer, value);
+            writeKey(tag, TYPE_BYTES);
+            mBuffer.writeVarint(writer.mBuffer.size());
+            mBuffer.write(writer.mBuffer.buffer(), 0, writer.mBuffer.size());
+        }
+
+        /**
+         * 写入对象列表
+         */
+        public <T> void writeList(int tag, Codec<T> codec, List<T> values) {
+            for (T value : values) {
+                writeObject(tag, codec, value);
+            }
+        }
+
+        private void writeKey(int tag, int type) {
+            if (tag <= 0) {
+                throw new IllegalArgumentException("tag must be positive：" + tag);
+            }
+            mBuffer.writeVarint(((long) tag << 2) | type);
+        }
+    }
+
+    /**
+     * 字段读取器
+     */
+    public static final class Reader {
+
+        private final byte[] mBytes;
+        private final int mLimit;
+        private final String[] mStrings;
+        private int mPosition;
+
+        /** 当前字段的类型 */
+        private int mType;
+
+        private Reader(byte[] bytes, int position, int limit, String[] strings) {
+            mBytes = bytes;
+            mPosition = position;
+            mLimit = limit;
+            mStrings = strings;
+        }
+
+        /**
+         * 读取下一个字段的编号，没有更多字段返回 -1
+         */
+        public int nextField() {
+            if (mPosition >= mLimit) {
+                return -1;
+            }
+            long key = readVarint();
+            mType = (int) (key & 0x3);
+            return (int) (key >>> 2);
+        }
+
+        public long readLong() {
+            checkType(TYPE_VARINT);
+            long value = readVarint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        public int readInt() {
+            return (int) readLong();
+        }
+
+        public boolean readBoolean() {
+            return readLong() != 0;
+        }
+
+        public String readString() {
+            checkType(TYPE_STRING);
+            long index = readVarint();
+            if (index < 0 || index >= mStrings.length) {
+                throw new IllegalArgumentException("bad string index：" + index);
+            }
+            return mStrings[(int) index];
+        }
+
+        public <T> T readObject(Codec<T> codec) {
+            checkType(TYPE_BYTES);
+            int length = readLength();
+            Reader reader = new Reader(mBytes, mPosition, mPosition + length, mStrings);
+            mPosition += length;
+            return codec.decode(reader);
+        }
+
+        /**
+         * 跳过当前字段（不认识的字段需要调用）
+         */
+        public void skip() {
+            if (mType == TYPE_BYTES) {
+                // 不能写成 mPosition += readLength()，那样会用读取长度之前的位置相加
+                int length = readLength();
+                mPosition += length;
+            } else {
+                readVarint();
+            }
+        }
+
+        private void checkType(int type) {
+            if (mType != type) {
+                throw new IllegalArgumentException("field type mismatch：" + mType + " != " + type);
+            }
+        }
+
+        private int readLength() {
+            long length = readVarint();
+            if (length < 0 || length > mLimit - mPosition) {
+                throw new IllegalArgumentException("bad length：" + length);
+            }
+            return (int) length;
+        }
+
+        private long readVarint() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (mPosition >= mLimit) {
+                    throw new IllegalArgumentException("truncated varint");
+                }
+                byte b = mBytes[mPosition++];
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("malformed varint");
+        }
+    }
+
+    /**
+     * 可以直接访问内部数组的 ByteArrayOutputStream，避免复制
+     */
+    private static final class Buffer extends ByteArrayOutputStream {
+
+        private byte[] buffer() {
+            return buf;
+        }
+
+        private void writeVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+    }
+}
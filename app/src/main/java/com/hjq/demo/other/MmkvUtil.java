@@ -26,6 +26,11 @@ public class MmkvUtil {
         return kv.encode(key, value);
     }
 
+    public static boolean save(String key, long value) {
+        init();
+        return kv.encode(key, value);
+    }
+
     public static boolean save(String key, double value) {
         init();
         return kv.encode(key, value);
@@ -46,22 +51,56 @@ public class MmkvUtil {
         return kv.encode(key, value);
     }
 
-    public static Boolean getBool(String key) {
+    /**
+     * 保存对象（需要先通过 {@link BinaryCodec#register} 注册编解码器）
+     */
+    public static <T> boolean saveObject(String key, T value) {
+        init();
+        return kv.encode(key, BinaryCodec.encode(value));
+    }
+
+    public static boolean getBool(String key) {
         init();
         return kv.decodeBool(key);
     }
 
+    public static boolean getBool(String key, boolean defaultValue) {
+        init();
+        return kv.decodeBool(key, defaultValue);
+    }
+
     public static byte[] getBytes(String key) {
         init();
         return kv.decodeBytes(key);
     }
 
+    /**
+     * 读取对象，没有保存过或者数据格式不正确返回 null
+     */
+    public static <T> T getObject(String key, Class<T> clazz) {
+        init();
+        byte[] bytes = kv.decodeBytes(key);
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            return BinaryCodec.decode(bytes, clazz);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     public static double getDouble(String key, double defaultValue) {
         init();
         return kv.decodeDouble(key, defaultValue);
 
     }
 
+    public static float getFloat(String key, float defaultValue) {
+        init();
+        return kv.decodeFloat(key, defaultValue);
+    }
+
     public static int getInt(String key, int defaultValue) {
         init();
         return kv.decodeInt(key, defaultValue);
@@ -76,4 +115,14 @@ public class MmkvUtil {
         init();
         return kv.decodeString(key, defaultValue);
     }
+
+    public static boolean contains(String key) {
+        init();
+        return kv.containsKey(key);
+    }
+
+    public static void remove(String key) {
+        init();
+        kv.removeValueForKey(key);
+    }
 }
@@ -5,24 +5,31 @@ import android.content.Context;
 import android.content.Intent;
 import android.graphics.Bitmap;
 import android.graphics.drawable.BitmapDrawable;
-import android.os.Environment;
+import android.net.Uri;
+import android.os.Bundle;
 import android.text.TextUtils;
-import android.util.Base64;
 import android.view.KeyEvent;
 import android.view.View;
+import android.view.ViewGroup;
 import android.webkit.WebView;
+import android.widget.ImageView;
 import android.widget.ProgressBar;
 
 import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
 
-import com.bumptech.glide.Glide;
 import com.hjq.demo.R;
 import com.hjq.demo.action.StatusAction;
 import com.hjq.demo.aop.CheckNet;
 import com.hjq.demo.aop.Log;
 import com.hjq.demo.app.AppActivity;
-import com.hjq.demo.manager.ThreadPoolManager;
-import com.hjq.demo.ui.adapter.JSHook;
+import com.hjq.demo.http.web.WebBlobProvider;
+import com.hjq.demo.manager.ActivityManager;
+import com.hjq.demo.manager.BrowserViewPool;
+import com.hjq.demo.manager.ImageCompressManager;
+import com.hjq.demo.manager.UrlRouteManager;
+import com.hjq.demo.manager.WebSnapshotManager;
+import com.hjq.demo.other.AppConfig;
 import com.hjq.demo.widget.BrowserView;
 import com.hjq.demo.widget.StatusLayout;
 import com.hjq.permissions.OnPermissionCallback;
@@ -34,11 +41,7 @@ import com.scwang.smart.refresh.layout.api.RefreshLayout;
 import com.scwang.smart.refresh.layout.listener.OnRefreshListener;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.IOException;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
 
 import timber.log.Timber;
 
@@ -48,7 +51,7 @@ import timber.log.Timber;
  * time   : 2018/10/18
  * desc   : 浏览器界面
  */
-public final class BrowserActivity extends AppActivity implements StatusAction, OnRefreshListener, Runnable {
+public final class BrowserActivity extends AppActivity implements StatusAction, OnRefreshListener, Runnable, ActivityManager.Freezable {
 
     private static final String INTENT_KEY_IN_URL = "url";
 
@@ -70,6 +73,11 @@ public final class BrowserActivity extends AppActivity implements StatusAction,
     private ProgressBar mProgressBar;
     private SmartRefreshLayout mRefreshLayout;
     private BrowserView mBrowserView;
+    private ImageView mSnapshotView;
+    /** 当前网页是否已经预加载过 */
+    private boolean mPreloaded;
+    /** 冻结时保存的 WebView 状态 */
+    private Bundle mFrozenState;
 
     @Override
     protected int getLayoutId() {
@@ -81,8 +89,14 @@ public final class BrowserActivity extends AppActivity implements StatusAction,
         mStatusLayout = findViewById(R.id.hl_browser_hint);
         mProgressBar = findViewById(R.id.pb_browser_progress);
         mRefreshLayout = findViewById(R.id.sl_browser_refresh);
-        mBrowserView = findViewById(R.id.wv_browser_view);
-        mBrowserView.addJavascriptInterface(new JSHook(), "hook");
+        mSnapshotView = findViewById(R.id.iv_browser_snapshot);
+        // 优先接管闪屏页中已经开始加载的 BrowserView
+        mBrowserView = BrowserViewPool.getInstance().obtainPreloaded(this, getString(INTENT_KEY_IN_URL));
+        mPreloaded = mBrowserView != null;
+        if (!mPreloaded) {
+            mBrowserView = BrowserViewPool.getInstance().obtain(this);
+        }
+        attachBrowserView();
 
         findViewById(R.id.test).setOnClickListener(new View.OnClickListener() {
             @Override
@@ -92,19 +106,134 @@ public final class BrowserActivity extends AppActivity implements StatusAction,
             }
         });
 
-        // 设置 WebView 生命管控
-        mBrowserView.setLifecycleOwner(this);
         // 设置网页刷新监听
         mRefreshLayout.setOnRefreshListener(this);
     }
 
     @Override
     protected void initData() {
-        showLoading();
+        String url = getString(INTENT_KEY_IN_URL);
+        if (AppConfig.getStartUrl().equals(url) && !mBrowserView.isPageCommitted()) {
+            // 在网页绘制出来之前先显示快照
+            showSnapshot(url);
+        }
+
+        if (!mPreloaded) {
+            if (!WebSnapshotManager.getInstance().hasSnapshot(this, url)) {
+                showLoading();
+            }
+            mBrowserView.loadUrl(url);
+            return;
+        }
+
+        // 网页已经在闪屏期间绘制出来了，这里只需要同步一下当前的加载状态
+        if (mBrowserView.getTitle() != null) {
+            setTitle(mBrowserView.getTitle());
+        }
+        if (mBrowserView.getProgress() < 100) {
+            mProgressBar.setProgress(mBrowserView.getProgress());
+        } else {
+            mProgressBar.setVisibility(View.GONE);
+        }
+    }
+
+    /**
+     * 在网页绘制出来之前先显示上次离开时的快照
+     */
+    private void showSnapshot(String url) {
+        WebSnapshotManager.getInstance().load(this, url, bitmap -> {
+            if (bitmap == null || isFinishing() || mBrowserView == null || mBrowserView.isPageCommitted()) {
+                return;
+            }
+            mSnapshotView.setImageBitmap(bitmap);
+            mSnapshotView.setAlpha(1f);
+            mSnapshotView.setVisibility(View.VISIBLE);
+        });
+    }
+
+    /**
+     * 网页已经绘制出来了，淡出快照
+     */
+    private void hideSnapshot() {
+        if (mSnapshotView.getVisibility() != View.VISIBLE) {
+            return;
+        }
+        mSnapshotView.animate().alpha(0f).setDuration(200).withEndAction(() -> {
+            mSnapshotView.setVisibility(View.GONE);
+            mSnapshotView.setImageDrawable(null);
+        }).start();
+    }
 
+    /**
+     * 将 BrowserView 添加到界面上
+     */
+    private void attachBrowserView() {
+        ViewGroup containerLayout = findViewById(R.id.fl_browser_container);
+        // 放在快照的下面
+        containerLayout.addView(mBrowserView, 0, new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
         mBrowserView.setBrowserViewClient(new AppBrowserViewClient());
         mBrowserView.setBrowserChromeClient(new AppBrowserChromeClient(mBrowserView));
-        mBrowserView.loadUrl(getString(INTENT_KEY_IN_URL));
+        // 设置 WebView 生命管控
+        mBrowserView.setLifecycleOwner(this);
+        if (AppConfig.getStartUrl().equals(getString(INTENT_KEY_IN_URL))) {
+            // 首页离开时保存快照，下次启动时可以先显示快照
+            mBrowserView.setSnapshotUrl(getString(INTENT_KEY_IN_URL));
+        }
+        // 渲染进程退出之后重建网页
+        mBrowserView.setOnRenderProcessGoneListener(this::recreateBrowserView);
+    }
+
+    /**
+     * 重新创建 BrowserView 并恢复到之前的网页和滚动位置
+     */
+    private void recreateBrowserView(BrowserView view, String url, int scrollY) {
+        getLifecycle().removeObserver(view);
+        if (isFinishing()) {
+            mBrowserView = null;
+            return;
+        }
+        mBrowserView = BrowserViewPool.getInstance().obtain(this);
+        attachBrowserView();
+        mBrowserView.loadUrl(url, scrollY);
+    }
+
+    /**
+     * {@link ActivityManager.Freezable}
+     */
+
+    @Override
+    public boolean freeze() {
+        if (mBrowserView == null || getLifecycle().getCurrentState().isAtLeast(Lifecycle.State.STARTED)) {
+            return false;
+        }
+        mFrozenState = new Bundle();
+        if (mBrowserView.saveState(mFrozenState) == null) {
+            mFrozenState = null;
+            return false;
+        }
+        getLifecycle().removeObserver(mBrowserView);
+        // 回收到复用池中或者直接销毁，释放网页占用的内存
+        mBrowserView.onDestroy();
+        mBrowserView = null;
+        return true;
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return mFrozenState != null;
+    }
+
+    @Override
+    protected void onRestart() {
+        super.onRestart();
+        if (mFrozenState == null) {
+            return;
+        }
+        // 回到这个界面时恢复冻结前的网页和历史记录
+        mBrowserView = BrowserViewPool.getInstance().obtain(this);
+        attachBrowserView();
+        mBrowserView.restoreState(mFrozenState);
+        mFrozenState = null;
     }
 
     @Override
@@ -119,7 +248,8 @@ public final class BrowserActivity extends AppActivity implements StatusAction,
 
     @Override
     public boolean onKeyDown(int keyCode, KeyEvent event) {
-        if (keyCode == KeyEvent.KEYCODE_BACK && mBrowserView.canGoBack()) {
+        // 界面被冻结或者正在重建的时候 BrowserView 为空
+        if (keyCode == KeyEvent.KEYCODE_BACK && mBrowserView != null && mBrowserView.canGoBack()) {
             // 后退网页并且拦截该事件
             mBrowserView.goBack();
             return true;
@@ -132,6 +262,9 @@ public final class BrowserActivity extends AppActivity implements StatusAction,
      */
     @CheckNet
     private void reload() {
+        if (mBrowserView == null) {
+            return;
+        }
         mBrowserView.reload();
     }
 
@@ -194,67 +327,34 @@ public final class BrowserActivity extends AppActivity implements StatusAction,
         }
 
         private void sendPic(File file) {
-            File fileCompress = getCompress(file);
-//                                ToastUtils.show("" + file.getPath());
-
+            // 界面销毁的时候取消压缩，避免压缩完成之后再回调界面
+            bindTask(ImageCompressManager.getInstance().compress(getActivity(), Uri.fromFile(file), result -> {
+                if (mBrowserView == null) {
+                    return;
+                }
+                Uri uri = result.get(0);
+                Timber.d("压缩后文件  " + uri);
+                // 压缩失败的时候返回的是原图，格式不一定是 jpeg
+                String mimeType = ImageCompressManager.getMimeType(getContentResolver(), uri);
+                if (mimeType == null) {
+                    mimeType = "application/octet-stream";
+                }
+                // 不再把整张图片转成 Base64 拼到 url 里面，只把虚拟地址传给网页，网页再通过这个地址以流的形式读取图片
+                String url = WebBlobProvider.getInstance().register(new File(uri.getPath()), mimeType, mBrowserView.getUrl());
+                mBrowserView.evaluateJavascript("showPic(\"" + url + "\");", null);
+            }));
         }
 
+        /**
+         * 处理路由表匹配到的链接（doScan 是 h5 和我们定义的拍照传值协议）
+         */
         @Override
-        public boolean shouldOverrideUrlLoading(WebView view, String url) {
-            Timber.tag("拦截").d("拦截到的url：" + url);
-            //url如果包含doScan参数值，就是h5和我们定义的传值协议
-            if (url.contains("doScan")) {
-//                mBrowserView.loadUrl("javascript:showPic(" + a + ");");
-//                url = URLEncoder.encode(url);
+        protected boolean onRoute(WebView view, Uri uri, String handler) {
+            if (UrlRouteManager.HANDLER_CAMERA.equals(handler)) {
                 doTakePhoto();
                 return true;
-            } else {
-                view.loadUrl(url);
             }
-            return true;
-        }
-
-        private File getCompress(File file) {
-            final File[] f = {null};
-            ThreadPoolManager.getInstance().execute(() -> {
-                try {
-//                    f[0] = Glide.with(getActivity()).asFile().load(file).submit(200, 200).get();
-                    Bitmap bitmap = Glide.with(getActivity()).asBitmap().load(file).submit(200, 200).get();
-
-                    String path2 = Environment.getExternalStorageDirectory().getPath() + "/NAME_PIC_FILE.jpg";
-                    savePicToSdcard(path2, bitmap);
-                    try {
-
-                        //                                图片压缩
-//                                    FileOutputStream fileOutputStream = new FileOutputStream(fileCompress.getPath());
-                        FileInputStream fileInputStream = new FileInputStream(path2);
-                        File compressed = new File(path2);
-                        byte[] buf = new byte[(int) compressed.length()];
-                        Timber.d("压缩后文件  " + compressed.getAbsolutePath());
-                        fileInputStream.read(buf);
-                        fileInputStream.close();
-                        String s = Base64.encodeToString(buf, Base64.DEFAULT);
-//                                    Timber.d("base64:" + s);
-//                        String path1 = "\"" + compressed.getAbsolutePath() + "\"";
-                        String s1 = "\"" + s + "\"";
-//                                    path1 = "\"https://img-blog.csdnimg.cn/20210317155344671.png\"";
-//                        String u = "javascript:showPic(" + path1 + ");";
-                        String u1 = "javascript:showPic(" + s1 + ");";
-                        Timber.d(u1);
-                        runOnUiThread(() -> mBrowserView.loadUrl(u1));
-                        //                                    mBrowserView.loadUrl("javascript:showPic(" + s + ");");
-//                                    mBrowserView.loadUrl("javascript:showPic(" + "" + ");");
-//                                    view.loadUrl("javascript:showPic('s')");
-                    } catch (IOException e) {
-                        throw new RuntimeException(e);
-                    }
-                } catch (ExecutionException e) {
-                    throw new RuntimeException(e);
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
-                }
-            });
-            return f[0];
+            return super.onRoute(view, uri, handler);
         }
 
         /**
@@ -262,39 +362,32 @@ public final class BrowserActivity extends AppActivity implements StatusAction,
          */
         @Override
         public void onPageStarted(WebView view, String url, Bitmap favicon) {
+            super.onPageStarted(view, url, favicon);
             mProgressBar.setVisibility(View.VISIBLE);
         }
 
+        /**
+         * 网页内容已经可以绘制
+         */
+        @Override
+        public void onPageCommitVisible(WebView view, String url) {
+            super.onPageCommitVisible(view, url);
+            hideSnapshot();
+        }
+
         /**
          * 完成加载网页
          */
         @Override
         public void onPageFinished(WebView view, String url) {
+            super.onPageFinished(view, url);
+            hideSnapshot();
             mProgressBar.setVisibility(View.GONE);
             mRefreshLayout.finishRefresh();
             showComplete();
         }
     }
 
-    /**
-     * 保存图片到sdcard
-     *
-     * @param bitmap
-     */
-    public static void savePicToSdcard(String path, Bitmap bitmap) {
-        if (bitmap != null) {
-            try {
-                FileOutputStream out = new FileOutputStream(path);
-                bitmap.compress(Bitmap.CompressFormat.PNG, 10, out);
-                out.flush();
-                out.close();
-                bitmap.recycle();
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-        }
-    }
-
     private class AppBrowserChromeClient extends BrowserView.BrowserChromeClient {
 
         private AppBrowserChromeClient(BrowserView view) {
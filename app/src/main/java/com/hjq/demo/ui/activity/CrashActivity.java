@@ -234,14 +234,14 @@ public final class CrashActivity extends AppActivity {
             if (permissions.contains(Manifest.permission.INTERNET)) {
                 builder.append("\n当前网络访问：\t");
 
-                ThreadPoolManager.getInstance().execute(() -> {
+                executeTask(ThreadPoolManager.getInstance().io(), () -> {
                     try {
                         InetAddress.getByName("www.baidu.com");
                         builder.append("正常");
                     } catch (UnknownHostException ignored) {
                         builder.append("异常");
                     }
-                    post(() -> mInfoView.setText(builder));
+                    postFrame(() -> mInfoView.setText(builder));
                 });
 
             } else {
@@ -4,6 +4,7 @@ import android.content.ContentResolver;
 import android.content.Intent;
 import android.database.Cursor;
 import android.net.Uri;
+import android.os.CancellationSignal;
 import android.provider.MediaStore;
 import android.text.TextUtils;
 import android.view.View;
@@ -43,7 +44,7 @@ import java.util.Set;
  *    desc   : 选择图片
  */
 public final class ImageSelectActivity extends AppActivity
-        implements StatusAction, Runnable,
+        implements StatusAction,
         BaseAdapter.OnItemClickListener,
         BaseAdapter.OnItemLongClickListener,
         BaseAdapter.OnChildClickListener {
@@ -109,9 +110,9 @@ public final class ImageSelectActivity extends AppActivity
     private final ArrayList<String> mSelectImage = new ArrayList<>();
 
     /** 全部图片 */
-    private final ArrayList<String> mAllImage = new ArrayList<>();
+    private ArrayList<String> mAllImage = new ArrayList<>();
     /** 图片专辑 */
-    private final HashMap<String, List<String>> mAllAlbum = new HashMap<>();
+    private HashMap<String, List<String>> mAllAlbum = new HashMap<>();
 
     /** 专辑选择对话框 */
     private AlbumDialog.Builder mAlbumDialog;
@@ -163,7 +164,14 @@ public final class ImageSelectActivity extends AppActivity
         // 显示加载进度条
         showLoading();
         // 加载图片列表
-        ThreadPoolManager.getInstance().execute(this);
+        scanImages();
+    }
+
+    /**
+     * 在子线程中扫描图片（重复触发的扫描会被合并）
+     */
+    private void scanImages() {
+        executeTask(ThreadPoolManager.getInstance().singleFlight().forKey(this), this::loadImages);
     }
 
     @Override
@@ -264,7 +272,7 @@ public final class ImageSelectActivity extends AppActivity
                         // 这里需要延迟刷新，否则可能会找不到拍照的图片
                         postDelayed(() -> {
                             // 重新加载图片列表
-                            ThreadPoolManager.getInstance().execute(ImageSelectActivity.this);
+                            scanImages();
                         }, 1000);
                     }
 
@@ -362,10 +370,14 @@ public final class ImageSelectActivity extends AppActivity
         }
     }
 
-    @Override
-    public void run() {
-        mAllAlbum.clear();
-        mAllImage.clear();
+    /**
+     * 加载图片列表（在子线程中执行，界面销毁的时候会被取消）
+     *
+     * 同一个界面的加载任务不会同时执行，扫描的结果先放在局部变量中，扫描完成之后再在主线程中整体替换
+     */
+    private void loadImages(CancellationSignal signal) {
+        ArrayList<String> allImage = new ArrayList<>();
+        HashMap<String, List<String>> allAlbum = new HashMap<>();
 
         final Uri contentUri = MediaStore.Files.getContentUri("external");
         final String sortOrder = MediaStore.Files.FileColumns.DATE_MODIFIED + " DESC";
@@ -379,7 +391,7 @@ public final class ImageSelectActivity extends AppActivity
 
         Cursor cursor = null;
         if (XXPermissions.isGranted(this, Permission.READ_EXTERNAL_STORAGE, Permission.WRITE_EXTERNAL_STORAGE)) {
-            cursor = contentResolver.query(contentUri, projections, selection, new String[]{String.valueOf(MediaStore.Files.FileColumns.MEDIA_TYPE_IMAGE)}, sortOrder);
+            cursor = contentResolver.query(contentUri, projections, selection, new String[]{String.valueOf(MediaStore.Files.FileColumns.MEDIA_TYPE_IMAGE)}, sortOrder, signal);
         }
         if (cursor != null && cursor.moveToFirst()) {
 
@@ -412,20 +424,29 @@ public final class ImageSelectActivity extends AppActivity
 
                 // 获取目录名作为专辑名称
                 String albumName = parentFile.getName();
-                List<String> data = mAllAlbum.get(albumName);
+                List<String> data = allAlbum.get(albumName);
                 if (data == null) {
                     data = new ArrayList<>();
-                    mAllAlbum.put(albumName, data);
+                    allAlbum.put(albumName, data);
                 }
                 data.add(path);
-                mAllImage.add(path);
-
-            } while (cursor.moveToNext());
+                allImage.add(path);
 
+            } while (!signal.isCanceled() && cursor.moveToNext());
+        }
+        if (cursor != null) {
             cursor.close();
         }
 
+        // 界面已经销毁了，不需要再刷新
+        if (signal.isCanceled()) {
+            return;
+        }
+
         postDelayed(() -> {
+            // 在主线程中整体替换，之后这些数据只在主线程中访问
+            mAllImage = allImage;
+            mAllAlbum = allAlbum;
             // 滚动回第一个位置
             mRecyclerView.scrollToPosition(0);
             // 设置新的列表数据
@@ -4,6 +4,8 @@ import android.animation.Animator;
 import android.animation.AnimatorListenerAdapter;
 import android.content.Intent;
 import android.view.View;
+import android.view.ViewGroup;
+import android.webkit.WebView;
 
 import androidx.annotation.NonNull;
 
@@ -12,8 +14,11 @@ import com.gyf.immersionbar.BarHide;
 import com.gyf.immersionbar.ImmersionBar;
 import com.hjq.demo.R;
 import com.hjq.demo.app.AppActivity;
-import com.hjq.demo.manager.ThreadPoolManager;
+import com.hjq.demo.manager.BrowserViewPool;
+import com.hjq.demo.manager.StartupTracer;
+import com.hjq.demo.manager.WebSnapshotManager;
 import com.hjq.demo.other.AppConfig;
+import com.hjq.demo.widget.BrowserView;
 import com.hjq.widget.view.SlantedTextView;
 
 /**
@@ -24,8 +29,13 @@ import com.hjq.widget.view.SlantedTextView;
  */
 public final class SplashActivity extends AppActivity {
 
+    /** 闪屏最长的显示时间 */
+    private static final int SPLASH_MAX_DURATION = 3000;
+
     private LottieAnimationView mLottieView;
     private SlantedTextView mDebugView;
+    /** 预加载首页的 BrowserView */
+    private BrowserView mBrowserView;
 
     @Override
     protected int getLayoutId() {
@@ -34,36 +44,48 @@ public final class SplashActivity extends AppActivity {
 
     @Override
     protected void initView() {
+        StartupTracer.getInstance().mark(StartupTracer.PHASE_SPLASH_CREATED);
         mLottieView = findViewById(R.id.lav_splash_lottie);
         mDebugView = findViewById(R.id.iv_splash_debug);
-        ThreadPoolManager.getInstance().execute(r);// 用自己的闪屏  不用现有动画
+
+        // 不再固定等待一段时间，而是在闪屏期间直接开始加载首页
+        mBrowserView = BrowserViewPool.getInstance().obtain(this);
+        ViewGroup preloadLayout = findViewById(R.id.fl_splash_preload);
+        preloadLayout.addView(mBrowserView, new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        mBrowserView.setBrowserViewClient(new SplashBrowserViewClient());
+        mBrowserView.loadUrl(AppConfig.getStartUrl());
+        if (WebSnapshotManager.getInstance().hasSnapshot(this, AppConfig.getStartUrl())) {
+            // 有上次离开时的快照，不用等网页绘制，直接进入浏览器界面先显示快照
+            post(this::startBrowser);
+        } else {
+            // 网页迟迟没有绘制出来的话，最多只等待这么长时间
+            postDelayed(this::startBrowser, SPLASH_MAX_DURATION);
+        }
         // 设置动画监听
         /*mLottieView.addAnimatorListener(new AnimatorListenerAdapter() {
 
             @Override
             public void onAnimationEnd(Animator animation) {
                 mLottieView.removeAnimatorListener(this);
-                ThreadPoolManager.getInstance().execute(r);// 用现有动画
+                startBrowser();// 用现有动画
             }
         });*/
     }
 
-    Runnable r = new Runnable() {
-        @Override
-        public void run() {
-//             如果想用自己的闪屏  不用现有动画 可打开延迟注释  并隐藏xml里的控件 android:visibility="gone"
-            try {
-                Thread.sleep(400);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-//            BrowserActivity.start(getContext(), "");
-//            String u = "https://haoka.shuangxinyun.com//agent/qjaKzzWS";
-                String u = "http://www.xinhuanet.com/";
-            BrowserActivity.start(getContext(), u);
-            finish();
+    /**
+     * 结束闪屏，将正在加载的 BrowserView 交给浏览器界面
+     */
+    private void startBrowser() {
+        if (mBrowserView == null || isFinishing()) {
+            return;
         }
-    };
+        removeCallbacks();
+        String url = AppConfig.getStartUrl();
+        BrowserViewPool.getInstance().putPreloaded(url, mBrowserView);
+        mBrowserView = null;
+        BrowserActivity.start(getContext(), url);
+        finish();
+    }
 
     @Override
     protected void initData() {
@@ -112,6 +134,32 @@ public final class SplashActivity extends AppActivity {
     protected void onDestroy() {
         // 因为修复了一个启动页被重复启动的问题，所以有可能 Activity 还没有初始化完成就已经销毁了
         // 所以如果需要在此处释放对象资源需要先对这个对象进行判空，否则可能会导致空指针异常
+        if (mBrowserView != null) {
+            // 还没有交给浏览器界面就被销毁了
+            mBrowserView.onDestroy();
+            mBrowserView = null;
+        }
         super.onDestroy();
     }
+
+    private class SplashBrowserViewClient extends BrowserView.BrowserViewClient {
+
+        /**
+         * 网页内容已经可以绘制
+         */
+        @Override
+        public void onPageCommitVisible(WebView view, String url) {
+            super.onPageCommitVisible(view, url);
+            startBrowser();
+        }
+
+        /**
+         * 完成加载网页
+         */
+        @Override
+        public void onPageFinished(WebView view, String url) {
+            super.onPageFinished(view, url);
+            startBrowser();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,100 @@
+package com.hjq.demo.ui.activity;
+
+import android.app.Activity;
+import android.content.Context;
+import android.content.Intent;
+import android.view.View;
+import android.widget.TextView;
+
+import com.hjq.demo.R;
+import com.hjq.demo.aop.SingleClick;
+import com.hjq.demo.app.AppActivity;
+import com.hjq.demo.manager.StallWatchdog;
+import com.hjq.demo.manager.ThreadPoolManager;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : 卡顿记录展示（调试模式下使用）
+ */
+public final class StallActivity extends AppActivity {
+
+    public static void start(Context context) {
+        Intent intent = new Intent(context, StallActivity.class);
+        if (!(context instanceof Activity)) {
+            intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+        }
+        context.startActivity(intent);
+    }
+
+    private TextView mMessageView;
+
+    @Override
+    protected int getLayoutId() {
+        return R.layout.stall_activity;
+    }
+
+    @Override
+    protected void initView() {
+        mMessageView = findViewById(R.id.tv_stall_message);
+    }
+
+    @Override
+    protected void initData() {
+        executeTask(ThreadPoolManager.getInstance().io(), this::loadReports);
+    }
+
+    /**
+     * 读取卡顿记录（在子线程中执行）
+     */
+    private void loadReports() {
+        List<JSONObject> reports = StallWatchdog.getInstance().getReports();
+        SimpleDateFormat dateFormat = new SimpleDateFormat("MM-dd HH:mm:ss", Locale.getDefault());
+        StringBuilder builder = new StringBuilder();
+        for (JSONObject report : reports) {
+            builder.append(dateFormat.format(new Date(report.optLong("time"))))
+                    .append("　")
+                    .append(report.optLong("duration"))
+                    .append(" ms");
+            if (report.optBoolean("anr")) {
+                builder.append("（ANR）");
+            }
+            builder.append("\n")
+                    .append(report.optString("target"))
+                    .append("\n");
+            JSONArray stacks = report.optJSONArray("stacks");
+            if (stacks != null) {
+                for (int i = 0; i < stacks.length(); i++) {
+                    JSONObject stack = stacks.optJSONObject(i);
+                    builder.append("采样次数：")
+                            .append(stack.optInt("count"))
+                            .append("\n")
+                            .append(stack.optString("frames"));
+                }
+            }
+            builder.append("\n");
+        }
+        if (reports.isEmpty()) {
+            builder.append("暂无卡顿记录");
+        }
+        postFrame(() -> mMessageView.setText(builder));
+    }
+
+    @SingleClick
+    @Override
+    public void onRightClick(View view) {
+        executeTask(ThreadPoolManager.getInstance().io(), () -> {
+            StallWatchdog.getInstance().clear();
+            post(this::initData);
+        });
+    }
+}
@@ -6,6 +6,7 @@ import android.content.pm.ActivityInfo;
 import android.database.Cursor;
 import android.media.MediaMetadataRetriever;
 import android.net.Uri;
+import android.os.CancellationSignal;
 import android.os.Parcel;
 import android.os.Parcelable;
 import android.provider.MediaStore;
@@ -49,7 +50,7 @@ import java.util.Set;
  *    desc   : 选择视频
  */
 public final class VideoSelectActivity extends AppActivity
-        implements StatusAction, Runnable,
+        implements StatusAction,
         BaseAdapter.OnItemClickListener,
         BaseAdapter.OnItemLongClickListener,
         BaseAdapter.OnChildClickListener {
@@ -115,9 +116,9 @@ public final class VideoSelectActivity extends AppActivity
     private final ArrayList<VideoBean> mSelectVideo = new ArrayList<>();
 
     /** 全部视频 */
-    private final ArrayList<VideoBean> mAllVideo = new ArrayList<>();
+    private ArrayList<VideoBean> mAllVideo = new ArrayList<>();
     /** 视频专辑 */
-    private final HashMap<String, List<VideoBean>> mAllAlbum = new HashMap<>();
+    private HashMap<String, List<VideoBean>> mAllAlbum = new HashMap<>();
 
     /** 专辑选择对话框 */
     private AlbumDialog.Builder mAlbumDialog;
@@ -169,7 +170,14 @@ public final class VideoSelectActivity extends AppActivity
         // 显示加载进度条
         showLoading();
         // 加载视频列表
-        ThreadPoolManager.getInstance().execute(this);
+        scanVideos();
+    }
+
+    /**
+     * 在子线程中扫描视频（重复触发的扫描会被合并）
+     */
+    private void scanVideos() {
+        executeTask(ThreadPoolManager.getInstance().singleFlight().forKey(this), this::loadVideos);
     }
 
     @Override
@@ -271,7 +279,7 @@ public final class VideoSelectActivity extends AppActivity
                         // 这里需要延迟刷新，否则可能会找不到拍照的视频
                         postDelayed(() -> {
                             // 重新加载视频列表
-                            ThreadPoolManager.getInstance().execute(VideoSelectActivity.this);
+                            scanVideos();
                         }, 1000);
                     }
 
@@ -374,10 +382,14 @@ public final class VideoSelectActivity extends AppActivity
         }
     }
 
-    @Override
-    public void run() {
-        mAllAlbum.clear();
-        mAllVideo.clear();
+    /**
+     * 加载视频列表（在子线程中执行，界面销毁的时候会被取消）
+     *
+     * 同一个界面的加载任务不会同时执行，扫描的结果先放在局部变量中，扫描完成之后再在主线程中整体替换
+     */
+    private void loadVideos(CancellationSignal signal) {
+        ArrayList<VideoBean> allVideo = new ArrayList<>();
+        HashMap<String, List<VideoBean>> allAlbum = new HashMap<>();
 
         final Uri contentUri = MediaStore.Files.getContentUri("external");
         final String sortOrder = MediaStore.Files.FileColumns.DATE_MODIFIED + " DESC";
@@ -391,7 +403,7 @@ public final class VideoSelectActivity extends AppActivity
 
         Cursor cursor = null;
         if (XXPermissions.isGranted(this, Permission.READ_EXTERNAL_STORAGE, Permission.WRITE_EXTERNAL_STORAGE)) {
-            cursor = contentResolver.query(contentUri, projections, selection, new String[]{String.valueOf(MediaStore.Files.FileColumns.MEDIA_TYPE_VIDEO)}, sortOrder);
+            cursor = contentResolver.query(contentUri, projections, selection, new String[]{String.valueOf(MediaStore.Files.FileColumns.MEDIA_TYPE_VIDEO)}, sortOrder, signal);
         }
         if (cursor != null && cursor.moveToFirst()) {
 
@@ -433,10 +445,10 @@ public final class VideoSelectActivity extends AppActivity
 
                 // 获取目录名作为专辑名称
                 String albumName = parentFile.getName();
-                List<VideoBean> data = mAllAlbum.get(albumName);
+                List<VideoBean> data = allAlbum.get(albumName);
                 if (data == null) {
                     data = new ArrayList<>();
-                    mAllAlbum.put(albumName, data);
+                    allAlbum.put(albumName, data);
                 }
 
                 int width = cursor.getInt(widthIndex);
@@ -444,14 +456,23 @@ public final class VideoSelectActivity extends AppActivity
 
                 VideoBean bean = new VideoBean(path, width, height, duration, size);
                 data.add(bean);
-                mAllVideo.add(bean);
-
-            } while (cursor.moveToNext());
+                allVideo.add(bean);
 
+            } while (!signal.isCanceled() && cursor.moveToNext());
+        }
+        if (cursor != null) {
             cursor.close();
         }
 
+        // 界面已经销毁了，不需要再刷新
+        if (signal.isCanceled()) {
+            return;
+        }
+
         postDelayed(() -> {
+            // 在主线程中整体替换，之后这些数据只在主线程中访问
+            mAllVideo = allVideo;
+            mAllAlbum = allAlbum;
             // 滚动回第一个位置
             mRecyclerView.scrollToPosition(0);
             // 设置新的列表数据
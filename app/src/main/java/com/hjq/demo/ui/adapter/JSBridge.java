@@ -0,0 +1,282 @@
+package com.hjq.demo.ui.adapter;
+
+import android.os.SystemClock;
+import android.text.TextUtils;
+import android.view.Choreographer;
+import android.webkit.JavascriptInterface;
+import android.webkit.WebView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.hjq.toast.ToastUtils;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import timber.log.Timber;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : 异步 JS 桥（第二版）
+ *
+ *    网页调用：bridge.postMessage('[{"id":1,"method":"getInfo","params":{}}]')，可以一次提交多条消息，调用后立即返回
+ *    原生回调：window.onBridgeResponse([{"id":1,"result":...}, {"id":2,"error":"..."}])，同一帧内的结果会合并成一次回调
+ */
+public final class JSBridge implements Choreographer.FrameCallback {
+
+    /** 网页中的对象名称 */
+    public static final String NAME = "bridge";
+
+    /** 网页中接收结果的方法 */
+    private static final String CALLBACK_FUNCTION = "window.onBridgeResponse";
+
+    /** 所有 WebView 共用的消息处理线程池 */
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(2, 2,
+            30L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "JSBridge");
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                return thread;
+            });
+
+    static {
+        EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    private final WebView mWebView;
+    private final Choreographer mChoreographer;
+
+    /** 方法名 -> 处理器 */
+    private final Map<String, Handler> mHandlers = new ConcurrentHashMap<>();
+    /** 等待回传给网页的结果 */
+    private final ConcurrentLinkedQueue<JSONObject> mResponses = new ConcurrentLinkedQueue<>();
+    /** 是否已经预约了下一帧回传 */
+    private final AtomicBoolean mFlushScheduled = new AtomicBoolean();
+
+    /** 方法名 -> 耗时统计 */
+    private final ConcurrentHashMap<String, MethodStats> mMethodStats = new ConcurrentHashMap<>();
+    /** 正在排队和处理中的消息数量 */
+    private final AtomicInteger mQueueDepth = new AtomicInteger();
+    /** 最大排队数量 */
+    private final AtomicInteger mMaxQueueDepth = new AtomicInteger();
+
+    private volatile boolean mReleased;
+
+    /**
+     * 需要在主线程创建
+     */
+    public JSBridge(WebView webView) {
+        mWebView = webView;
+        mChoreographer = Choreographer.getInstance();
+
+        registerHandler("getInfo", params -> "获取手机内的信息！！");
+        registerHandler("toast", params -> {
+            ToastUtils.show(params.optString("msg"));
+            return null;
+        });
+    }
+
+    /**
+     * 注册消息处理器（处理器在子线程中执行）
+     */
+    public void registerHandler(String method, Handler handler) {
+        mHandlers.put(method, handler);
+    }
+
+    public void unregisterHandler(String method) {
+        mHandlers.remove(method);
+    }
+
+    /**
+     * 释放资源，之后的结果不再回传
+     */
+    public void release() {
+        mReleased = true;
+        mResponses.clear();
+        mChoreographer.removeFrameCallback(this);
+        mFlushScheduled.set(false);
+    }
+
+    /**
+     * 恢复使用（WebView 被复用的时候）
+     */
+    public void restore() {
+        mReleased = false;
+    }
+
+    /**
+     * 网页提交消息（单条消息对象或者消息数组），只负责入队，不阻塞 JS 线程
+     */
+    @JavascriptInterface
+    public void postMessage(String message) {
+        if (TextUtils.isEmpty(message)) {
+            return;
+        }
+        try {
+            Object json = new JSONTokener(message).nextValue();
+            if (json instanceof JSONArray) {
+                JSONArray array = (JSONArray) json;
+                for (int i = 0; i < array.length(); i++) {
+                    JSONObject item = array.optJSONObject(i);
+                    if (item != null) {
+                        enqueue(item);
+                    }
+                }
+            } else if (json instanceof JSONObject) {
+                enqueue((JSONObject) json);
+            }
+        } catch (JSONException e) {
+            Timber.w(e, "JSBridge bad message：%s", message);
+        }
+    }
+
+    private void enqueue(JSONObject message) {
+        final long enqueueTime = SystemClock.uptimeMillis();
+        int depth = mQueueDepth.incrementAndGet();
+        int max;
+        while (depth > (max = mMaxQueueDepth.get())) {
+            if (mMaxQueueDepth.compareAndSet(max, depth)) {
+                break;
+            }
+        }
+        EXECUTOR.execute(() -> dispatch(message, enqueueTime));
+    }
+
+    private void dispatch(JSONObject message, long enqueueTime) {
+        Object id = message.opt("id");
+        String method = message.optString("method");
+        JSONObject params = message.optJSONObject("params");
+        if (params == null) {
+            params = new JSONObject();
+        }
+
+        JSONObject response = new JSONObject();
+        try {
+            response.put("id", id);
+            Handler handler = mHandlers.get(method);
+            if (handler == null) {
+                response.put("error", "method not found：" + method);
+            } else {
+                try {
+                    response.put("result", JSONObject.wrap(handler.handle(params)));
+                } catch (Exception e) {
+                    Timber.w(e, "JSBridge handle failed：%s", method);
+                    response.put("error", String.valueOf(e.getMessage()));
+                }
+            }
+        } catch (JSONException e) {
+            // put 方法只有在 key 为空的时候才会抛出
+        }
+
+        long endTime = SystemClock.uptimeMillis();
+        MethodStats stats = mMethodStats.get(method);
+        if (stats == null) {
+            stats = new MethodStats();
+            MethodStats old = mMethodStats.putIfAbsent(method, stats);
+            if (old != null) {
+                stats = old;
+            }
+        }
+        stats.record(endTime - enqueueTime);
+        mQueueDepth.decrementAndGet();
+
+        if (id == null || mReleased) {
+            return;
+        }
+        mResponses.add(response);
+        if (mFlushScheduled.compareAndSet(false, true)) {
+            // 同一帧内的结果合并成一次 evaluateJavascript
+            mChoreographer.postFrameCallback(this);
+        }
+    }
+
+    /**
+     * {@link Choreographer.FrameCallback}
+     */
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        mFlushScheduled.set(false);
+        if (mReleased) {
+            return;
+        }
+        JSONArray array = new JSONArray();
+        JSONObject response;
+        while ((response = mResponses.poll()) != null) {
+            array.put(response);
+        }
+        if (array.length() == 0) {
+            return;
+        }
+        mWebView.evaluateJavascript(CALLBACK_FUNCTION + " && " + CALLBACK_FUNCTION + "(" + array + ");", null);
+    }
+
+    /**
+     * 获取当前正在排队和处理中的消息数量
+     */
+    public int getQueueDepth() {
+        return mQueueDepth.get();
+    }
+
+    /**
+     * 打印每个方法的耗时统计
+     */
+    public void dump() {
+        Timber.i("JSBridge queue = %d，maxQueue = %d", mQueueDepth.get(), mMaxQueueDepth.get());
+        for (Map.Entry<String, MethodStats> entry : mMethodStats.entrySet()) {
+            MethodStats stats = entry.getValue();
+            long count = stats.count.get();
+            Timber.i("JSBridge %s：count = %d，avg = %d ms，max = %d ms", entry.getKey(), count,
+                    count == 0 ? 0 : stats.totalMillis.get() / count, stats.maxMillis.get());
+        }
+    }
+
+    /**
+     * 消息处理器
+     */
+    public interface Handler {
+
+        /**
+         * 处理消息（在子线程中回调）
+         *
+         * @param params        网页传过来的参数
+         * @return              返回给网页的结果，支持 JSONObject、JSONArray、String、Number、Boolean、Map、Collection
+         */
+        @Nullable
+        Object handle(@NonNull JSONObject params) throws Exception;
+    }
+
+    /**
+     * 方法耗时统计（从入队到处理完成）
+     */
+    private static final class MethodStats {
+
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalMillis = new AtomicLong();
+        private final AtomicLong maxMillis = new AtomicLong();
+
+        void record(long millis) {
+            count.incrementAndGet();
+            totalMillis.addAndGet(millis);
+            long max;
+            while (millis > (max = maxMillis.get())) {
+                if (maxMillis.compareAndSet(max, millis)) {
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -17,7 +17,8 @@ public class JSHook {
     @JavascriptInterface
     public void showAndroid(WebView webView) {
         String info = "来自手机内的内容！！！";
-        webView.loadUrl("javascript:show('" + info + "')");
+        // JavascriptInterface 方法运行在 JS 线程，WebView 只能在主线程中操作
+        webView.post(() -> webView.evaluateJavascript("show('" + info + "')", null));
     }
 
     @JavascriptInterface
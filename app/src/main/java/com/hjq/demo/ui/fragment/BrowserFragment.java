@@ -3,6 +3,8 @@ package com.hjq.demo.ui.fragment;
 import android.graphics.Bitmap;
 import android.net.Uri;
 import android.os.Bundle;
+import android.view.KeyEvent;
+import android.view.ViewGroup;
 import android.webkit.WebView;
 
 import androidx.annotation.NonNull;
@@ -13,6 +15,7 @@ import com.hjq.demo.aop.CheckNet;
 import com.hjq.demo.aop.Log;
 import com.hjq.demo.app.AppActivity;
 import com.hjq.demo.app.AppFragment;
+import com.hjq.demo.manager.BrowserViewPool;
 import com.hjq.demo.ui.activity.BrowserActivity;
 import com.hjq.demo.widget.BrowserView;
 import com.hjq.demo.widget.StatusLayout;
@@ -30,12 +33,22 @@ public final class BrowserFragment extends AppFragment<AppActivity>
         implements StatusAction, OnRefreshListener {
 
     private static final String INTENT_KEY_IN_URL = "url";
+    private static final String INTENT_KEY_IN_PLACE = "inPlace";
 
-    @Log
     public static BrowserFragment newInstance(String url) {
+        return newInstance(url, false);
+    }
+
+    /**
+     * @param inPlace           是否在当前 WebView 中打开链接（使用 WebView 自身的历史记录后退），
+     *                          否则每个链接都会打开一个新的浏览器界面
+     */
+    @Log
+    public static BrowserFragment newInstance(String url, boolean inPlace) {
         BrowserFragment fragment = new BrowserFragment();
         Bundle bundle = new Bundle();
         bundle.putString(INTENT_KEY_IN_URL, url);
+        bundle.putBoolean(INTENT_KEY_IN_PLACE, inPlace);
         fragment.setArguments(bundle);
         return fragment;
     }
@@ -53,32 +66,71 @@ public final class BrowserFragment extends AppFragment<AppActivity>
     protected void initView() {
         mStatusLayout = findViewById(R.id.hl_browser_hint);
         mRefreshLayout = findViewById(R.id.sl_browser_refresh);
-        mBrowserView = findViewById(R.id.wv_browser_view);
-
-        // 设置 WebView 生命周期回调
-        mBrowserView.setLifecycleOwner(this);
+        mBrowserView = BrowserViewPool.getInstance().obtain(getAttachActivity());
+        attachBrowserView();
         // 设置网页刷新监听
         mRefreshLayout.setOnRefreshListener(this);
     }
 
     @Override
     protected void initData() {
-        mBrowserView.setBrowserViewClient(new AppBrowserViewClient());
-        mBrowserView.setBrowserChromeClient(new BrowserView.BrowserChromeClient(mBrowserView));
         mBrowserView.loadUrl(getString(INTENT_KEY_IN_URL));
         showLoading();
     }
 
+    /**
+     * 将 BrowserView 添加到界面上
+     */
+    private void attachBrowserView() {
+        ViewGroup containerLayout = findViewById(R.id.fl_browser_container);
+        containerLayout.addView(mBrowserView, new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        mBrowserView.setBrowserViewClient(new AppBrowserViewClient());
+        mBrowserView.setBrowserChromeClient(new BrowserView.BrowserChromeClient(mBrowserView));
+        // 设置 WebView 生命周期回调
+        mBrowserView.setLifecycleOwner(this);
+        // 渲染进程退出之后重建网页
+        mBrowserView.setOnRenderProcessGoneListener(this::recreateBrowserView);
+    }
+
+    /**
+     * 重新创建 BrowserView 并恢复到之前的网页和滚动位置
+     */
+    private void recreateBrowserView(BrowserView view, String url, int scrollY) {
+        getLifecycle().removeObserver(view);
+        // 旧的 BrowserView 已经被销毁了，重建完成之前不能再使用
+        mBrowserView = null;
+        if (getAttachActivity() == null) {
+            return;
+        }
+        mBrowserView = BrowserViewPool.getInstance().obtain(getAttachActivity());
+        attachBrowserView();
+        mBrowserView.loadUrl(url, scrollY);
+    }
+
     @Override
     public StatusLayout getStatusLayout() {
         return mStatusLayout;
     }
 
+    @Override
+    public boolean onKeyDown(int keyCode, KeyEvent event) {
+        // 正在重建的时候 BrowserView 为空
+        if (keyCode == KeyEvent.KEYCODE_BACK && mBrowserView != null && mBrowserView.canGoBack()) {
+            // 后退网页并且拦截该事件
+            mBrowserView.goBack();
+            return true;
+        }
+        return super.onKeyDown(keyCode, event);
+    }
+
     /**
      * 重新加载当前页
      */
     @CheckNet
     private void reload() {
+        if (mBrowserView == null) {
+            return;
+        }
         mBrowserView.reload();
     }
 
@@ -106,13 +158,16 @@ public final class BrowserFragment extends AppFragment<AppActivity>
          * 开始加载网页
          */
         @Override
-        public void onPageStarted(WebView view, String url, Bitmap favicon) {}
+        public void onPageStarted(WebView view, String url, Bitmap favicon) {
+            super.onPageStarted(view, url, favicon);
+        }
 
         /**
          * 完成加载网页
          */
         @Override
         public void onPageFinished(WebView view, String url) {
+            super.onPageFinished(view, url);
             mRefreshLayout.finishRefresh();
             showComplete();
         }
@@ -122,7 +177,12 @@ public final class BrowserFragment extends AppFragment<AppActivity>
          */
         @Override
         public boolean shouldOverrideUrlLoading(WebView view, final String url) {
-            String scheme = Uri.parse(url).getScheme();
+            Uri uri = Uri.parse(url);
+            // 优先交给路由表中配置的原生处理
+            if (dispatchRoute(view, uri)) {
+                return true;
+            }
+            String scheme = uri.getScheme();
             if (scheme == null) {
                 return true;
             }
@@ -130,6 +190,10 @@ public final class BrowserFragment extends AppFragment<AppActivity>
                 // 如果这是跳链接操作
                 case "http":
                 case "https":
+                    if (getBoolean(INTENT_KEY_IN_PLACE)) {
+                        // 交给当前 WebView 加载，避免每个链接都创建一个新的界面和 WebView
+                        return false;
+                    }
                     BrowserActivity.start(getAttachActivity(), url);
                     break;
                 default:
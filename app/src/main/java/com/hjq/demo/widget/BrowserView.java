@@ -2,22 +2,30 @@ package com.hjq.demo.widget;
 
 import android.annotation.TargetApi;
 import android.app.Activity;
+import android.content.ActivityNotFoundException;
 import android.content.ClipData;
 import android.content.Context;
 import android.content.Intent;
+import android.graphics.Bitmap;
 import android.net.Uri;
 import android.net.http.SslError;
 import android.os.Build;
+import android.os.Bundle;
+import android.os.SystemClock;
 import android.text.TextUtils;
 import android.util.AttributeSet;
 import android.webkit.GeolocationPermissions;
 import android.webkit.JsPromptResult;
 import android.webkit.JsResult;
+import android.webkit.RenderProcessGoneDetail;
 import android.webkit.SslErrorHandler;
+import android.webkit.URLUtil;
 import android.webkit.ValueCallback;
+import android.webkit.WebBackForwardList;
 import android.webkit.WebChromeClient;
 import android.webkit.WebResourceError;
 import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
 import android.webkit.WebSettings;
 import android.webkit.WebView;
 import android.webkit.WebViewClient;
@@ -32,10 +40,20 @@ import com.hjq.base.BaseActivity;
 import com.hjq.base.BaseDialog;
 import com.hjq.base.action.ActivityAction;
 import com.hjq.demo.R;
+import com.hjq.demo.http.web.WebInterceptorManager;
+import com.hjq.demo.manager.BrowserMemoryManager;
+import com.hjq.demo.manager.BrowserViewPool;
+import com.hjq.demo.manager.ImageCompressManager;
+import com.hjq.demo.manager.StartupTracer;
+import com.hjq.demo.manager.UrlRouteManager;
+import com.hjq.demo.manager.WebImagePolicyManager;
+import com.hjq.demo.manager.WebSnapshotManager;
+import com.hjq.demo.manager.WebPerformanceMonitor;
 import com.hjq.demo.other.AppConfig;
 import com.hjq.demo.other.PermissionCallback;
 import com.hjq.demo.ui.activity.ImageSelectActivity;
 import com.hjq.demo.ui.activity.VideoSelectActivity;
+import com.hjq.demo.ui.adapter.JSBridge;
 import com.hjq.demo.ui.adapter.JSHook;
 import com.hjq.demo.ui.dialog.InputDialog;
 import com.hjq.demo.ui.dialog.MessageDialog;
@@ -45,6 +63,8 @@ import com.hjq.permissions.XXPermissions;
 import com.hjq.widget.layout.NestedScrollWebView;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import timber.log.Timber;
@@ -62,6 +82,30 @@ public final class BrowserView extends NestedScrollWebView implements LifecycleE
         WebView.setWebContentsDebuggingEnabled(AppConfig.isDebug());
     }
 
+    /** 异步 JS 桥 */
+    private final JSBridge mBridge;
+
+    /** 是否需要清除复用前残留的历史记录 */
+    private boolean mClearHistoryPending;
+
+    /** 当前网页开始加载的时间 */
+    private long mPageStartTime;
+
+    /** 当前网页的图片加载策略 */
+    private volatile String mImagePolicy = WebImagePolicyManager.POLICY_IMMEDIATE;
+
+    /** 当前网页是否已经绘制出来了 */
+    private boolean mPageCommitted;
+    /** 离开界面时保存快照使用的网页地址，为空则不保存 */
+    private String mSnapshotUrl;
+
+    /** 网页加载完成之后需要恢复的滚动位置 */
+    private int mPendingScrollY;
+    /** 渲染进程退出监听 */
+    private OnRenderProcessGoneListener mRenderProcessGoneListener;
+    /** 是否已经销毁 */
+    private boolean mDestroyed;
+
     public BrowserView(Context context) {
         this(context, null);
     }
@@ -88,7 +132,7 @@ public final class BrowserView extends NestedScrollWebView implements LifecycleE
         settings.setJavaScriptEnabled(true);
         // 允许网页弹对话框
         settings.setJavaScriptCanOpenWindowsAutomatically(true);
-        // 加快网页加载完成的速度，等页面完成再加载图片
+        // 自动加载图片，网络图片什么时候开始加载由 WebImagePolicyManager 按照域名控制
         settings.setLoadsImagesAutomatically(true);
         // 本地 DOM 存储（解决加载某些网页出现白板现象）
         settings.setDomStorageEnabled(true);
@@ -98,9 +142,19 @@ public final class BrowserView extends NestedScrollWebView implements LifecycleE
             settings.setMixedContentMode(WebSettings.MIXED_CONTENT_ALWAYS_ALLOW);
         }
         addJavascriptInterface(new JSHook(), "hook");
+        mBridge = new JSBridge(this);
+        addJavascriptInterface(mBridge, JSBridge.NAME);
+        // 接收网页上报的加载性能数据
+        mBridge.registerHandler(WebPerformanceMonitor.BRIDGE_METHOD, params -> {
+            WebPerformanceMonitor.getInstance().onTimingReport(params, WebImagePolicyManager.getVariant(mImagePolicy));
+            return null;
+        });
         // 不显示滚动条
         setVerticalScrollBarEnabled(false);
         setHorizontalScrollBarEnabled(false);
+
+        BrowserMemoryManager.getInstance().register(this);
+        StartupTracer.getInstance().mark(StartupTracer.PHASE_BROWSER_VIEW_CREATED);
     }
 
     /**
@@ -136,6 +190,74 @@ public final class BrowserView extends NestedScrollWebView implements LifecycleE
         return originalUrl;
     }
 
+    /**
+     * 从复用池中取出时调用，在下一个页面记录到历史之后清除之前残留的历史记录
+     */
+    public void prepareReuse() {
+        mClearHistoryPending = true;
+        // 复用前加载的是空白页，不算绘制出了网页
+        mPageCommitted = false;
+        mBridge.restore();
+    }
+
+    /**
+     * 恢复冻结前保存的状态，恢复的历史记录不能被复用前的清除逻辑清掉
+     */
+    @Override
+    public WebBackForwardList restoreState(Bundle inState) {
+        mClearHistoryPending = false;
+        return super.restoreState(inState);
+    }
+
+    /**
+     * 加载网页并在加载完成之后恢复到指定的滚动位置（用于渲染进程崩溃之后重建网页）
+     */
+    public void loadUrl(String url, int scrollY) {
+        mPendingScrollY = scrollY;
+        loadUrl(url);
+    }
+
+    /**
+     * 设置渲染进程退出监听，没有设置的话网页会直接被移除
+     */
+    public void setOnRenderProcessGoneListener(OnRenderProcessGoneListener listener) {
+        mRenderProcessGoneListener = listener;
+    }
+
+    public OnRenderProcessGoneListener getOnRenderProcessGoneListener() {
+        return mRenderProcessGoneListener;
+    }
+
+    /**
+     * 设置离开界面时保存快照（下次打开这个网页时可以先显示快照）
+     */
+    public void setSnapshotUrl(String url) {
+        mSnapshotUrl = url;
+    }
+
+    /**
+     * 当前网页是否已经绘制出来了
+     */
+    public boolean isPageCommitted() {
+        return mPageCommitted;
+    }
+
+    /**
+     * 开始加载网络图片
+     */
+    private void releaseNetworkImages() {
+        if (getSettings().getBlockNetworkImage()) {
+            getSettings().setBlockNetworkImage(false);
+        }
+    }
+
+    /**
+     * 获取异步 JS 桥
+     */
+    public JSBridge getBridge() {
+        return mBridge;
+    }
+
     /**
      * 设置 WebView 生命管控（自动回调生命周期方法）
      */
@@ -154,6 +276,10 @@ public final class BrowserView extends NestedScrollWebView implements LifecycleE
                 onResume();
                 break;
             case ON_STOP:
+                // 网页内跳转之后显示的已经不是首页了，这时候不能保存成首页的快照
+                if (mSnapshotUrl != null && mPageCommitted && mSnapshotUrl.equals(getUrl())) {
+                    WebSnapshotManager.getInstance().capture(this, mSnapshotUrl);
+                }
                 onPause();
                 break;
             case ON_DESTROY:
@@ -168,6 +294,10 @@ public final class BrowserView extends NestedScrollWebView implements LifecycleE
      * 销毁 WebView
      */
     public void onDestroy() {
+        // 渲染进程退出的时候已经被销毁了
+        if (mDestroyed) {
+            return;
+        }
         // 停止加载网页
         stopLoading();
         // 清除历史记录
@@ -175,10 +305,25 @@ public final class BrowserView extends NestedScrollWebView implements LifecycleE
         // 取消监听引用
         setBrowserChromeClient(null);
         setBrowserViewClient(null);
+        // 丢弃还没有回传给网页的结果
+        mBridge.release();
+        mSnapshotUrl = null;
+        // 复用池中的 WebView 不能再引用之前的持有者（构造时注册的 hook 接口没有状态，复用时保留）
+        mRenderProcessGoneListener = null;
         // 移除WebView所有的View对象
         removeAllViews();
-        // 销毁此的WebView的内部状态
-        destroy();
+        // 优先回收到复用池中，回收失败再销毁此的WebView的内部状态
+        if (!BrowserViewPool.getInstance().recycle(this)) {
+            destroy();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        mDestroyed = true;
+        mRenderProcessGoneListener = null;
+        BrowserMemoryManager.getInstance().unregister(this);
+        super.destroy();
     }
 
     /**
@@ -209,6 +354,101 @@ public final class BrowserView extends NestedScrollWebView implements LifecycleE
 
     public static class BrowserViewClient extends WebViewClient {
 
+        /**
+         * 更新历史记录
+         */
+        @Override
+        public void doUpdateVisitedHistory(WebView view, String url, boolean isReload) {
+            super.doUpdateVisitedHistory(view, url, isReload);
+            if (!(view instanceof BrowserView) || "about:blank".equals(url)) {
+                return;
+            }
+            BrowserView browserView = (BrowserView) view;
+            if (browserView.mClearHistoryPending) {
+                browserView.mClearHistoryPending = false;
+                // 清除复用之前留下的空白页记录
+                view.clearHistory();
+            }
+        }
+
+        /**
+         * 开始加载网页（子类重写的时候需要调用 super，否则统计不到加载耗时）
+         */
+        @Override
+        public void onPageStarted(WebView view, String url, Bitmap favicon) {
+            super.onPageStarted(view, url, favicon);
+            if (!(view instanceof BrowserView)) {
+                return;
+            }
+            BrowserView browserView = (BrowserView) view;
+            browserView.mPageStartTime = SystemClock.uptimeMillis();
+            if (URLUtil.isNetworkUrl(url)) {
+                // 复用池预加载的空白页不算
+                StartupTracer.getInstance().mark(StartupTracer.PHASE_PAGE_STARTED);
+            }
+            browserView.mPageCommitted = false;
+            // 按照域名配置的策略决定是否先不加载网络图片
+            browserView.mImagePolicy = WebImagePolicyManager.getInstance().getPolicy(url);
+            view.getSettings().setBlockNetworkImage(!WebImagePolicyManager.POLICY_IMMEDIATE.equals(browserView.mImagePolicy));
+        }
+
+        /**
+         * 网页内容已经可以绘制（子类重写的时候需要调用 super，否则图片可能要等到网页加载完成才会加载）
+         */
+        @TargetApi(Build.VERSION_CODES.M)
+        @Override
+        public void onPageCommitVisible(WebView view, String url) {
+            super.onPageCommitVisible(view, url);
+            if (view instanceof BrowserView) {
+                ((BrowserView) view).mPageCommitted = true;
+            }
+            if (view instanceof BrowserView && WebImagePolicyManager.POLICY_AFTER_COMMIT.equals(((BrowserView) view).mImagePolicy)) {
+                ((BrowserView) view).releaseNetworkImages();
+            }
+        }
+
+        /**
+         * 完成加载网页（子类重写的时候需要调用 super，否则统计不到加载耗时）
+         */
+        @Override
+        public void onPageFinished(WebView view, String url) {
+            super.onPageFinished(view, url);
+            if (!(view instanceof BrowserView)) {
+                return;
+            }
+            BrowserView browserView = (BrowserView) view;
+            browserView.mPageCommitted = true;
+            if (URLUtil.isNetworkUrl(url)) {
+                StartupTracer.getInstance().finish();
+            }
+            // 同一个网页可能会多次回调 onPageFinished，只统计第一次
+            if (browserView.mPageStartTime > 0) {
+                WebPerformanceMonitor.getInstance().onPageLoaded(url, WebImagePolicyManager.getVariant(browserView.mImagePolicy), browserView.mPageStartTime, SystemClock.uptimeMillis());
+                browserView.mPageStartTime = 0;
+            }
+            // 不管是什么策略，网页加载完成之后都要开始加载图片
+            browserView.releaseNetworkImages();
+            if (browserView.mPendingScrollY > 0) {
+                int scrollY = browserView.mPendingScrollY;
+                browserView.mPendingScrollY = 0;
+                // 等网页排版完成之后再滚动
+                view.post(() -> view.scrollTo(0, scrollY));
+            }
+            view.evaluateJavascript(WebPerformanceMonitor.getInstance().getTimingScript(), null);
+        }
+
+        /**
+         * 渲染进程退出（如果不处理的话会导致应用崩溃）
+         */
+        @TargetApi(Build.VERSION_CODES.O)
+        @Override
+        public boolean onRenderProcessGone(WebView view, RenderProcessGoneDetail detail) {
+            if (!(view instanceof BrowserView)) {
+                return super.onRenderProcessGone(view, detail);
+            }
+            return BrowserMemoryManager.getInstance().onRenderProcessGone((BrowserView) view, detail);
+        }
+
         /**
          * 网站证书校验错误
          */
@@ -253,6 +493,18 @@ public final class BrowserView extends NestedScrollWebView implements LifecycleE
             super.onReceivedError(view, errorCode, description, failingUrl);
         }
 
+        /**
+         * 拦截资源请求（在 WebView 的子线程中回调）
+         */
+        @Override
+        public WebResourceResponse shouldInterceptRequest(WebView view, WebResourceRequest request) {
+            WebResourceResponse response = WebInterceptorManager.intercept(view, request);
+            if (response != null) {
+                return response;
+            }
+            return super.shouldInterceptRequest(view, request);
+        }
+
         /**
          * 同名 API 兼容
          */
@@ -268,7 +520,12 @@ public final class BrowserView extends NestedScrollWebView implements LifecycleE
         @Override
         public boolean shouldOverrideUrlLoading(WebView view, String url) {
             Timber.i("WebView shouldOverrideUrlLoading：%s", url);
-            String scheme = Uri.parse(url).getScheme();
+            Uri uri = Uri.parse(url);
+            // 优先交给路由表中配置的原生处理
+            if (dispatchRoute(view, uri)) {
+                return true;
+            }
+            String scheme = uri.getScheme();
             if (scheme == null) {
                 return false;
             }
@@ -278,16 +535,60 @@ public final class BrowserView extends NestedScrollWebView implements LifecycleE
                 case "https":
                     view.loadUrl(url);
                     break;
-                // 如果这是打电话操作
-                case "tel":
-                    dialing(view, url);
-                    break;
                 default:
                     break;
             }
             return true;
         }
 
+        /**
+         * 按照路由表分发链接
+         *
+         * @return          是否已经被原生处理
+         */
+        protected boolean dispatchRoute(WebView view, Uri uri) {
+            String handler = UrlRouteManager.getInstance().match(uri);
+            return handler != null && onRoute(view, uri, handler);
+        }
+
+        /**
+         * 处理路由表匹配到的链接，子类可以重写来支持更多的处理器
+         *
+         * @param handler       路由表中配置的处理器名称
+         * @return              是否已经处理
+         */
+        protected boolean onRoute(WebView view, Uri uri, String handler) {
+            switch (handler) {
+                // 如果这是打电话操作
+                case UrlRouteManager.HANDLER_DIALER:
+                    dialing(view, uri.toString());
+                    return true;
+                // 如果这是打开其他应用操作
+                case UrlRouteManager.HANDLER_EXTERNAL:
+                    openExternal(view, uri);
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        /**
+         * 交给外部应用打开
+         */
+        protected void openExternal(WebView view, Uri uri) {
+            Context context = view.getContext();
+            if (context == null) {
+                return;
+            }
+            Intent intent = new Intent(Intent.ACTION_VIEW, uri);
+            intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+            try {
+                context.startActivity(intent);
+            } catch (ActivityNotFoundException e) {
+                Timber.w(e, "WebView openExternal failed：%s", uri);
+            }
+        }
+
         /**
          * 跳转到拨号界面
          */
@@ -463,11 +764,12 @@ public final class BrowserView extends NestedScrollWebView implements LifecycleE
 
                                 @Override
                                 public void onSelected(List<String> data) {
-                                    Uri[] uri = new Uri[data.size()];
-                                    for (int i = 0; i < data.size(); i++) {
-                                        uri[i] = Uri.fromFile(new File(data.get(i)));
+                                    List<Uri> uris = new ArrayList<>(data.size());
+                                    for (String path : data) {
+                                        uris.add(Uri.fromFile(new File(path)));
                                     }
-                                    callback.onReceiveValue(uri);
+                                    // 压缩之后再上传给网页
+                                    ImageCompressManager.getInstance().compress(activity, uris, result -> callback.onReceiveValue(result.toArray(new Uri[0])));
                                 }
 
                                 @Override
@@ -521,8 +823,28 @@ public final class BrowserView extends NestedScrollWebView implements LifecycleE
                     }
                 }
                 // 不管用户最后有没有选择文件，最后必须要调用 onReceiveValue，如果没有调用就会导致网页再次点击上传无响应
-                callback.onReceiveValue(uris);
+                if (uris == null) {
+                    callback.onReceiveValue(null);
+                    return;
+                }
+                // 选中的图片压缩之后再上传给网页（其他类型的文件会原样返回）
+                ImageCompressManager.getInstance().compress(activity, Arrays.asList(uris), result -> callback.onReceiveValue(result.toArray(new Uri[0])));
             });
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 渲染进程退出监听
+     */
+    public interface OnRenderProcessGoneListener {
+
+        /**
+         * 渲染进程退出，旧的 BrowserView 已经被移除并且销毁
+         *
+         * @param view          已经销毁的 BrowserView
+         * @param url           退出前的网页地址
+         * @param scrollY       退出前的滚动位置
+         */
+        void onRenderProcessGone(BrowserView view, String url, int scrollY);
+    }
+}
@@ -0,0 +1,100 @@
+package com.hjq.demo.widget;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.Context;
+import android.graphics.Color;
+import android.os.Bundle;
+import android.util.TypedValue;
+import android.view.Gravity;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.appcompat.widget.AppCompatTextView;
+
+import com.hjq.demo.manager.ExecutorMonitor;
+import com.hjq.demo.ui.activity.StallActivity;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : 调试浮层（在界面底部显示线程池的统计数据，点击打开卡顿记录，只在调试模式下使用）
+ */
+public final class DebugOverlayView extends AppCompatTextView implements Runnable {
+
+    /** 刷新间隔 */
+    private static final long REFRESH_INTERVAL = 1000;
+
+    /**
+     * 给所有的 Activity 添加调试浮层
+     */
+    public static void install(Application application) {
+        application.registerActivityLifecycleCallbacks(new Application.ActivityLifecycleCallbacks() {
+
+            @Override
+            public void onActivityCreated(@NonNull Activity activity, @Nullable Bundle savedInstanceState) {}
+
+            @Override
+            public void onActivityStarted(@NonNull Activity activity) {}
+
+            @Override
+            public void onActivityResumed(@NonNull Activity activity) {
+                if (activity instanceof StallActivity) {
+                    return;
+                }
+                ViewGroup contentView = activity.findViewById(android.R.id.content);
+                if (contentView == null || contentView.findViewWithTag(DebugOverlayView.class) != null) {
+                    return;
+                }
+                FrameLayout.LayoutParams layoutParams = new FrameLayout.LayoutParams(
+                        ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT, Gravity.BOTTOM);
+                contentView.addView(new DebugOverlayView(activity), layoutParams);
+            }
+
+            @Override
+            public void onActivityPaused(@NonNull Activity activity) {}
+
+            @Override
+            public void onActivityStopped(@NonNull Activity activity) {}
+
+            @Override
+            public void onActivitySaveInstanceState(@NonNull Activity activity, @NonNull Bundle outState) {}
+
+            @Override
+            public void onActivityDestroyed(@NonNull Activity activity) {}
+        });
+    }
+
+    public DebugOverlayView(Context context) {
+        super(context);
+        setTag(DebugOverlayView.class);
+        setTextSize(TypedValue.COMPLEX_UNIT_SP, 9);
+        setTextColor(Color.WHITE);
+        setBackgroundColor(0x99000000);
+        int padding = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 4, getResources().getDisplayMetrics());
+        setPadding(padding, padding, padding, padding);
+        setFocusable(false);
+        setOnClickListener(v -> StallActivity.start(getContext()));
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        run();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        removeCallbacks(this);
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    public void run() {
+        setText(ExecutorMonitor.getInstance().getSummary());
+        postDelayed(this, REFRESH_INTERVAL);
+    }
+}
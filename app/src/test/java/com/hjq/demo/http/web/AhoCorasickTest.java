@@ -0,0 +1,81 @@
+package com.hjq.demo.http.web;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : Aho-Corasick 多模式匹配测试
+ */
+public final class AhoCorasickTest {
+
+    private static AhoCorasick create(String... keywords) {
+        AhoCorasick matcher = new AhoCorasick();
+        for (int i = 0; i < keywords.length; i++) {
+            matcher.add(keywords[i], i);
+        }
+        matcher.build();
+        return matcher;
+    }
+
+    /**
+     * 找出所有的匹配，格式为 "id@结束位置"
+     */
+    private static List<String> searchAll(AhoCorasick matcher, String text) {
+        List<String> matches = new ArrayList<>();
+        matcher.search(text, (id, end) -> {
+            matches.add(id + "@" + end);
+            return false;
+        });
+        return matches;
+    }
+
+    @Test
+    public void findsOverlappingKeywords() {
+        AhoCorasick matcher = create("he", "she", "his", "hers");
+        // ushers：she 和 he 在同一个位置结束，hers 在最后结束
+        assertEquals(Arrays.asList("1@4", "0@4", "3@6"), searchAll(matcher, "ushers"));
+    }
+
+    @Test
+    public void followsFailLinksAcrossBranches() {
+        AhoCorasick matcher = create("abcd", "bce", "c");
+        assertEquals(Arrays.asList("2@3", "1@4"), searchAll(matcher, "abce"));
+    }
+
+    @Test
+    public void reportsEveryIdOfDuplicateKeyword() {
+        AhoCorasick matcher = create("ads", "ads");
+        assertEquals(Arrays.asList("0@11", "1@11"), searchAll(matcher, "/static/ads"));
+    }
+
+    @Test
+    public void returnsFalseWithoutMatch() {
+        AhoCorasick matcher = create("tracker", "banner");
+        assertFalse(matcher.search("https://example.com/index.html", (id, end) -> true));
+    }
+
+    @Test
+    public void stopsWhenListenerReturnsTrue() {
+        AhoCorasick matcher = create("a");
+        int[] count = new int[1];
+        assertTrue(matcher.search("aaaa", (id, end) -> ++count[0] == 2));
+        assertEquals(2, count[0]);
+    }
+
+    @Test
+    public void emptyMatcherHasOnlyRoot() {
+        AhoCorasick matcher = create();
+        assertEquals(1, matcher.size());
+        assertFalse(matcher.search("anything", (id, end) -> true));
+    }
+}
@@ -0,0 +1,139 @@
+package com.hjq.demo.http.web;
+
+import android.net.Uri;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : 网页拦截规则匹配测试
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public final class WebBlockFilterTest {
+
+    private static final String RULES =
+            "! 注释\n" +
+            "[Adblock Plus 2.0]\n" +
+            "example.com##.banner\n" +
+            "||ads.example.com^\n" +
+            "@@||good.ads.example.com^\n" +
+            "/banner/*.gif\n" +
+            "||cdn.track.com/pixel^\n" +
+            "||tracker.net/collect\n" +
+            "|https://start.com/ad\n" +
+            ".swf|\n" +
+            "/adv^\n" +
+            "/pixel.js$third-party\n" +
+            "/first.js$~third-party\n" +
+            "/domain-option.js$domain=example.com\n" +
+            "/script.js$script,~image\n";
+
+    private final WebBlockFilter mFilter = WebBlockFilter.getInstance();
+
+    @Before
+    public void setUp() throws IOException {
+        mFilter.load(new ByteArrayInputStream(RULES.getBytes(Charset.forName("UTF-8"))));
+    }
+
+    private boolean shouldBlock(String url) {
+        return shouldBlock(url, null);
+    }
+
+    private boolean shouldBlock(String url, String referer) {
+        return mFilter.shouldBlock(Uri.parse(url), referer);
+    }
+
+    @Test
+    public void domainRuleMatchesHostAndSubdomains() {
+        assertTrue(shouldBlock("https://ads.example.com/a.js"));
+        assertTrue(shouldBlock("https://x.ads.example.com/a.js"));
+        assertTrue(shouldBlock("https://ADS.Example.com/a.js"));
+        assertFalse(shouldBlock("https://example.com/a.js"));
+        assertFalse(shouldBlock("https://badads.example.com/a.js"));
+    }
+
+    @Test
+    public void allowRuleOverridesBlockRule() {
+        assertFalse(shouldBlock("https://good.ads.example.com/a.js"));
+        assertFalse(shouldBlock("https://x.good.ads.example.com/a.js"));
+    }
+
+    @Test
+    public void wildcardMatchesAnyCharacters() {
+        assertTrue(shouldBlock("https://a.com/banner/x/y.gif"));
+        assertTrue(shouldBlock("https://a.com/static/banner/.gif"));
+        assertFalse(shouldBlock("https://a.com/banner.gif"));
+    }
+
+    @Test
+    public void hostAnchorOnlyMatchesAtLabelBoundary() {
+        assertTrue(shouldBlock("https://cdn.track.com/pixel"));
+        assertTrue(shouldBlock("https://img.cdn.track.com/pixel?x=1"));
+        assertFalse(shouldBlock("https://notcdn.track.com/pixel"));
+        assertFalse(shouldBlock("https://a.com/?u=cdn.track.com/pixel"));
+    }
+
+    @Test
+    public void hostAnchorUsesHostFromAuthority() {
+        // 用户信息和 host 相同的时候，要从真正的 host 开始匹配
+        assertTrue(shouldBlock("https://tracker.net@tracker.net/collect"));
+        assertFalse(shouldBlock("https://a.com/tracker.net/collect"));
+    }
+
+    @Test
+    public void startAndEndAnchor() {
+        assertTrue(shouldBlock("https://start.com/ad/1.js"));
+        assertFalse(shouldBlock("http://a.com/?u=https://start.com/ad"));
+        assertTrue(shouldBlock("https://a.com/x.swf"));
+        assertFalse(shouldBlock("https://a.com/x.swf?v=1"));
+    }
+
+    @Test
+    public void separatorMatchesNonWordCharacterOrEnd() {
+        assertTrue(shouldBlock("https://a.com/adv"));
+        assertTrue(shouldBlock("https://a.com/adv?x=1"));
+        assertTrue(shouldBlock("https://a.com/adv/1.js"));
+        assertFalse(shouldBlock("https://a.com/advice"));
+        assertFalse(shouldBlock("https://a.com/adv.js"));
+    }
+
+    @Test
+    public void thirdPartyOption() {
+        assertTrue(shouldBlock("https://stats.other.com/pixel.js", "https://www.site.com/"));
+        assertFalse(shouldBlock("https://stats.site.com/pixel.js", "https://www.site.com/"));
+        assertFalse(shouldBlock("https://stats.other.com/pixel.js", null));
+
+        assertTrue(shouldBlock("https://static.site.com/first.js", "https://www.site.com/"));
+        assertFalse(shouldBlock("https://static.other.com/first.js", "https://www.site.com/"));
+    }
+
+    @Test
+    public void thirdPartyOptionUnderMultiLabelSuffix() {
+        // 不同的网站只是共用了 com.cn 这个后缀，应该算作第三方
+        assertTrue(shouldBlock("https://stats.other.com.cn/pixel.js", "https://www.site.com.cn/"));
+        assertFalse(shouldBlock("https://stats.site.com.cn/pixel.js", "https://www.site.com.cn/"));
+        assertTrue(shouldBlock("https://stats.other.co.uk/pixel.js", "https://www.site.co.uk/"));
+    }
+
+    @Test
+    public void unsupportedRulesAreSkipped() {
+        // 带有 $domain= 选项的规则和元素隐藏规则都不会生效，资源类型选项会被忽略
+        assertFalse(shouldBlock("https://a.com/domain-option.js"));
+        assertFalse(shouldBlock("https://example.com/banner"));
+        assertTrue(shouldBlock("https://a.com/script.js"));
+    }
+}
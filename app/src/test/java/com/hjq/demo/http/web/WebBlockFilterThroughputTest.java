@@ -0,0 +1,117 @@
+package com.hjq.demo.http.web;
+
+import android.net.Uri;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : 网页拦截规则匹配吞吐量测试（用生成的 EasyList 规模的规则和请求语料）
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public final class WebBlockFilterThroughputTest {
+
+    /** 域名规则数量 */
+    private static final int DOMAIN_RULE_COUNT = 12000;
+    /** 路径规则数量 */
+    private static final int PATH_RULE_COUNT = 6000;
+    /** 白名单规则数量（白名单覆盖前面这些域名） */
+    private static final int ALLOW_RULE_COUNT = 1000;
+    /** 请求语料数量 */
+    private static final int URL_COUNT = 10000;
+    /** 平均每次判断的耗时上限，只用来发现退化成逐条规则匹配的情况 */
+    private static final long MAX_NANOS_PER_REQUEST = 200_000;
+
+    private static String domain(int index) {
+        return "ads" + index + ".tracker" + (index % 50) + ".com";
+    }
+
+    private static String rules() {
+        StringBuilder builder = new StringBuilder("[Adblock Plus 2.0]\n! 生成的规则\n");
+        for (int i = 0; i < DOMAIN_RULE_COUNT; i++) {
+            builder.append("||").append(domain(i)).append("^\n");
+        }
+        for (int i = 0; i < PATH_RULE_COUNT; i++) {
+            builder.append("/promo-").append(i).append("/*.gif\n");
+        }
+        for (int i = 0; i < ALLOW_RULE_COUNT; i++) {
+            builder.append("@@||").append(domain(i)).append("^\n");
+        }
+        return builder.toString();
+    }
+
+    @Test
+    public void corpusThroughput() throws IOException {
+        WebBlockFilter filter = WebBlockFilter.getInstance();
+        long loadStart = System.nanoTime();
+        filter.load(new ByteArrayInputStream(rules().getBytes(Charset.forName("UTF-8"))));
+        long loadMillis = (System.nanoTime() - loadStart) / 1_000_000;
+
+        // 生成请求语料，同时记录每个请求是否应该被拦截（Uri 提前解析好，不计入匹配耗时）
+        Random random = new Random(20261018);
+        List<Uri> uris = new ArrayList<>(URL_COUNT);
+        int expectedBlocked = 0;
+        for (int i = 0; i < URL_COUNT; i++) {
+            String url;
+            boolean blocked;
+            switch (random.nextInt(4)) {
+                case 0:
+                    int index = random.nextInt(DOMAIN_RULE_COUNT);
+                    url = "https://" + domain(index) + "/collect.js?t=" + i;
+                    blocked = index >= ALLOW_RULE_COUNT;
+                    break;
+                case 1:
+                    url = "https://cdn" + i + ".site.com/promo-" + random.nextInt(PATH_RULE_COUNT) + "/img/" + i + ".gif";
+                    blocked = true;
+                    break;
+                case 2:
+                    url = "https://cdn" + i + ".site.com/promo-" + random.nextInt(PATH_RULE_COUNT) + "/img/" + i + ".png";
+                    blocked = false;
+                    break;
+                default:
+                    url = "https://www.site" + i + ".com/article/" + i + "?from=" + domain(random.nextInt(DOMAIN_RULE_COUNT));
+                    blocked = false;
+                    break;
+            }
+            uris.add(Uri.parse(url));
+            if (blocked) {
+                expectedBlocked++;
+            }
+        }
+
+        long nanos = 0;
+        // 第一轮用来预热
+        for (int round = 0; round < 3; round++) {
+            int blockedCount = 0;
+            long start = System.nanoTime();
+            for (Uri uri : uris) {
+                if (filter.shouldBlock(uri, null)) {
+                    blockedCount++;
+                }
+            }
+            nanos = System.nanoTime() - start;
+            assertEquals(expectedBlocked, blockedCount);
+        }
+
+        long nanosPerRequest = nanos / URL_COUNT;
+        System.out.printf("WebBlockFilter %d rules loaded in %d ms；%d requests, %d blocked, %d ns/request%n",
+                DOMAIN_RULE_COUNT + PATH_RULE_COUNT + ALLOW_RULE_COUNT, loadMillis, URL_COUNT, expectedBlocked, nanosPerRequest);
+        assertTrue("too slow：" + nanosPerRequest + " ns/request", nanosPerRequest < MAX_NANOS_PER_REQUEST);
+    }
+}
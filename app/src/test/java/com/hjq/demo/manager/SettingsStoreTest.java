@@ -0,0 +1,268 @@
+package com.hjq.demo.manager;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : 配置存储测试
+ */
+public final class SettingsStoreTest {
+
+    private SettingsStore.MemoryBackend mBackend;
+    private SettingsStore mStore;
+
+    @Before
+    public void setUp() {
+        mBackend = new SettingsStore.MemoryBackend();
+        mStore = new SettingsStore(mBackend);
+    }
+
+    @Test
+    public void readsThroughAndCaches() {
+        mBackend.putInt("count", 1);
+        assertEquals(1, mStore.getInt("count", 0));
+        // 读过之后以缓存为准
+        mBackend.putInt("count", 2);
+        assertEquals(1, mStore.getInt("count", 0));
+    }
+
+    @Test
+    public void absentKeyReturnsDefault() {
+        assertEquals("default", mStore.getString("name", "default"));
+        assertNull(mStore.getString("name", null));
+        assertFalse(mStore.getBoolean("flag", false));
+        assertTrue(mStore.getBoolean("flag", true));
+    }
+
+    @Test
+    public void writeIsVisibleBeforeFlush() {
+        mStore.putString("name", "value");
+        assertEquals("value", mStore.getString("name", null));
+        assertFalse(mBackend.contains("name"));
+
+        mStore.flush();
+        assertEquals("value", mBackend.getString("name", null));
+    }
+
+    @Test
+    public void writeOverridesAbsentCache() {
+        assertEquals(0, mStore.getInt("count", 0));
+        mStore.putInt("count", 5);
+        assertEquals(5, mStore.getInt("count", 0));
+    }
+
+    @Test
+    public void allTypesRoundTrip() {
+        mStore.putBoolean("boolean", true);
+        mStore.putInt("int", -7);
+        mStore.putLong("long", Long.MAX_VALUE);
+        mStore.putFloat("float", 1.5f);
+        mStore.putString("string", "中文");
+        mStore.flush();
+
+        SettingsStore store = new SettingsStore(mBackend);
+        assertTrue(store.getBoolean("boolean", false));
+        assertEquals(-7, store.getInt("int", 0));
+        assertEquals(Long.MAX_VALUE, store.getLong("long", 0));
+        assertEquals(1.5f, store.getFloat("float", 0), 0);
+        assertEquals("中文", store.getString("string", null));
+    }
+
+    @Test
+    public void removeDeletesOnFlush() {
+        mBackend.putString("name", "value");
+        mBackend.putString("other", "value");
+        assertEquals("value", mStore.getString("name", null));
+
+        mStore.remove("name");
+        mStore.putString("other", null);
+        assertNull(mStore.getString("name", null));
+        assertNull(mStore.getString("other", null));
+        assertTrue(mBackend.contains("name"));
+
+        mStore.flush();
+        assertFalse(mBackend.contains("name"));
+        assertFalse(mBackend.contains("other"));
+    }
+
+    @Test
+    public void lastWriteWinsOnFlush() {
+        mStore.putInt("count", 1);
+        mStore.putInt("count", 2);
+        mStore.remove("count");
+        mStore.putInt("count", 3);
+        mStore.flush();
+        assertEquals(3, mBackend.getInt("count", 0));
+    }
+
+    @Test
+    public void listenerIsNotifiedOnlyOnChange() {
+        List<String> keys = new ArrayList<>();
+        SettingsStore.OnChangeListener listener = (store, key) -> keys.add(key);
+        mStore.addOnChangeListener(listener);
+
+        mStore.putInt("count", 1);
+        mStore.putInt("count", 1);
+        mStore.putString("name", "value");
+        mStore.remove("name");
+        mStore.remove("name");
+        assertEquals(Arrays.asList("count", "name", "name"), keys);
+
+        mStore.removeOnChangeListener(listener);
+        mStore.putInt("count", 2);
+        assertEquals(3, keys.size());
+    }
+
+    @Test
+    public void flushesAutomatically() throws InterruptedException {
+        mStore.putInt("count", 1);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!mBackend.contains("count") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(1, mBackend.getInt("count", 0));
+    }
+
+    @Test
+    public void flushWithoutChangesIsNoop() {
+        mStore.flush();
+        mBackend.putInt("count", 1);
+        mStore.flush();
+        assertEquals(1, mBackend.getInt("count", 0));
+    }
+
+    /**
+     * 对比频繁读写同一批 key 的时候，直接读写存储后端和通过 SettingsStore 读写的后端调用次数和耗时
+     */
+    @Test
+    public void cachedStoreIsCheaperThanDirectBackend() {
+        int keyCount = 20;
+        int iterations = 20000;
+        String[] keys = new String[keyCount];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "key_" + i;
+        }
+
+        CountingBackend direct = new CountingBackend();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            String key = keys[i % keyCount];
+            direct.putInt(key, i);
+            assertEquals(i, direct.getInt(key, -1));
+        }
+        long directNanos = System.nanoTime() - start;
+
+        CountingBackend backend = new CountingBackend();
+        SettingsStore store = new SettingsStore(backend);
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            String key = keys[i % keyCount];
+            store.putInt(key, i);
+            assertEquals(i, store.getInt(key, -1));
+        }
+        store.flush();
+        long storeNanos = System.nanoTime() - start;
+
+        System.out.printf("SettingsStore %d reads + %d writes：direct = %d backend calls, %d ns/op；store = %d backend calls, %d ns/op%n",
+                iterations, iterations, direct.mCalls.get(), directNanos / iterations, backend.mCalls.get(), storeNanos / iterations);
+        // 读取命中内存缓存，写入合并之后落盘，后端调用次数要少一个数量级（耗时和机器有关，只打印不断言）
+        assertTrue(backend.mCalls.get() * 10 < direct.mCalls.get());
+        for (int i = 0; i < keyCount; i++) {
+            assertEquals(iterations - keyCount + i, backend.getInt(keys[i], -1));
+        }
+    }
+
+    /**
+     * 记录调用次数的存储后端
+     */
+    private static final class CountingBackend implements SettingsStore.Backend {
+
+        private final SettingsStore.MemoryBackend mBackend = new SettingsStore.MemoryBackend();
+        private final AtomicInteger mCalls = new AtomicInteger();
+
+        @Override
+        public boolean contains(String key) {
+            mCalls.incrementAndGet();
+            return mBackend.contains(key);
+        }
+
+        @Override
+        public boolean getBoolean(String key, boolean defaultValue) {
+            mCalls.incrementAndGet();
+            return mBackend.getBoolean(key, defaultValue);
+        }
+
+        @Override
+        public int getInt(String key, int defaultValue) {
+            mCalls.incrementAndGet();
+            return mBackend.getInt(key, defaultValue);
+        }
+
+        @Override
+        public long getLong(String key, long defaultValue) {
+            mCalls.incrementAndGet();
+            return mBackend.getLong(key, defaultValue);
+        }
+
+        @Override
+        public float getFloat(String key, float defaultValue) {
+            mCalls.incrementAndGet();
+            return mBackend.getFloat(key, defaultValue);
+        }
+
+        @Override
+        public String getString(String key, String defaultValue) {
+            mCalls.incrementAndGet();
+            return mBackend.getString(key, defaultValue);
+        }
+
+        @Override
+        public void putBoolean(String key, boolean value) {
+            mCalls.incrementAndGet();
+            mBackend.putBoolean(key, value);
+        }
+
+        @Override
+        public void putInt(String key, int value) {
+            mCalls.incrementAndGet();
+            mBackend.putInt(key, value);
+        }
+
+        @Override
+        public void putLong(String key, long value) {
+            mCalls.incrementAndGet();
+            mBackend.putLong(key, value);
+        }
+
+        @Override
+        public void putFloat(String key, float value) {
+            mCalls.incrementAndGet();
+            mBackend.putFloat(key, value);
+        }
+
+        @Override
+        public void putString(String key, String value) {
+            mCalls.incrementAndGet();
+            mBackend.putString(key, value);
+        }
+
+        @Override
+        public void remove(String key) {
+            mCalls.incrementAndGet();
+            mBackend.remove(key);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.hjq.demo.manager;
+
+import com.hjq.demo.other.BinaryCodec;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.nio.charset.Charset;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : 启动记录存储格式测试
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public final class StartupTracerTest {
+
+    /** 一次冷启动中记录的阶段 */
+    private static final String[] PHASES = {
+            StartupTracer.PHASE_ATTACH_BASE_CONTEXT,
+            StartupTracer.PHASE_INIT_PREFIX + "CrashHandler",
+            StartupTracer.PHASE_INIT_PREFIX + "Bugly",
+            StartupTracer.PHASE_INIT_PREFIX + "TitleBar",
+            StartupTracer.PHASE_INIT_PREFIX + "Toaster",
+            StartupTracer.PHASE_INIT_PREFIX + "EasyHttp",
+            StartupTracer.PHASE_INIT_PREFIX + "MMKV",
+            StartupTracer.PHASE_INIT_PREFIX + "BrowserViewPool",
+            StartupTracer.PHASE_APPLICATION_CREATED,
+            StartupTracer.PHASE_SPLASH_CREATED,
+            StartupTracer.PHASE_BROWSER_VIEW_CREATED,
+            StartupTracer.PHASE_PAGE_STARTED,
+            StartupTracer.PHASE_PAGE_FINISHED,
+    };
+
+    /** 最多保存的启动记录数量 */
+    private static final int RECORD_COUNT = 30;
+
+    /**
+     * 生成旧版本保存的 JSON 格式启动记录
+     */
+    private static String legacyJson(int count) throws JSONException {
+        JSONArray records = new JSONArray();
+        for (int i = 0; i < count; i++) {
+            JSONObject record = new JSONObject();
+            record.put("time", 1790000000000L + i * 3600_000L);
+            record.put("versionName", "13.1");
+            JSONObject phases = new JSONObject();
+            for (int j = 0; j < PHASES.length; j++) {
+                phases.put(PHASES[j], 30L * (j + 1) + i);
+            }
+            record.put("phases", phases);
+            records.put(record);
+        }
+        return records.toString();
+    }
+
+    @Test
+    public void legacyJsonRecordsAreConverted() throws JSONException {
+        List<StartupTracer.Record> records = StartupTracer.parseJsonRecords(legacyJson(3));
+        assertEquals(3, records.size());
+
+        StartupTracer.Record record = records.get(2);
+        assertEquals(1790000000000L + 2 * 3600_000L, record.getTime());
+        assertEquals("13.1", record.getVersionName());
+        assertEquals(PHASES.length, record.getPhases().size());
+        assertEquals(Long.valueOf(30 + 2), record.getPhases().get(StartupTracer.PHASE_ATTACH_BASE_CONTEXT));
+
+        // 转换之后可以按照二进制格式保存和读取
+        byte[] bytes = BinaryCodec.encode(new StartupTracer.RecordList(records));
+        List<StartupTracer.Record> result = BinaryCodec.decode(bytes, StartupTracer.RecordList.class).mRecords;
+        assertEquals(3, result.size());
+        assertEquals(record.getTime(), result.get(2).getTime());
+        assertEquals(record.getPhases(), result.get(2).getPhases());
+    }
+
+    @Test
+    public void malformedLegacyJsonIsIgnored() {
+        assertTrue(StartupTracer.parseJsonRecords(null).isEmpty());
+        assertTrue(StartupTracer.parseJsonRecords("").isEmpty());
+        assertTrue(StartupTracer.parseJsonRecords("{not json").isEmpty());
+        // 没有阶段信息的记录会被跳过
+        assertEquals(1, StartupTracer.parseJsonRecords("[1, {\"time\":1}, {\"time\":2,\"phases\":{\"a\":3}}]").size());
+    }
+
+    /**
+     * 对比 30 条启动记录在二进制格式和旧版本 JSON 格式下的大小和解析耗时
+     */
+    @Test
+    public void binaryIsSmallerAndFasterThanJson() throws JSONException {
+        String json = legacyJson(RECORD_COUNT);
+        List<StartupTracer.Record> records = StartupTracer.parseJsonRecords(json);
+        byte[] binary = BinaryCodec.encode(new StartupTracer.RecordList(records));
+        int jsonSize = json.getBytes(Charset.forName("UTF-8")).length;
+
+        // 预热
+        int iterations = 2000;
+        long jsonTime = 0;
+        long binaryTime = 0;
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                assertEquals(RECORD_COUNT, StartupTracer.parseJsonRecords(json).size());
+            }
+            jsonTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                assertEquals(RECORD_COUNT, BinaryCodec.decode(binary, StartupTracer.RecordList.class).mRecords.size());
+            }
+            binaryTime = System.nanoTime() - start;
+        }
+
+        System.out.printf("StartupTracer %d records：json = %d bytes, %d ns/decode；binary = %d bytes, %d ns/decode%n",
+                RECORD_COUNT, jsonSize, jsonTime / iterations, binary.length, binaryTime / iterations);
+        // 阶段名称只在字符串表中保存一份，数据量至少要少一半（耗时和机器有关，只打印不断言）
+        assertTrue(binary.length * 2 < jsonSize);
+    }
+}
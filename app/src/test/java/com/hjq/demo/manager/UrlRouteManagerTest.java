@@ -0,0 +1,96 @@
+package com.hjq.demo.manager;
+
+import android.net.Uri;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : 网页链接路由匹配测试
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public final class UrlRouteManagerTest {
+
+    private static final String ROUTES = "[" +
+            "{\"scheme\":\"https\",\"host\":\"*.example.com\",\"path\":\"/scan\",\"handler\":\"camera\"}," +
+            "{\"scheme\":\"https\",\"host\":\"pay.example.com\",\"path\":\"/order\",\"handler\":\"dialer\"}," +
+            "{\"scheme\":\"https\",\"host\":\"pay.example.com\",\"path\":\"/order\",\"query\":\"id\",\"handler\":\"external\"}," +
+            "{\"scheme\":\"https\",\"host\":\"shop.com\",\"path\":\"/a\",\"handler\":\"a\"}," +
+            "{\"scheme\":\"https\",\"host\":\"shop.com\",\"path\":\"/a/b\",\"handler\":\"b\"}," +
+            "{\"scheme\":\"HTTPS\",\"host\":\"UPPER.com\",\"handler\":\"upper\"}," +
+            "{\"host\":\"no-scheme.com\",\"handler\":\"ignored\"}" +
+            "]";
+
+    private static String match(String routes, String url) {
+        UrlRouteManager manager = UrlRouteManager.getInstance();
+        manager.load(routes);
+        return manager.match(Uri.parse(url));
+    }
+
+    @Test
+    public void builtInRoutes() {
+        assertEquals(UrlRouteManager.HANDLER_DIALER, match(null, "tel:10086"));
+        assertEquals(UrlRouteManager.HANDLER_CAMERA, match(null, "https://a.com/page?doScan=1"));
+        assertEquals(UrlRouteManager.HANDLER_CAMERA, match(null, "http://a.com/?doScan"));
+        assertNull(match(null, "https://a.com/page?scan=1"));
+        assertNull(match(null, "ftp://a.com/file"));
+        assertNull(match(null, "/relative/path"));
+    }
+
+    @Test
+    public void wildcardHostMatchesSubdomains() {
+        assertEquals(UrlRouteManager.HANDLER_CAMERA, match(ROUTES, "https://a.example.com/scan"));
+        assertEquals(UrlRouteManager.HANDLER_CAMERA, match(ROUTES, "https://a.b.example.com/scan/1"));
+        assertNull(match(ROUTES, "https://example.com/scan"));
+        assertNull(match(ROUTES, "https://a.example.com/scanner"));
+    }
+
+    @Test
+    public void exactHostTakesPriorityOverWildcard() {
+        assertEquals(UrlRouteManager.HANDLER_DIALER, match(ROUTES, "https://pay.example.com/order"));
+        // pay.example.com 上没有 /scan，回退到 *.example.com
+        assertEquals(UrlRouteManager.HANDLER_CAMERA, match(ROUTES, "https://pay.example.com/scan"));
+    }
+
+    @Test
+    public void queryRouteIsMoreSpecific() {
+        assertEquals(UrlRouteManager.HANDLER_EXTERNAL, match(ROUTES, "https://pay.example.com/order?id=1"));
+        assertEquals(UrlRouteManager.HANDLER_DIALER, match(ROUTES, "https://pay.example.com/order?other=1"));
+    }
+
+    @Test
+    public void longestPathPrefixWins() {
+        assertEquals("b", match(ROUTES, "https://shop.com/a/b/c"));
+        assertEquals("a", match(ROUTES, "https://shop.com/a/c"));
+        assertEquals("a", match(ROUTES, "https://shop.com/a"));
+        assertNull(match(ROUTES, "https://shop.com/ab"));
+    }
+
+    @Test
+    public void schemeAndHostAreCaseInsensitive() {
+        assertEquals("upper", match(ROUTES, "https://upper.com/any"));
+        assertEquals(UrlRouteManager.HANDLER_DIALER, match(ROUTES, "HTTPS://Pay.Example.COM/order"));
+        assertNull(match(ROUTES, "https://no-scheme.com/"));
+    }
+
+    @Test
+    public void remoteRoutesOverrideBuiltIn() {
+        String routes = "[{\"scheme\":\"tel\",\"handler\":\"external\"}]";
+        assertEquals(UrlRouteManager.HANDLER_EXTERNAL, match(routes, "tel:10086"));
+    }
+
+    @Test
+    public void malformedRoutesKeepBuiltIn() {
+        assertEquals(UrlRouteManager.HANDLER_DIALER, match("{not json", "tel:10086"));
+        assertNull(match("{not json", "https://a.example.com/scan"));
+    }
+}
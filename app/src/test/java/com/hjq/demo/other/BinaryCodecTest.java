@@ -0,0 +1,246 @@
+package com.hjq.demo.other;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : 二进制对象编解码测试
+ */
+public final class BinaryCodecTest {
+
+    private static final class Item {
+
+        private long id;
+        private String name;
+        private boolean enabled;
+        private List<Item> children = new ArrayList<>();
+    }
+
+    private static final class ItemCodec implements BinaryCodec.Codec<Item> {
+
+        private static final int TAG_ID = 1;
+        private static final int TAG_NAME = 2;
+        private static final int TAG_ENABLED = 3;
+        private static final int TAG_CHILD = 4;
+
+        @Override
+        public void encode(@NonNull BinaryCodec.Writer writer, @NonNull Item value) {
+            writer.writeLong(TAG_ID, value.id);
+            writer.writeString(TAG_NAME, value.name);
+            writer.writeBoolean(TAG_ENABLED, value.enabled);
+            writer.writeList(TAG_CHILD, this, value.children);
+        }
+
+        @NonNull
+        @Override
+        public Item decode(@NonNull BinaryCodec.Reader reader) {
+            Item item = new Item();
+            int tag;
+            while ((tag = reader.nextField()) != -1) {
+                switch (tag) {
+                    case TAG_ID:
+                        item.id = reader.readLong();
+                        break;
+                    case TAG_NAME:
+                        item.name = reader.readString();
+                        break;
+                    case TAG_ENABLED:
+                        item.enabled = reader.readBoolean();
+                        break;
+                    case TAG_CHILD:
+                        item.children.add(reader.readObject(this));
+                        break;
+                    default:
+                        reader.skip();
+                        break;
+                }
+            }
+            return item;
+        }
+    }
+
+    /**
+     * 旧版本的 Item，只认识编号和名称
+     */
+    private static final class OldItem {
+
+        private long id;
+        private String name;
+    }
+
+    private static final class OldItemCodec implements BinaryCodec.Codec<OldItem> {
+
+        @Override
+        public void encode(@NonNull BinaryCodec.Writer writer, @NonNull OldItem value) {
+            writer.writeLong(1, value.id);
+            writer.writeString(2, value.name);
+        }
+
+        @NonNull
+        @Override
+        public OldItem decode(@NonNull BinaryCodec.Reader reader) {
+            OldItem item = new OldItem();
+            int tag;
+            while ((tag = reader.nextField()) != -1) {
+                if (tag == 1) {
+                    item.id = reader.readLong();
+                } else if (tag == 2) {
+                    item.name = reader.readString();
+                } else {
+                    reader.skip();
+                }
+            }
+            return item;
+        }
+    }
+
+    static {
+        BinaryCodec.register(Item.class, new ItemCodec());
+        BinaryCodec.register(OldItem.class, new OldItemCodec());
+    }
+
+    private static Item item(long id, String name, boolean enabled, Item... children) {
+        Item item = new Item();
+        item.id = id;
+        item.name = name;
+        item.enabled = enabled;
+        item.children.addAll(Arrays.asList(children));
+        return item;
+    }
+
+    @Test
+    public void roundTrip() {
+        Item source = item(Long.MIN_VALUE, "根节点", true,
+                item(-1, "child", false),
+                item(Long.MAX_VALUE, null, true, item(0, "child", false)));
+
+        Item result = BinaryCodec.decode(BinaryCodec.encode(source), Item.class);
+        assertEquals(Long.MIN_VALUE, result.id);
+        assertEquals("根节点", result.name);
+        assertTrue(result.enabled);
+        assertEquals(2, result.children.size());
+
+        Item first = result.children.get(0);
+        assertEquals(-1, first.id);
+        assertEquals("child", first.name);
+        assertFalse(first.enabled);
+
+        Item second = result.children.get(1);
+        assertEquals(Long.MAX_VALUE, second.id);
+        assertNull(second.name);
+        assertEquals("child", second.children.get(0).name);
+    }
+
+    @Test
+    public void repeatedStringsAreStoredOnce() {
+        String name = "a fairly long repeated string";
+        Item once = item(1, name, false);
+        Item twice = item(1, name, false, item(2, name, false));
+        // 第二个对象只多了一个子对象的几个字节，字符串没有重复保存
+        assertTrue(BinaryCodec.encode(twice).length - BinaryCodec.encode(once).length < name.length());
+    }
+
+    @Test
+    public void unknownFieldsAreSkipped() {
+        Item source = item(42, "name", true, item(1, "child", true));
+        OldItem result = BinaryCodec.decode(BinaryCodec.encode(source), OldItem.class);
+        assertEquals(42, result.id);
+        assertEquals("name", result.name);
+    }
+
+    @Test
+    public void missingFieldsKeepDefaults() {
+        OldItem source = new OldItem();
+        source.id = 7;
+        source.name = "old";
+        Item result = BinaryCodec.decode(BinaryCodec.encode(source), Item.class);
+        assertEquals(7, result.id);
+        assertEquals("old", result.name);
+        assertFalse(result.enabled);
+        assertTrue(result.children.isEmpty());
+    }
+
+    @Test
+    public void rejectsUnregisteredClass() {
+        assertRejected(() -> BinaryCodec.encode("string"));
+        assertRejected(() -> BinaryCodec.decode(BinaryCodec.encode(item(1, "a", true)), String.class));
+    }
+
+    @Test
+    public void rejectsMalformedHeader() {
+        assertRejected(() -> BinaryCodec.decode(new byte[0], Item.class));
+        assertRejected(() -> BinaryCodec.decode("{\"id\":1}".getBytes(), Item.class));
+
+        byte[] bytes = BinaryCodec.encode(item(1, "a", true));
+        bytes[1] = 99;
+        assertRejected(() -> BinaryCodec.decode(bytes, Item.class));
+    }
+
+    @Test
+    public void rejectsTruncatedData() {
+        byte[] bytes = BinaryCodec.encode(item(1L << 40, "name", true, item(2, "child", true)));
+        // 截断到任何位置都不能越界读取，只能抛出 IllegalArgumentException 或者得到部分字段
+        for (int length = 2; length < bytes.length; length++) {
+            byte[] truncated = Arrays.copyOf(bytes, length);
+            try {
+                BinaryCodec.decode(truncated, Item.class);
+            } catch (IllegalArgumentException e) {
+                // 正常情况
+            }
+        }
+        assertRejected(() -> BinaryCodec.decode(Arrays.copyOf(bytes, 3), Item.class));
+    }
+
+    @Test
+    public void rejectsBadStringIndex() {
+        // 字符串表为空，字段 2（字符串）指向下标 5
+        byte[] bytes = {(byte) 0xB1, 1, 0, (2 << 2) | 1, 5};
+        assertRejected(() -> BinaryCodec.decode(bytes, Item.class));
+    }
+
+    @Test
+    public void rejectsTypeMismatch() {
+        // 字段 2（字符串）按照 varint 写入
+        byte[] bytes = {(byte) 0xB1, 1, 0, 2 << 2, 5};
+        assertRejected(() -> BinaryCodec.decode(bytes, Item.class));
+    }
+
+    @Test
+    public void rejectsOverlongVarint() {
+        byte[] bytes = new byte[14];
+        bytes[0] = (byte) 0xB1;
+        bytes[1] = 1;
+        Arrays.fill(bytes, 2, bytes.length, (byte) 0xFF);
+        assertRejected(() -> BinaryCodec.decode(bytes, Item.class));
+    }
+
+    @Test
+    public void encodingIsDeterministic() {
+        Item source = item(3, "same", true, item(4, "same", false));
+        assertArrayEquals(BinaryCodec.encode(source), BinaryCodec.encode(source));
+    }
+
+    private static void assertRejected(Runnable runnable) {
+        try {
+            runnable.run();
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // 正常情况
+        }
+    }
+}
@@ -19,6 +19,7 @@ import com.hjq.base.action.BundleAction;
 import com.hjq.base.action.ClickAction;
 import com.hjq.base.action.HandlerAction;
 import com.hjq.base.action.KeyboardAction;
+import com.hjq.base.action.TaskAction;
 
 import java.util.List;
 import java.util.Random;
@@ -31,7 +32,7 @@ import java.util.Random;
  */
 public abstract class BaseActivity extends AppCompatActivity
         implements ActivityAction, ClickAction,
-        HandlerAction, BundleAction, KeyboardAction {
+        HandlerAction, BundleAction, KeyboardAction, TaskAction {
 
     /** 错误结果码 */
     public static final int RESULT_ERROR = -2;
@@ -43,6 +43,7 @@ import com.hjq.base.action.ClickAction;
 import com.hjq.base.action.HandlerAction;
 import com.hjq.base.action.KeyboardAction;
 import com.hjq.base.action.ResourcesAction;
+import com.hjq.base.action.TaskAction;
 
 import java.lang.ref.SoftReference;
 import java.util.ArrayList;
@@ -55,7 +56,7 @@ import java.util.List;
  *    desc   : Dialog 技术基类
  */
 public class BaseDialog extends AppCompatDialog implements LifecycleOwner,
-        ActivityAction, ResourcesAction, HandlerAction, ClickAction, AnimAction, KeyboardAction,
+        ActivityAction, ResourcesAction, HandlerAction, ClickAction, AnimAction, KeyboardAction, TaskAction,
         DialogInterface.OnShowListener, DialogInterface.OnCancelListener, DialogInterface.OnDismissListener {
 
     private final ListenersWrapper<BaseDialog> mListeners = new ListenersWrapper<>(this);
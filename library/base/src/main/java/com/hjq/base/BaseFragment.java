@@ -21,6 +21,7 @@ import com.hjq.base.action.ClickAction;
 import com.hjq.base.action.HandlerAction;
 import com.hjq.base.action.KeyboardAction;
 import com.hjq.base.action.ResourcesAction;
+import com.hjq.base.action.TaskAction;
 
 import java.util.List;
 
@@ -31,7 +32,7 @@ import java.util.List;
  *    desc   : Fragment 技术基类
  */
 public abstract class BaseFragment<A extends BaseActivity> extends Fragment implements
-        ActivityAction, ResourcesAction, HandlerAction, ClickAction, BundleAction, KeyboardAction {
+        ActivityAction, ResourcesAction, HandlerAction, ClickAction, BundleAction, KeyboardAction, TaskAction {
 
     /** Activity 对象 */
     private A mActivity;
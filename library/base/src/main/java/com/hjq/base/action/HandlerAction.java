@@ -2,6 +2,7 @@ package com.hjq.base.action;
 
 import android.os.Handler;
 import android.os.Looper;
+import android.os.Message;
 import android.os.SystemClock;
 
 /**
@@ -12,7 +13,17 @@ import android.os.SystemClock;
  */
 public interface HandlerAction {
 
-    Handler HANDLER = new Handler(Looper.getMainLooper());
+    Handler HANDLER = new Handler(Looper.getMainLooper()) {
+
+        @Override
+        public void dispatchMessage(Message msg) {
+            // 发送的时候还没有销毁，轮到执行的时候可能已经销毁了，所以在主线程上再判断一次
+            if (MainDispatcher.isDestroyed(msg.obj)) {
+                return;
+            }
+            super.dispatchMessage(msg);
+        }
+    };
 
     /**
      * 获取 Handler
@@ -42,15 +53,42 @@ public interface HandlerAction {
      * 在指定的时间执行
      */
     default boolean postAtTime(Runnable runnable, long uptimeMillis) {
+        // 已经销毁了就不再发送，避免子线程在销毁之后回调界面（执行之前 HANDLER 还会再判断一次）
+        if (MainDispatcher.isDestroyed(this)) {
+            return false;
+        }
         // 发送和当前对象相关的消息回调
         return HANDLER.postAtTime(runnable, this, uptimeMillis);
     }
 
+    /**
+     * 在下一帧执行（适合界面更新，同一个对象重复提交的同一个任务在这一帧之前只执行一次）
+     */
+    default boolean postFrame(Runnable runnable) {
+        if (MainDispatcher.isDestroyed(this)) {
+            return false;
+        }
+        MainDispatcher.getInstance().postFrame(this, runnable);
+        return true;
+    }
+
+    /**
+     * 在主线程空闲的时候执行（适合不着急的任务，例如预加载、统计上报）
+     */
+    default boolean postIdle(Runnable runnable) {
+        if (MainDispatcher.isDestroyed(this)) {
+            return false;
+        }
+        MainDispatcher.getInstance().postIdle(this, runnable);
+        return true;
+    }
+
     /**
      * 移除单个消息回调
      */
     default void removeCallbacks(Runnable runnable) {
         HANDLER.removeCallbacks(runnable);
+        MainDispatcher.getInstance().remove(null, runnable);
     }
 
     /**
@@ -59,5 +97,6 @@ public interface HandlerAction {
     default void removeCallbacks() {
         // 移除和当前对象相关的消息回调
         HANDLER.removeCallbacksAndMessages(this);
+        MainDispatcher.getInstance().remove(this, null);
     }
 }
\ No newline at end of file
@@ -0,0 +1,97 @@
+package com.hjq.base.action;
+
+import android.os.CancellationSignal;
+import android.os.OperationCanceledException;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : 和生命周期绑定的后台任务（取消的时候同时中断线程和 CancellationSignal）
+ */
+final class LifecycleTask extends FutureTask<Void> {
+
+    private final CancellationSignal mSignal;
+
+    /** 生命周期观察者，任务完成之后需要移除 */
+    private volatile CancelObserver mObserver;
+
+    LifecycleTask(TaskAction.CancellableTask task) {
+        this(task, new CancellationSignal());
+    }
+
+    private LifecycleTask(TaskAction.CancellableTask task, CancellationSignal signal) {
+        super(() -> {
+            try {
+                task.run(signal);
+            } catch (OperationCanceledException e) {
+                // 查询被取消了，不需要处理
+            }
+        }, null);
+        mSignal = signal;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        if (cancelled) {
+            mSignal.cancel();
+        }
+        return cancelled;
+    }
+
+    @Override
+    protected void done() {
+        CancelObserver observer = mObserver;
+        if (observer != null) {
+            // 观察者只能在主线程中移除
+            HandlerAction.HANDLER.post(observer::unbind);
+        }
+    }
+
+    /**
+     * 销毁的时候取消任务（需要在主线程调用）
+     */
+    static void bind(Lifecycle lifecycle, Future<?> future) {
+        CancelObserver observer = new CancelObserver(lifecycle, future);
+        lifecycle.addObserver(observer);
+        if (future instanceof LifecycleTask) {
+            ((LifecycleTask) future).mObserver = observer;
+            if (future.isDone()) {
+                observer.unbind();
+            }
+        }
+    }
+
+    private static final class CancelObserver implements LifecycleEventObserver {
+
+        private final Lifecycle mLifecycle;
+        private final Future<?> mFuture;
+
+        private CancelObserver(Lifecycle lifecycle, Future<?> future) {
+            mLifecycle = lifecycle;
+            mFuture = future;
+        }
+
+        @Override
+        public void onStateChanged(@NonNull LifecycleOwner source, @NonNull Lifecycle.Event event) {
+            if (event != Lifecycle.Event.ON_DESTROY) {
+                return;
+            }
+            unbind();
+            mFuture.cancel(true);
+        }
+
+        private void unbind() {
+            mLifecycle.removeObserver(this);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.hjq.base.action;
+
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : 主线程任务调度（界面更新合并到下一帧统一执行，不着急的任务等主线程空闲的时候再执行）
+ *
+ *    只有主动调用 {@link HandlerAction#postFrame(Runnable)} 和 {@link HandlerAction#postIdle(Runnable)} 的任务才会交给这里处理，
+ *    {@link HandlerAction#post(Runnable)} 仍然直接发送到 Handler，顺序和次数都不受影响
+ *
+ *    下一帧的任务：同一个对象重复提交的同一个任务只执行一次，每一帧最多执行 {@link #FRAME_BUDGET_NANOS} 的任务，
+ *    剩下的留到下一帧（没有新的帧就不会执行，例如熄屏的时候，所以不要用来提交必须执行的任务）
+ */
+public final class MainDispatcher implements Choreographer.FrameCallback, MessageQueue.IdleHandler {
+
+    /** 每一帧执行任务的时间预算 */
+    private static final long FRAME_BUDGET_NANOS = 8_000_000L;
+
+    private static final MainDispatcher INSTANCE = new MainDispatcher();
+
+    /** 下一帧需要执行的任务（key 相同的任务只保留一个） */
+    private final LinkedHashMap<TaskKey, Runnable> mFrameTasks = new LinkedHashMap<>();
+    /** 空闲时需要执行的任务 */
+    private final LinkedHashMap<TaskKey, Runnable> mIdleTasks = new LinkedHashMap<>();
+
+    /** 是否已经预约了下一帧 */
+    private boolean mFrameScheduled;
+    /** 是否已经注册了空闲监听 */
+    private boolean mIdleScheduled;
+
+    private Choreographer mChoreographer;
+
+    private final Runnable mScheduleFrameRunnable = this::scheduleFrameOnMainThread;
+    private final Runnable mScheduleIdleRunnable = () -> Looper.myQueue().addIdleHandler(this);
+
+    private MainDispatcher() {}
+
+    public static MainDispatcher getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 在下一帧执行任务（可以在任意线程调用）
+     *
+     * @param token             任务所属的对象，同一个对象重复提交的同一个任务只会执行一次
+     */
+    public void postFrame(@Nullable Object token, @NonNull Runnable runnable) {
+        boolean schedule;
+        synchronized (this) {
+            mFrameTasks.put(new TaskKey(token, runnable), runnable);
+            schedule = !mFrameScheduled;
+            mFrameScheduled = true;
+        }
+        if (!schedule) {
+            return;
+        }
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            scheduleFrameOnMainThread();
+        } else {
+            HandlerAction.HANDLER.post(mScheduleFrameRunnable);
+        }
+    }
+
+    /**
+     * 在主线程空闲的时候执行任务（可以在任意线程调用，每次空闲只执行一个）
+     */
+    public void postIdle(@Nullable Object token, @NonNull Runnable runnable) {
+        boolean schedule;
+        synchronized (this) {
+            mIdleTasks.put(new TaskKey(token, runnable), runnable);
+            schedule = !mIdleScheduled;
+            mIdleScheduled = true;
+        }
+        if (!schedule) {
+            return;
+        }
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            Looper.myQueue().addIdleHandler(this);
+        } else {
+            HandlerAction.HANDLER.post(mScheduleIdleRunnable);
+        }
+    }
+
+    /**
+     * 移除任务
+     *
+     * @param token             为空则不限制所属的对象
+     * @param runnable          为空则移除对象的所有任务
+     */
+    public synchronized void remove(@Nullable Object token, @Nullable Runnable runnable) {
+        remove(mFrameTasks, token, runnable);
+        remove(mIdleTasks, token, runnable);
+    }
+
+    private static void remove(Map<TaskKey, Runnable> tasks, @Nullable Object token, @Nullable Runnable runnable) {
+        Iterator<TaskKey> iterator = tasks.keySet().iterator();
+        while (iterator.hasNext()) {
+            TaskKey key = iterator.next();
+            if ((token == null || key.mToken == token) && (runnable == null || key.mRunnable == runnable)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void scheduleFrameOnMainThread() {
+        if (mChoreographer == null) {
+            // Choreographer 是和线程绑定的，只能在主线程中获取
+            mChoreographer = Choreographer.getInstance();
+        }
+        mChoreographer.postFrameCallback(this);
+    }
+
+    /**
+     * {@link Choreographer.FrameCallback}
+     */
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        int count;
+        synchronized (this) {
+            // 只执行这一帧开始之前提交的任务，执行过程中新提交的任务留到下一帧
+            count = mFrameTasks.size();
+        }
+
+        long startTime = System.nanoTime();
+        while (count-- > 0) {
+            Map.Entry<TaskKey, Runnable> task;
+            synchronized (this) {
+                // 每次都从队列中取，这样前面的任务移除后面的任务也能生效
+                Iterator<Map.Entry<TaskKey, Runnable>> iterator = mFrameTasks.entrySet().iterator();
+                if (!iterator.hasNext()) {
+                    break;
+                }
+                task = iterator.next();
+                iterator.remove();
+            }
+            run(task.getKey(), task.getValue());
+            // 这一帧的时间用完了，剩下的留到下一帧
+            if (System.nanoTime() - startTime > FRAME_BUDGET_NANOS) {
+                break;
+            }
+        }
+
+        boolean schedule;
+        synchronized (this) {
+            mFrameScheduled = !mFrameTasks.isEmpty();
+            schedule = mFrameScheduled;
+        }
+        if (schedule) {
+            scheduleFrameOnMainThread();
+        }
+    }
+
+    /**
+     * {@link MessageQueue.IdleHandler}
+     */
+    @Override
+    public boolean queueIdle() {
+        Map.Entry<TaskKey, Runnable> task = null;
+        synchronized (this) {
+            Iterator<Map.Entry<TaskKey, Runnable>> iterator = mIdleTasks.entrySet().iterator();
+            if (iterator.hasNext()) {
+                task = iterator.next();
+                iterator.remove();
+            }
+        }
+        if (task != null) {
+            run(task.getKey(), task.getValue());
+        }
+        synchronized (this) {
+            mIdleScheduled = !mIdleTasks.isEmpty();
+            // 返回 true 表示下次空闲的时候继续回调
+            return mIdleScheduled;
+        }
+    }
+
+    /**
+     * 执行任务（所属的对象在提交之后已经销毁了就不再执行）
+     */
+    private static void run(TaskKey key, Runnable runnable) {
+        if (isDestroyed(key.mToken)) {
+            return;
+        }
+        runnable.run();
+    }
+
+    /**
+     * 判断任务所属的对象是否已经销毁
+     */
+    static boolean isDestroyed(@Nullable Object token) {
+        return token instanceof LifecycleOwner &&
+                ((LifecycleOwner) token).getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED;
+    }
+
+    /**
+     * 任务的 key（所属的对象和任务本身）
+     */
+    private static final class TaskKey {
+
+        private final Object mToken;
+        private final Runnable mRunnable;
+
+        private TaskKey(Object token, Runnable runnable) {
+            mToken = token;
+            mRunnable = runnable;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TaskKey)) {
+                return false;
+            }
+            TaskKey key = (TaskKey) o;
+            return mToken == key.mToken && mRunnable == key.mRunnable;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(mToken) + System.identityHashCode(mRunnable);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.hjq.base.action;
+
+import android.os.CancellationSignal;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ *    author : Android 轮子哥
+ *    github : https://github.com/getActivity/AndroidProject
+ *    time   : 2026/10/18
+ *    desc   : 后台任务意图处理（任务和生命周期绑定，销毁的时候自动取消并中断线程）
+ */
+public interface TaskAction extends LifecycleOwner {
+
+    /**
+     * 在线程池中执行任务（需要在主线程调用）
+     */
+    default Future<?> executeTask(@NonNull Executor executor, @NonNull Runnable runnable) {
+        return executeTask(executor, signal -> runnable.run());
+    }
+
+    /**
+     * 在线程池中执行可以取消的任务（需要在主线程调用）
+     *
+     * 销毁的时候会中断执行任务的线程，同时取消 {@link CancellationSignal}，
+     * 可以把它传给 ContentResolver.query 等方法，让正在进行的查询也一起中断
+     */
+    default Future<?> executeTask(@NonNull Executor executor, @NonNull CancellableTask task) {
+        LifecycleTask future = new LifecycleTask(task);
+        if (getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+            future.cancel(true);
+            return future;
+        }
+        bindTask(future);
+        try {
+            executor.execute(future);
+        } catch (RejectedExecutionException e) {
+            future.cancel(true);
+            throw e;
+        }
+        return future;
+    }
+
+    /**
+     * 将已经提交的任务和生命周期绑定，销毁的时候调用 cancel(true)（需要在主线程调用）
+     */
+    default <F extends Future<?>> F bindTask(@NonNull F future) {
+        if (future.isDone()) {
+            return future;
+        }
+        if (getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+            future.cancel(true);
+            return future;
+        }
+        LifecycleTask.bind(getLifecycle(), future);
+        return future;
+    }
+
+    /**
+     * 可以取消的任务
+     */
+    interface CancellableTask {
+
+        /**
+         * 执行任务（在子线程中回调）
+         *
+         * @param signal            任务被取消的时候会收到通知
+         */
+        void run(@NonNull CancellationSignal signal);
+    }
+}